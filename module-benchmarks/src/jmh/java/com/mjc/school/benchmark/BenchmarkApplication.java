@@ -0,0 +1,56 @@
+package com.mjc.school.benchmark;
+
+import com.mjc.school.Main;
+import com.mjc.school.datagen.DatasetConfig;
+import com.mjc.school.datagen.DatasetGenerator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+// The whole application on an embedded server and an in-memory H2 migrated by Flyway
+@State(Scope.Benchmark)
+public class BenchmarkApplication {
+
+    public static final int DATASET_SIZE = Integer.getInteger("benchmark.dataset.size", 10_000);
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws SQLException {
+        context = new SpringApplicationBuilder(Main.class).run(
+            "--spring.profiles.active=benchmark",
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--server.port=0",
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            // the benchmarks measure reading and serializing, a cached page would skip both
+            "--news.response-cache.enabled=" + Boolean.getBoolean("benchmark.response-cache"));
+        DatasetConfig config = new DatasetConfig.Builder()
+            .news(DATASET_SIZE)
+            .authors(Math.max(1, DATASET_SIZE / 100))
+            .tags(Math.max(10, DATASET_SIZE / 20))
+            .build();
+        new DatasetGenerator(config).generate(context.getBean(DataSource.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int getPort() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
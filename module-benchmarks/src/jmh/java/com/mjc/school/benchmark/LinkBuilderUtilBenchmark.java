@@ -0,0 +1,44 @@
+package com.mjc.school.benchmark;
+
+import com.mjc.school.controller.assembler.LinkBuilderUtil;
+import com.mjc.school.controller.impl.NewsController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+// The request is bound to the benchmark thread, as it is to a servlet thread
+@State(Scope.Thread)
+public class LinkBuilderUtilBenchmark {
+
+    private LinkBuilderUtil linkBuilder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        linkBuilder = new LinkBuilderUtil();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/news");
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public String buildResourceLink() {
+        return linkBuilder.buildLink(NewsController.class, "readById", 1L);
+    }
+
+    @Benchmark
+    public String buildCollectionLink() {
+        return linkBuilder.buildCollectionLink(NewsController.class);
+    }
+}
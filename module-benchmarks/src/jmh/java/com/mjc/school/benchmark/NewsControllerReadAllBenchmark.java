@@ -0,0 +1,44 @@
+package com.mjc.school.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+// GET /api/v1/news over HTTP: service, HATEOAS assembly and JSON serialization together
+@State(Scope.Benchmark)
+public class NewsControllerReadAllBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApplication application) {
+        httpClient = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create(
+                "http://localhost:" + application.getPort() + "/api/v1/news?page=1&pageSize=" + pageSize))
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+    }
+
+    @Benchmark
+    public byte[] readAll() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET /news answered " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,69 @@
+package com.mjc.school.benchmark;
+
+import com.mjc.school.repository.model.Author;
+import com.mjc.school.repository.model.Comment;
+import com.mjc.school.repository.model.News;
+import com.mjc.school.repository.model.Tag;
+import com.mjc.school.service.dto.NewsDtoResponse;
+import com.mjc.school.service.mapper.NewsMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class NewsMapperBenchmark {
+
+    @Param({"3", "30"})
+    public int associationCount;
+
+    private NewsMapper newsMapper;
+    private News news;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApplication application) {
+        newsMapper = application.getBean(NewsMapper.class);
+        LocalDateTime now = LocalDateTime.now();
+
+        Author author = new Author();
+        author.setId(1L);
+        author.setName("Benchmark author");
+        author.setCreatedDate(now);
+
+        List<Tag> tags = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (long i = 1; i <= associationCount; i++) {
+            Tag tag = new Tag();
+            tag.setId(i);
+            tag.setName("Tag " + i);
+            tags.add(tag);
+
+            Comment comment = new Comment();
+            comment.setId(i);
+            comment.setContent("Comment " + i);
+            comment.setCreatedDate(now);
+            comments.add(comment);
+        }
+
+        news = new News();
+        news.setId(1L);
+        news.setTitle("Benchmark title");
+        news.setContent("Benchmark content");
+        news.setCreatedDate(now);
+        news.setLastUpdatedDate(now);
+        news.setAuthor(author);
+        news.setTags(tags);
+        news.setComments(comments);
+    }
+
+    @Benchmark
+    public NewsDtoResponse modelToDto() {
+        return newsMapper.modelToDto(news);
+    }
+}
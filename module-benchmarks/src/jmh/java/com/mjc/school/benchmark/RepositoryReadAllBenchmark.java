@@ -0,0 +1,81 @@
+package com.mjc.school.benchmark;
+
+import com.mjc.school.repository.filter.pagination.CountPolicy;
+import com.mjc.school.repository.filter.pagination.KeysetCursor;
+import com.mjc.school.repository.filter.pagination.Page;
+import com.mjc.school.repository.filter.pagination.Pagination;
+import com.mjc.school.repository.filter.sorting.SortOrder;
+import com.mjc.school.repository.filter.sorting.Sorting;
+import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
+import com.mjc.school.repository.impl.NewsRepository;
+import com.mjc.school.repository.model.News;
+import com.mjc.school.repository.projection.NewsProjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// AbstractDBRepository.readAll at growing page depths, by OFFSET and by keyset cursor
+@State(Scope.Benchmark)
+public class RepositoryReadAllBenchmark {
+
+    private static final List<Sorting> SORTING = List.of(new Sorting("createdDate", SortOrder.DESC));
+
+    @Param({"1", "50", "250"})
+    public int page;
+
+    @Param({"20"})
+    public int pageSize;
+
+    private NewsRepository newsRepository;
+    private TransactionTemplate transactionTemplate;
+    private KeysetCursor cursor;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApplication application) {
+        newsRepository = application.getBean(NewsRepository.class);
+        transactionTemplate = new TransactionTemplate(application.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+        // the cursor of the row right before the requested page, taken once by offset
+        int offset = (page - 1) * pageSize;
+        if (offset > 0) {
+            Page<News> previous = transactionTemplate.execute(status ->
+                newsRepository.readAll(specification(new Pagination(offset, 1), null)));
+            cursor = previous.nextCursor() == null ? null : KeysetCursor.decode(previous.nextCursor());
+        }
+    }
+
+    @Benchmark
+    public Page<News> readAllByOffset() {
+        return transactionTemplate.execute(status ->
+            newsRepository.readAll(specification(new Pagination(page, pageSize), null)));
+    }
+
+    @Benchmark
+    public Page<News> readAllByCursor() {
+        return transactionTemplate.execute(status ->
+            newsRepository.readAll(specification(new Pagination(page, pageSize), cursor)));
+    }
+
+    @Benchmark
+    public Page<NewsProjection> readAllProjectionsByOffset() {
+        return transactionTemplate.execute(status ->
+            newsRepository.readAll(specification(new Pagination(page, pageSize), null), NewsProjection.PROJECTION));
+    }
+
+    private EntitySearchSpecification specification(Pagination pagination, KeysetCursor after) {
+        return new EntitySearchSpecification.Builder()
+            .pagination(pagination)
+            .sorting(SORTING)
+            .searchFilterSpecification(List.of())
+            .after(after)
+            .countPolicy(CountPolicy.SKIP)
+            .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.mjc.school.benchmark;
+
+import com.mjc.school.repository.filter.specification.SearchCriteria;
+import com.mjc.school.repository.filter.specification.SearchFilterSpecificationsBuilder;
+import com.mjc.school.repository.filter.specification.SearchOperation;
+import com.mjc.school.repository.model.News;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class SearchFilterSpecificationsBuilderBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int criteriaCount;
+
+    private List<SearchCriteria> criteriaList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        criteriaList = new ArrayList<>();
+        for (int i = 0; i < criteriaCount; i++) {
+            SearchOperation predicate = i % 2 == 0 ? SearchOperation.AND_PREDICATE : SearchOperation.OR_PREDICATE;
+            criteriaList.add(new SearchCriteria(predicate, "title", SearchOperation.LIKE, "title " + i));
+        }
+    }
+
+    @Benchmark
+    public Specification<News> build() {
+        return new SearchFilterSpecificationsBuilder<News>()
+            .withSearchCriteriaList(criteriaList)
+            .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.mjc.school.benchmark;
+
+import com.mjc.school.service.dto.CreateNewsDtoRequest;
+import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
+import com.mjc.school.service.validator.ConstraintViolation;
+import com.mjc.school.service.validator.ValidatorImpl;
+import com.mjc.school.service.validator.checker.MaxConstraintChecker;
+import com.mjc.school.service.validator.checker.MinConstraintChecker;
+import com.mjc.school.service.validator.checker.NotNullConstraintChecker;
+import com.mjc.school.service.validator.checker.SearchCriteriaChecker;
+import com.mjc.school.service.validator.checker.SizeConstraintChecker;
+import com.mjc.school.service.validator.checker.SortAndOrderChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Set;
+
+@State(Scope.Benchmark)
+public class ValidatorBenchmark {
+
+    private ValidatorImpl validator;
+    private CreateNewsDtoRequest createRequest;
+    private ResourceSearchFilterRequestDTO searchRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validator = new ValidatorImpl(List.of(
+            new NotNullConstraintChecker(),
+            new SizeConstraintChecker(),
+            new MinConstraintChecker(),
+            new MaxConstraintChecker(),
+            new SortAndOrderChecker(),
+            new SearchCriteriaChecker()));
+        createRequest = new CreateNewsDtoRequest("Benchmark title", "Benchmark content", "Benchmark author",
+            List.of("Technology", "Science"), List.of());
+        searchRequest = new ResourceSearchFilterRequestDTO(1, 20, List.of("createdDate:desc"),
+            List.of("title:like:news"));
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation> validateCreateRequest() {
+        return validator.validate(createRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation> validateSearchRequest() {
+        return validator.validate(searchRequest);
+    }
+}
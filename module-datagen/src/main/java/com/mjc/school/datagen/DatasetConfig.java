@@ -0,0 +1,120 @@
+package com.mjc.school.datagen;
+
+public class DatasetConfig {
+
+    private final int authors;
+    private final int news;
+    private final int tags;
+    private final int tagsPerNews;
+    private final double commentsPerNews;
+    private final double tagSkew;
+    private final double commentSkew;
+    private final long seed;
+
+    private DatasetConfig(Builder builder) {
+        this.authors = builder.authors;
+        this.news = builder.news;
+        this.tags = builder.tags;
+        this.tagsPerNews = Math.min(builder.tagsPerNews, builder.tags);
+        this.commentsPerNews = builder.commentsPerNews;
+        this.tagSkew = builder.tagSkew;
+        this.commentSkew = builder.commentSkew;
+        this.seed = builder.seed;
+    }
+
+    public int getAuthors() {
+        return authors;
+    }
+
+    public int getNews() {
+        return news;
+    }
+
+    public int getTags() {
+        return tags;
+    }
+
+    public int getTagsPerNews() {
+        return tagsPerNews;
+    }
+
+    public double getCommentsPerNews() {
+        return commentsPerNews;
+    }
+
+    public double getTagSkew() {
+        return tagSkew;
+    }
+
+    public double getCommentSkew() {
+        return commentSkew;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public static class Builder {
+
+        private int authors = 1_000;
+        private int news = 100_000;
+        private int tags = 10_000;
+        private int tagsPerNews = 3;
+        private double commentsPerNews = 5;
+        // Zipf exponents: 0 is uniform, around 1 is typical for popularity, higher is more skewed
+        private double tagSkew = 1.0;
+        private double commentSkew = 1.0;
+        private long seed = 42;
+
+        public DatasetConfig build() {
+            return new DatasetConfig(this);
+        }
+
+        public Builder authors(final int authors) {
+            this.authors = requirePositive(authors, "authors");
+            return this;
+        }
+
+        public Builder news(final int news) {
+            this.news = requirePositive(news, "news");
+            return this;
+        }
+
+        public Builder tags(final int tags) {
+            this.tags = requirePositive(tags, "tags");
+            return this;
+        }
+
+        public Builder tagsPerNews(final int tagsPerNews) {
+            this.tagsPerNews = Math.max(0, tagsPerNews);
+            return this;
+        }
+
+        public Builder commentsPerNews(final double commentsPerNews) {
+            this.commentsPerNews = Math.max(0, commentsPerNews);
+            return this;
+        }
+
+        public Builder tagSkew(final double tagSkew) {
+            this.tagSkew = Math.max(0, tagSkew);
+            return this;
+        }
+
+        public Builder commentSkew(final double commentSkew) {
+            this.commentSkew = Math.max(0, commentSkew);
+            return this;
+        }
+
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(String.format("Dataset needs at least one of '%s'.", name));
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.mjc.school.datagen;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+// Appends a deterministic dataset after the rows already present: the same config and the same starting ids
+// always produce the same rows. Ids are written explicitly and the id sequences are moved past them afterwards.
+public class DatasetGenerator {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int ID_ALLOCATION_SIZE = 50;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2020, 1, 1, 0, 0);
+    // co-prime with almost any news count, spreads the popular news over the whole id range
+    private static final long[] SPREAD_PRIMES = {1_000_003L, 998_244_353L};
+
+    private final DatasetConfig config;
+
+    public DatasetGenerator(DatasetConfig config) {
+        this.config = config;
+    }
+
+    public DatasetSummary generate(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return generate(connection);
+        }
+    }
+
+    public DatasetSummary generate(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            long firstAuthorId = firstFreeId(connection, "authors");
+            long firstTagId = firstFreeId(connection, "tags");
+            long firstNewsId = firstFreeId(connection, "news");
+            long firstCommentId = firstFreeId(connection, "comments");
+
+            long authors = insertAuthors(connection, firstAuthorId);
+            long tags = insertTags(connection, firstTagId);
+            long news = insertNews(connection, firstNewsId, firstAuthorId);
+            long newsTags = insertNewsTags(connection, firstNewsId, firstTagId);
+            long comments = insertComments(connection, firstCommentId, firstNewsId);
+            setCounters(connection, "news", "Comment_Count", "SELECT COUNT(*) FROM comments c WHERE c.News_Id = t.Id",
+                firstNewsId);
+            setCounters(connection, "authors", "News_Count", "SELECT COUNT(*) FROM news n WHERE n.Author_Id = t.Id",
+                firstAuthorId);
+            setCounters(connection, "tags", "News_Count", "SELECT COUNT(*) FROM newstags nt WHERE nt.Tag_Id = t.Id",
+                firstTagId);
+
+            for (String table : new String[] {"authors", "tags", "news", "comments"}) {
+                restartSequence(connection, table);
+            }
+            connection.commit();
+            return new DatasetSummary(authors, news, tags, newsTags, comments);
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private long insertAuthors(Connection connection, long firstId) throws SQLException {
+        try (Batch batch = new Batch(connection, "INSERT INTO authors (Id, Name, Created_Date) VALUES (?, ?, ?)")) {
+            for (long id = firstId; id < firstId + config.getAuthors(); id++) {
+                batch.add(id, "Author " + id, Timestamp.valueOf(EPOCH));
+            }
+            return batch.finish();
+        }
+    }
+
+    private long insertTags(Connection connection, long firstId) throws SQLException {
+        try (Batch batch = new Batch(connection, "INSERT INTO tags (Id, Name) VALUES (?, ?)")) {
+            for (long id = firstId; id < firstId + config.getTags(); id++) {
+                batch.add(id, "Tag " + id);
+            }
+            return batch.finish();
+        }
+    }
+
+    private long insertNews(Connection connection, long firstId, long firstAuthorId) throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.getSeed());
+        String sql = "INSERT INTO news (Id, Title, Content, Created_Date, Last_Updated_Date, Author_Id) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+        try (Batch batch = new Batch(connection, sql)) {
+            for (long index = 0; index < config.getNews(); index++) {
+                long id = firstId + index;
+                Timestamp created = newsCreatedDate(index);
+                batch.add(id, "News " + id, "Content of news " + id + ' ' + random.nextLong(), created, created,
+                    firstAuthorId + random.nextInt(config.getAuthors()));
+            }
+            return batch.finish();
+        }
+    }
+
+    // every news gets the same number of distinct tags, drawn by Zipfian popularity
+    private long insertNewsTags(Connection connection, long firstNewsId, long firstTagId) throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.getSeed() + 1);
+        ZipfDistribution popularity = new ZipfDistribution(config.getTags(), config.getTagSkew());
+        Set<Integer> ranks = new HashSet<>();
+        try (Batch batch = new Batch(connection, "INSERT INTO newstags (News_Id, Tag_Id) VALUES (?, ?)")) {
+            for (long index = 0; index < config.getNews(); index++) {
+                ranks.clear();
+                while (ranks.size() < config.getTagsPerNews()) {
+                    ranks.add(popularity.sample(random));
+                }
+                for (int rank : ranks) {
+                    batch.add(firstNewsId + index, firstTagId + rank);
+                }
+            }
+            return batch.finish();
+        }
+    }
+
+    // comments are dealt to news by Zipfian rank, so a few news carry most of the discussion
+    private long insertComments(Connection connection, long firstId, long firstNewsId) throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.getSeed() + 2);
+        ZipfDistribution popularity = new ZipfDistribution(config.getNews(), config.getCommentSkew());
+        long spread = spreadPrime(config.getNews());
+        long total = Math.round(config.getNews() * config.getCommentsPerNews());
+        String sql = "INSERT INTO comments (Id, Content, Created_Date, Last_Updated_Date, News_Id) VALUES (?, ?, ?, ?, ?)";
+        try (Batch batch = new Batch(connection, sql)) {
+            for (long index = 0; index < total; index++) {
+                long id = firstId + index;
+                long newsIndex = popularity.sample(random) * spread % config.getNews();
+                Timestamp created = Timestamp.valueOf(
+                    newsCreatedDate(newsIndex).toLocalDateTime().plusSeconds(1 + random.nextInt(86_400)));
+                batch.add(id, "Comment " + id, created, created, firstNewsId + newsIndex);
+            }
+            return batch.finish();
+        }
+    }
+
+    // the counters the application keeps on every news and comment it adds or removes, set once for the new rows here
+    private static void setCounters(Connection connection, String table, String column, String count, long firstId)
+        throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+            "UPDATE " + table + " t SET " + column + " = (" + count + ") WHERE t.Id >= ?")) {
+            statement.setLong(1, firstId);
+            statement.executeUpdate();
+        }
+    }
+
+    private static Timestamp newsCreatedDate(long index) {
+        return Timestamp.valueOf(EPOCH.plusMinutes(index));
+    }
+
+    private static long spreadPrime(int newsCount) {
+        return newsCount % SPREAD_PRIMES[0] != 0 ? SPREAD_PRIMES[0] : SPREAD_PRIMES[1];
+    }
+
+    // a running application may hold a block of ids below the sequence value that it has not inserted yet
+    private static long firstFreeId(Connection connection, String table) throws SQLException {
+        String sql = "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = '"
+            + (table + "_seq").toUpperCase() + "'";
+        long nextSequenceValue = 1;
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            if (resultSet.next()) {
+                nextSequenceValue = resultSet.getLong(1);
+            }
+        }
+        return Math.max(maxId(connection, table) + 1, nextSequenceValue);
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(Id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    // the pooled optimizer hands out ids below the sequence value, hence the extra allocation block
+    private static void restartSequence(Connection connection, String table) throws SQLException {
+        long next = maxId(connection, table) + ID_ALLOCATION_SIZE;
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER SEQUENCE " + table + "_seq RESTART WITH " + next);
+        }
+    }
+
+    private static class Batch implements AutoCloseable {
+
+        private final PreparedStatement statement;
+        private int pending;
+        private long rows;
+
+        Batch(Connection connection, String sql) throws SQLException {
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.addBatch();
+            if (++pending == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        long finish() throws SQLException {
+            flush();
+            return rows;
+        }
+
+        private void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                rows += pending;
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.close();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.mjc.school.datagen;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+// Arguments are --name=value pairs, e.g. --url=jdbc:h2:mem:news --news=1000000 --tags=50000 --tagSkew=1.2
+public class DatasetGeneratorMain {
+
+    private static final String DEFAULT_URL = "jdbc:h2:file:./h2db/news_management;AUTO_SERVER=TRUE";
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = parse(args);
+        String url = options.getOrDefault("url", DEFAULT_URL);
+        String user = options.getOrDefault("user", "sa");
+        String password = options.getOrDefault("password", "password");
+
+        if (Boolean.parseBoolean(options.getOrDefault("migrate", "true"))) {
+            Flyway.configure()
+                .dataSource(url, user, password)
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+        }
+
+        DatasetConfig.Builder builder = new DatasetConfig.Builder();
+        if (options.containsKey("authors")) {
+            builder.authors(Integer.parseInt(options.get("authors")));
+        }
+        if (options.containsKey("news")) {
+            builder.news(Integer.parseInt(options.get("news")));
+        }
+        if (options.containsKey("tags")) {
+            builder.tags(Integer.parseInt(options.get("tags")));
+        }
+        if (options.containsKey("tagsPerNews")) {
+            builder.tagsPerNews(Integer.parseInt(options.get("tagsPerNews")));
+        }
+        if (options.containsKey("commentsPerNews")) {
+            builder.commentsPerNews(Double.parseDouble(options.get("commentsPerNews")));
+        }
+        if (options.containsKey("tagSkew")) {
+            builder.tagSkew(Double.parseDouble(options.get("tagSkew")));
+        }
+        if (options.containsKey("commentSkew")) {
+            builder.commentSkew(Double.parseDouble(options.get("commentSkew")));
+        }
+        if (options.containsKey("seed")) {
+            builder.seed(Long.parseLong(options.get("seed")));
+        }
+
+        long start = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            DatasetSummary summary = new DatasetGenerator(builder.build()).generate(connection);
+            System.out.printf("Generated %s in %d ms into %s%n", summary, (System.nanoTime() - start) / 1_000_000, url);
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException(String.format("Expected --name=value but got '%s'.", arg));
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
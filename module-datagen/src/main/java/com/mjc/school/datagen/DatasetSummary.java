@@ -0,0 +1,4 @@
+package com.mjc.school.datagen;
+
+public record DatasetSummary(long authors, long news, long tags, long newsTags, long comments) {
+}
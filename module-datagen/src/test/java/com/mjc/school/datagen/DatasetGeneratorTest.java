@@ -0,0 +1,103 @@
+package com.mjc.school.datagen;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Dataset generator tests")
+public class DatasetGeneratorTest {
+
+    private final DatasetConfig config = new DatasetConfig.Builder()
+        .authors(10)
+        .news(500)
+        .tags(100)
+        .tagsPerNews(3)
+        .commentsPerNews(4)
+        .tagSkew(1.2)
+        .commentSkew(1.2)
+        .seed(7)
+        .build();
+
+    @Test
+    void generate_ShouldInsertConfiguredRowCounts() throws SQLException {
+        try (Connection connection = migratedDatabase("counts")) {
+            DatasetSummary summary = new DatasetGenerator(config).generate(connection);
+
+            assertThat(summary).isEqualTo(new DatasetSummary(10, 500, 100, 1_500, 2_000));
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM authors")).isEqualTo(10);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM news")).isEqualTo(500);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM tags")).isEqualTo(100);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM newstags")).isEqualTo(1_500);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM comments")).isEqualTo(2_000);
+            assertThat(queryLong(connection, "SELECT SUM(Comment_Count) FROM news")).isEqualTo(2_000);
+            assertThat(queryLong(connection, "SELECT SUM(News_Count) FROM authors")).isEqualTo(500);
+            assertThat(queryLong(connection, "SELECT SUM(News_Count) FROM tags")).isEqualTo(1_500);
+        }
+    }
+
+    @Test
+    void generate_ShouldBeDeterministicForTheSameSeed() throws SQLException {
+        try (Connection first = migratedDatabase("first"); Connection second = migratedDatabase("second")) {
+            new DatasetGenerator(config).generate(first);
+            new DatasetGenerator(config).generate(second);
+
+            for (String sql : new String[] {
+                "SELECT SUM(News_Id * 1000 + Tag_Id) FROM newstags",
+                "SELECT SUM(Id * News_Id) FROM comments",
+                "SELECT SUM(Id * Author_Id) FROM news"}) {
+                assertThat(queryLong(first, sql)).isEqualTo(queryLong(second, sql));
+            }
+        }
+    }
+
+    @Test
+    void generate_ShouldSkewTagPopularityAndCommentCounts() throws SQLException {
+        try (Connection connection = migratedDatabase("skew")) {
+            new DatasetGenerator(config).generate(connection);
+
+            long mostPopularTag = queryLong(connection,
+                "SELECT MAX(c) FROM (SELECT COUNT(*) c FROM newstags GROUP BY Tag_Id)");
+            long mostCommentedNews = queryLong(connection,
+                "SELECT MAX(c) FROM (SELECT COUNT(*) c FROM comments GROUP BY News_Id)");
+
+            assertThat(mostPopularTag).isGreaterThan(1_500 / 100 * 5);
+            assertThat(mostCommentedNews).isGreaterThan(4 * 20);
+        }
+    }
+
+    @Test
+    void generate_ShouldAppendAfterExistingRowsAndMoveSequences() throws SQLException {
+        try (Connection connection = migratedDatabase("append")) {
+            new DatasetGenerator(config).generate(connection);
+            new DatasetGenerator(config).generate(connection);
+
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM news")).isEqualTo(1_000);
+            assertThat(queryLong(connection, "SELECT COUNT(DISTINCT Name) FROM tags")).isEqualTo(200);
+            assertThat(queryLong(connection, "SELECT NEXT VALUE FOR news_seq"))
+                .isGreaterThan(queryLong(connection, "SELECT MAX(Id) FROM news"));
+            assertThat(queryLong(connection, "SELECT NEXT VALUE FOR comments_seq"))
+                .isGreaterThan(queryLong(connection, "SELECT MAX(Id) FROM comments"));
+        }
+    }
+
+    private static Connection migratedDatabase(String name) throws SQLException {
+        String url = "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        return DriverManager.getConnection(url, "sa", "");
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -1,24 +1,51 @@
 package com.mjc.school.repository;
 
+import com.mjc.school.repository.filter.fetch.FetchPlan;
 import com.mjc.school.repository.filter.pagination.Page;
 import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
 import com.mjc.school.repository.model.BaseEntity;
+import com.mjc.school.repository.projection.EntityVersion;
+import com.mjc.school.repository.projection.Projection;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface BaseRepository<T extends BaseEntity<K>, K> {
 
     Page<T> readAll(final EntitySearchSpecification searchSpecification);
 
+    <P> Page<P> readAll(final EntitySearchSpecification searchSpecification, final Projection<P> projection);
+
+    // The stream holds an open cursor and has to be closed, within the transaction it was opened in
+    <P> Stream<P> streamAll(final EntitySearchSpecification searchSpecification, final Projection<P> projection, int fetchSize);
+
     Optional<T> readById(K id);
 
+    Optional<T> readById(K id, FetchPlan fetchPlan);
+
+    <P> Optional<P> readById(K id, Projection<P> projection);
+
+    // the entities of the given ids in their order, with the associations of the fetch plan, a query per fetch group
+    List<T> readByIds(List<K> ids, FetchPlan fetchPlan);
+
+    Optional<EntityVersion> readVersion(K id);
+
+    EntityVersion readVersion(final EntitySearchSpecification searchSpecification);
+
     T create(T entity);
 
+    List<T> createAll(Collection<T> entities);
+
     T update(T entity);
 
     void deleteById(K id);
 
     boolean existById(K id);
 
+    Set<K> readExistingIds(Collection<K> ids);
+
     T getReference(K id);
 }
@@ -0,0 +1,6 @@
+package com.mjc.school.repository.event;
+
+// Published by a repository when rows of its entity are created, updated or deleted, so that the repositories
+// whose rows such a write changes as well drop what they cached about them
+public record EntityWrittenEvent(Class<?> entityClass) {
+}
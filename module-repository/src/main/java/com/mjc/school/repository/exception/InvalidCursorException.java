@@ -0,0 +1,7 @@
+package com.mjc.school.repository.exception;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(final String message) {
+        super(message);
+    }
+}
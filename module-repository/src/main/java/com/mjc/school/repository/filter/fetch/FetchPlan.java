@@ -0,0 +1,21 @@
+package com.mjc.school.repository.filter.fetch;
+
+import java.util.List;
+
+// Associations to load together with the entities instead of lazily one by one
+public record FetchPlan(List<String> attributes) {
+
+    public static final FetchPlan NONE = new FetchPlan(List.of());
+
+    public FetchPlan {
+        attributes = List.copyOf(attributes);
+    }
+
+    public static FetchPlan of(final String... attributes) {
+        return new FetchPlan(List.of(attributes));
+    }
+
+    public boolean isEmpty() {
+        return attributes.isEmpty();
+    }
+}
@@ -0,0 +1,10 @@
+package com.mjc.school.repository.filter.pagination;
+
+public enum CountPolicy {
+    // COUNT(*) over the filtered rows on every read
+    EXACT,
+    // no COUNT(*) at all, the page only reports whether a next page exists
+    SKIP,
+    // COUNT(*) once per filter, reused until the entity type is written to
+    CACHED
+}
@@ -0,0 +1,43 @@
+package com.mjc.school.repository.filter.pagination;
+
+import com.mjc.school.repository.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Position of the last row of a page: the values of the sort keys followed by the entity id.
+ * Clients only ever see the encoded form and pass it back unchanged as the "after" parameter.
+ */
+public record KeysetCursor(List<String> values) {
+
+    private static final String VALUE_DELIMITER = ".";
+    private static final String NULL_VALUE = "~";
+
+    public String encode() {
+        List<String> encodedValues = new ArrayList<>();
+        for (String value : values) {
+            encodedValues.add(value == null ? NULL_VALUE : Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(value.getBytes(StandardCharsets.UTF_8)));
+        }
+        return String.join(VALUE_DELIMITER, encodedValues);
+    }
+
+    public static KeysetCursor decode(final String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            throw new InvalidCursorException("Cursor must not be empty.");
+        }
+        List<String> values = new ArrayList<>();
+        try {
+            for (String encodedValue : cursor.split("\\" + VALUE_DELIMITER, -1)) {
+                values.add(NULL_VALUE.equals(encodedValue) ? null
+                        : new String(Base64.getUrlDecoder().decode(encodedValue), StandardCharsets.UTF_8));
+            }
+        } catch (IllegalArgumentException exc) {
+            throw new InvalidCursorException(String.format("Cursor '%s' is malformed.", cursor));
+        }
+        return new KeysetCursor(values);
+    }
+}
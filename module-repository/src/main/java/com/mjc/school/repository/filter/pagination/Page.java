@@ -2,5 +2,14 @@ package com.mjc.school.repository.filter.pagination;
 
 import java.util.List;
 
-public record Page<T>(List<T> entities, int currentPage, int pageCount) {
+// pageCount is null when the count was skipped, see CountPolicy.SKIP
+public record Page<T>(List<T> entities, int currentPage, Integer pageCount, String nextCursor) {
+
+    public Page(List<T> entities, int currentPage, Integer pageCount) {
+        this(entities, currentPage, pageCount, null);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
 }
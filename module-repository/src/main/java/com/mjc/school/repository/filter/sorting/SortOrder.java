@@ -1,12 +1,23 @@
 package com.mjc.school.repository.filter.sorting;
 
-import java.util.Arrays;
+import java.util.Locale;
 
 public enum SortOrder {
     ASC,
     DESC;
 
     public static boolean isSortOrderExisted(final String sortOrderName) {
-        return Arrays.stream(values()).anyMatch(sortOrder -> sortOrder.name().equalsIgnoreCase(sortOrderName));
+        return findSortOrderByName(sortOrderName) != null;
+    }
+
+    public static SortOrder findSortOrderByName(final String sortOrderName) {
+        if (sortOrderName == null) {
+            return null;
+        }
+        return switch (sortOrderName.toUpperCase(Locale.ROOT)) {
+            case "ASC" -> ASC;
+            case "DESC" -> DESC;
+            default -> null;
+        };
     }
 }
@@ -2,4 +2,7 @@ package com.mjc.school.repository.filter.sorting;
 
 
 public record Sorting (String field, SortOrder order) {
+
+    // the rank among the matches of a full-text criteria, ascending is the best match first
+    public static final String RELEVANCE = "relevance";
 }
@@ -1,5 +1,8 @@
 package com.mjc.school.repository.filter.specification;
 
+import com.mjc.school.repository.filter.fetch.FetchPlan;
+import com.mjc.school.repository.filter.pagination.CountPolicy;
+import com.mjc.school.repository.filter.pagination.KeysetCursor;
 import com.mjc.school.repository.filter.pagination.Pagination;
 import com.mjc.school.repository.filter.sorting.Sorting;
 import org.springframework.data.jpa.domain.Specification;
@@ -14,10 +17,22 @@ public class EntitySearchSpecification {
 
     private Specification searchFilterSpecification;
 
+    private List<SearchCriteria> searchCriteriaList;
+
+    private KeysetCursor after;
+
+    private CountPolicy countPolicy;
+
+    private FetchPlan fetchPlan;
+
     private EntitySearchSpecification(Builder builder) {
         this.pagination = builder.pagination;
         this.sorting = builder.sorting;
         this.searchFilterSpecification = builder.searchFilterSpecification;
+        this.searchCriteriaList = builder.searchCriteriaList;
+        this.after = builder.after;
+        this.countPolicy = builder.countPolicy;
+        this.fetchPlan = builder.fetchPlan;
     }
 
     public Pagination getPagination() {
@@ -32,6 +47,22 @@ public class EntitySearchSpecification {
         return searchFilterSpecification;
     }
 
+    public List<SearchCriteria> getSearchCriteriaList() {
+        return searchCriteriaList;
+    }
+
+    public KeysetCursor getAfter() {
+        return after;
+    }
+
+    public CountPolicy getCountPolicy() {
+        return countPolicy;
+    }
+
+    public FetchPlan getFetchPlan() {
+        return fetchPlan;
+    }
+
     public static class Builder {
         private Pagination pagination;
 
@@ -39,6 +70,14 @@ public class EntitySearchSpecification {
 
         private Specification searchFilterSpecification;
 
+        private List<SearchCriteria> searchCriteriaList = List.of();
+
+        private KeysetCursor after;
+
+        private CountPolicy countPolicy = CountPolicy.EXACT;
+
+        private FetchPlan fetchPlan = FetchPlan.NONE;
+
         public EntitySearchSpecification build() {
             return new EntitySearchSpecification(this);
         }
@@ -56,6 +95,26 @@ public class EntitySearchSpecification {
         public Builder searchFilterSpecification(final List<SearchCriteria> searchCriteriaList) {
             this.searchFilterSpecification = new SearchFilterSpecificationsBuilder<>()
                     .withSearchCriteriaList(searchCriteriaList).build();
+            this.searchCriteriaList = searchCriteriaList == null ? List.of() : List.copyOf(searchCriteriaList);
+            return this;
+        }
+
+        public Builder after(final KeysetCursor after) {
+            this.after = after;
+            return this;
+        }
+
+        public Builder countPolicy(final CountPolicy countPolicy) {
+            if (countPolicy != null) {
+                this.countPolicy = countPolicy;
+            }
+            return this;
+        }
+
+        public Builder fetchPlan(final FetchPlan fetchPlan) {
+            if (fetchPlan != null) {
+                this.fetchPlan = fetchPlan;
+            }
             return this;
         }
     }
@@ -1,5 +1,8 @@
 package com.mjc.school.repository.filter.specification;
 
+import java.util.Collection;
+import java.util.Objects;
+
 import static com.mjc.school.repository.filter.specification.SearchOperation.OR_PREDICATE;
 
 public class SearchCriteria {
@@ -7,12 +10,20 @@ public class SearchCriteria {
     final private String field;
     final private SearchOperation operation;
     final private Object value;
+    // the ids of the only rows that can match, from a side index; null when the criteria is not narrowed
+    final private Collection<?> candidateIds;
 
     public SearchCriteria(final SearchOperation predicate, final String field, final SearchOperation operation, final Object value) {
+        this(predicate, field, operation, value, null);
+    }
+
+    private SearchCriteria(final SearchOperation predicate, final String field, final SearchOperation operation,
+                           final Object value, final Collection<?> candidateIds) {
         this.predicate = predicate;
         this.field = field;
         this.operation = operation;
         this.value = value;
+        this.candidateIds = candidateIds;
     }
 
     public SearchCriteria(final String field, final SearchOperation operation, final Object value) {
@@ -35,7 +46,33 @@ public class SearchCriteria {
         return value;
     }
 
+    public Collection<?> getCandidateIds() {
+        return candidateIds;
+    }
+
+    public SearchCriteria withCandidateIds(final Collection<?> candidateIds) {
+        return new SearchCriteria(predicate, field, operation, value, candidateIds);
+    }
+
     public boolean isOrPredicate() {
         return OR_PREDICATE.equals(predicate);
     }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof SearchCriteria criteria)) {
+            return false;
+        }
+        return predicate == criteria.predicate && operation == criteria.operation
+                && Objects.equals(field, criteria.field) && Objects.equals(value, criteria.value)
+                && Objects.equals(candidateIds, criteria.candidateIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(predicate, field, operation, value, candidateIds);
+    }
 }
@@ -1,5 +1,6 @@
 package com.mjc.school.repository.filter.specification;
 
+import com.mjc.school.repository.search.TextMatch;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Predicate;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.domain.Specification;
 
 
 import java.lang.reflect.ParameterizedType;
+import java.util.Collection;
 import java.util.List;
 
 public class SearchFilterSpecification<T> implements Specification<T> {
@@ -25,6 +27,17 @@ public class SearchFilterSpecification<T> implements Specification<T> {
 
     @Override
     public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        Predicate predicate = toCriteriaPredicate(root, criteriaBuilder);
+        Collection<?> candidateIds = criteria.getCandidateIds();
+        if (predicate == null || candidateIds == null) {
+            return predicate;
+        }
+        // the candidates narrow the rows first, the criteria itself still decides which of them match
+        return candidateIds.isEmpty() ? criteriaBuilder.disjunction()
+                : criteriaBuilder.and(root.get(getIdAttribute(root)).in(candidateIds), predicate);
+    }
+
+    private Predicate toCriteriaPredicate(Root<T> root, CriteriaBuilder criteriaBuilder) {
         if (criteria.getOperation().equals(SearchOperation.GREATER_THAN)) {
             return criteriaBuilder.greaterThan(
                     root.get(criteria.getField()), criteria.getValue().toString());
@@ -74,7 +87,18 @@ public class SearchFilterSpecification<T> implements Specification<T> {
             return criteriaBuilder.between(
                     root.get(criteria.getField()), values.get(0), values.get(1));
         }
+        else if (criteria.getOperation().equals(SearchOperation.MATCH) && criteria.getValue() instanceof TextMatch match) {
+            // the value is the ids the text index matched, none of them matches no row
+            if (match.ids().isEmpty()) {
+                return criteriaBuilder.disjunction();
+            }
+            return root.get(getIdAttribute(root)).in(match.ids());
+        }
 
         return null;
     }
+
+    private String getIdAttribute(Root<T> root) {
+        return root.getModel().getId(root.getModel().getIdType().getJavaType()).getName();
+    }
 }
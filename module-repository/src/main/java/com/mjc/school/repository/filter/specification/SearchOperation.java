@@ -3,8 +3,10 @@ package com.mjc.school.repository.filter.specification;
 import com.mjc.school.repository.exception.SearchOperationNotFoundException;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
 
 public enum SearchOperation {
     AND_PREDICATE("and"),
@@ -20,7 +22,9 @@ public enum SearchOperation {
     LIKE_END("endlike"),
     IN("in"),
     NOT_IN("not"),
-    BETWEEN("between");
+    BETWEEN("between"),
+    // full text: the value is tokenized and looked up in the text index instead of compared in the query
+    MATCH("match");
 
     private String operationName;
 
@@ -45,24 +49,39 @@ public enum SearchOperation {
             LIKE_END,
             IN,
             NOT_IN,
-            BETWEEN);
+            BETWEEN,
+            MATCH);
 
     public final static List<SearchOperation> LIKE_CRITERIA_OPERATIONS = Arrays.asList(LIKE,
             LIKE_START,
             LIKE_END);
 
+    // lower-case name to operation, looked up for every criteria of every listing request
+    private final static Map<String, SearchOperation> OPERATIONS_BY_NAME = new HashMap<>();
+
+    static {
+        for (SearchOperation operation : values()) {
+            OPERATIONS_BY_NAME.put(operation.getName(), operation);
+        }
+    }
+
+    public static SearchOperation findSearchOperationByName(final String operationName) {
+        return operationName == null ? null : OPERATIONS_BY_NAME.get(operationName.toLowerCase(Locale.ROOT));
+    }
+
     public static SearchOperation getSearchOperationByName(final String operationName) {
-        Optional<SearchOperation> searchOperationOptional = Arrays.stream(SearchOperation.values()).filter(operation -> operation.getName().equalsIgnoreCase(operationName)).findFirst();
-        return searchOperationOptional.orElseThrow(() -> new SearchOperationNotFoundException(String.format("Search operation '%s' is not found.", operationName)));
+        SearchOperation operation = findSearchOperationByName(operationName);
+        if (operation == null) {
+            throw new SearchOperationNotFoundException(String.format("Search operation '%s' is not found.", operationName));
+        }
+        return operation;
     }
 
     public static boolean isSearchOperation(final String operation) {
-        return SEARCH_OPERATIONS.stream().anyMatch(searchOperation -> searchOperation.getName().equalsIgnoreCase(operation));
+        return SEARCH_OPERATIONS.contains(findSearchOperationByName(operation));
     }
 
     public static boolean isPredicate(final String operation) {
-        return PREDICATES.stream().anyMatch(searchOperation -> searchOperation.getName().equalsIgnoreCase(operation));
+        return PREDICATES.contains(findSearchOperationByName(operation));
     }
 }
-
-
@@ -1,27 +1,71 @@
 package com.mjc.school.repository.impl;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.mjc.school.repository.BaseRepository;
+import com.mjc.school.repository.event.EntityWrittenEvent;
 import com.mjc.school.repository.exception.EntityConflictRepositoryException;
+import com.mjc.school.repository.exception.InvalidCursorException;
+import com.mjc.school.repository.filter.fetch.FetchPlan;
+import com.mjc.school.repository.filter.pagination.KeysetCursor;
 import com.mjc.school.repository.filter.pagination.Page;
 import com.mjc.school.repository.filter.sorting.SortOrder;
 import com.mjc.school.repository.filter.sorting.Sorting;
 import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
-import com.mjc.school.repository.filter.specification.SearchFilterSpecification;
+import com.mjc.school.repository.filter.specification.SearchCriteria;
+import com.mjc.school.repository.filter.specification.SearchFilterSpecificationsBuilder;
+import com.mjc.school.repository.filter.specification.SearchOperation;
+import com.mjc.school.repository.metadata.IndexedColumnRegistry;
 import com.mjc.school.repository.model.BaseEntity;
+import com.mjc.school.repository.projection.EntityVersion;
+import com.mjc.school.repository.projection.Projection;
+import com.mjc.school.repository.search.TextMatch;
+import com.mjc.school.repository.search.TrigramIndex;
+import com.mjc.school.repository.support.TransactionCallbacks;
+import javax.persistence.Cache;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
 import javax.persistence.Query;
+import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
 import javax.persistence.criteria.*;
+import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.PluralAttribute;
+import javax.persistence.metamodel.SingularAttribute;
 import org.hibernate.PersistentObjectException;
+import org.hibernate.Session;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.jpa.domain.Specification;
 
 
 import java.lang.reflect.ParameterizedType;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @SuppressWarnings("unchecked")
 public abstract class AbstractDBRepository<T extends BaseEntity<K>, K> implements BaseRepository<T, K> {
@@ -29,8 +73,26 @@ public abstract class AbstractDBRepository<T extends BaseEntity<K>, K> implement
     @PersistenceContext
     protected EntityManager entityManager;
 
+    @Autowired(required = false)
+    protected IndexedColumnRegistry indexedColumnRegistry;
+
+    @Autowired(required = false)
+    protected TrigramIndex trigramIndex;
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final int COUNT_CACHE_MAX_SIZE = 1000;
+    private static final int TRIGRAM_LOAD_BATCH_SIZE = 10_000;
+    private static final String LAST_UPDATED_DATE_FIELD = "lastUpdatedDate";
+
     private final Class<T> entityClass;
     private final Class<K> idClass;
+    // size-bounded Caffeine keeps the counts of the most used filters
+    private final com.github.benmanes.caffeine.cache.Cache<List<SearchCriteria>, Long> countCache =
+        Caffeine.newBuilder().maximumSize(COUNT_CACHE_MAX_SIZE).build();
+    // moved by every clear, a count read before one of them is not put into the cache
+    private final AtomicLong countGeneration = new AtomicLong();
 
     abstract void update(T prevState, T nextState);
 
@@ -42,25 +104,274 @@ public abstract class AbstractDBRepository<T extends BaseEntity<K>, K> implement
 
     @Override
     public Page<T> readAll(final EntitySearchSpecification specification) {
+      warnIfUnindexed(specification);
       CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
-      CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(entityClass);
-      final Root<T> root = criteriaQuery.from(entityClass);
-
-      SearchFilterSpecification searchSpec = (SearchFilterSpecification) specification.getSearchFilterSpecification();
-      setSearchConditions(searchSpec, criteriaBuilder, criteriaQuery, root);
-      setOrder(specification.getSorting(), criteriaBuilder, criteriaQuery, root);
+      Specification<T> searchSpec = getSearchSpecification(specification);
+      List<Sorting> sortingList = withIdTiebreaker(specification.getSorting());
+      KeysetCursor after = specification.getAfter();
+      FetchPlan fetchPlan = specification.getFetchPlan();
+      TextMatch textMatch = findTextMatch(specification);
 
       final int currentPage = specification.getPagination().page();
       final int pageSize = specification.getPagination().pageSize();
-      TypedQuery<T> typedQuery = entityManager.createQuery(criteriaQuery);
-      typedQuery.setFirstResult((currentPage - 1) * pageSize);
-      typedQuery.setMaxResults(pageSize);
+      List<T> entities;
+      boolean hasNext;
+      if (fetchPlan.isEmpty()) {
+          CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(entityClass);
+          final Root<T> root = criteriaQuery.from(entityClass);
+          setSearchConditions(searchSpec, after, sortingList, textMatch, criteriaBuilder, criteriaQuery, root);
+          setOrder(sortingList, textMatch, criteriaBuilder, criteriaQuery, root);
+
+          entities = readPage(criteriaQuery, after, currentPage, pageSize);
+          hasNext = entities.size() > pageSize;
+      } else {
+          // collection fetch joins cannot be paginated in SQL, so the page is selected as ids and hydrated afterwards
+          CriteriaQuery<Object> idQuery = criteriaBuilder.createQuery(Object.class);
+          final Root<T> root = idQuery.from(entityClass);
+          idQuery.select(root.get(getIdFieldName()));
+          setSearchConditions(searchSpec, after, sortingList, textMatch, criteriaBuilder, idQuery, root);
+          setOrder(sortingList, textMatch, criteriaBuilder, idQuery, root);
+
+          List<K> ids = (List<K>) (List<?>) readPage(idQuery, after, currentPage, pageSize);
+          hasNext = ids.size() > pageSize;
+          entities = readByIds(hasNext ? ids.subList(0, pageSize) : ids, fetchPlan);
+      }
+
+      if (entities.size() > pageSize) {
+          entities = new ArrayList<>(entities.subList(0, pageSize));
+      }
+      String nextCursor = hasNext && !entities.isEmpty()
+              ? createCursor(entities.get(entities.size() - 1), sortingList, textMatch).encode() : null;
+      return new Page<T>(entities, currentPage, countPages(specification, searchSpec, pageSize), nextCursor);
+    }
+
+    @Override
+    public <P> Page<P> readAll(final EntitySearchSpecification specification, final Projection<P> projection) {
+        warnIfUnindexed(specification);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        Specification<T> searchSpec = getSearchSpecification(specification);
+        List<Sorting> sortingList = withIdTiebreaker(specification.getSorting());
+        KeysetCursor after = specification.getAfter();
+        TextMatch textMatch = findTextMatch(specification);
+
+        final int currentPage = specification.getPagination().page();
+        final int pageSize = specification.getPagination().pageSize();
+        CriteriaQuery<Tuple> tupleQuery = criteriaBuilder.createTupleQuery();
+        final Root<T> root = tupleQuery.from(entityClass);
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        projection.getPaths().forEach(path -> selections.add(resolvePath(path, root, joins)));
+        // sort keys go after the projected values, so the cursor can be built without loading the entity
+        sortingList.forEach(sorting -> selections.add(getSortKey(sorting, textMatch, criteriaBuilder, root)));
+        tupleQuery.multiselect(selections);
+        setSearchConditions(searchSpec, after, sortingList, textMatch, criteriaBuilder, tupleQuery, root);
+        setOrder(sortingList, textMatch, criteriaBuilder, tupleQuery, root);
+
+        List<Tuple> tuples = readPage(tupleQuery, after, currentPage, pageSize);
+        boolean hasNext = tuples.size() > pageSize;
+        if (hasNext) {
+            tuples = tuples.subList(0, pageSize);
+        }
+        int projectionSize = projection.getPaths().size();
+        List<P> projections = new ArrayList<>();
+        for (Tuple tuple : tuples) {
+            Object[] values = tuple.toArray();
+            projections.add(projection.create(Arrays.copyOf(values, projectionSize)));
+        }
+        String nextCursor = null;
+        if (hasNext && !tuples.isEmpty()) {
+            Object[] lastValues = tuples.get(tuples.size() - 1).toArray();
+            List<String> cursorValues = new ArrayList<>();
+            for (int i = projectionSize; i < lastValues.length; i++) {
+                cursorValues.add(lastValues[i] == null ? null : lastValues[i].toString());
+            }
+            nextCursor = new KeysetCursor(cursorValues).encode();
+        }
+        return new Page<>(projections, currentPage, countPages(specification, searchSpec, pageSize), nextCursor);
+    }
+
+    @Override
+    public <P> Stream<P> streamAll(
+            final EntitySearchSpecification specification, final Projection<P> projection, final int fetchSize) {
+        warnIfUnindexed(specification);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        // the requested sorting is kept, the pagination and the cursor are not
+        List<Sorting> sortingList = withIdTiebreaker(specification.getSorting());
+        CriteriaQuery<Tuple> tupleQuery = criteriaBuilder.createTupleQuery();
+        final Root<T> root = tupleQuery.from(entityClass);
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        projection.getPaths().forEach(path -> selections.add(resolvePath(path, root, joins)));
+        tupleQuery.multiselect(selections);
+        setSearchConditions(getSearchSpecification(specification), criteriaBuilder, tupleQuery, root);
+        setOrder(sortingList, findTextMatch(specification), criteriaBuilder, tupleQuery, root);
+
+        // Hibernate streams over a forward-only ScrollableResults, the driver fetches fetchSize rows at a time
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(tupleQuery);
+        typedQuery.setHint(QueryHints.FETCH_SIZE, fetchSize);
+        typedQuery.setHint(QueryHints.READ_ONLY, true);
+        int[] rowCount = {0};
+        return typedQuery.getResultStream().map(tuple -> {
+            // whatever was loaded along the stream is dropped once per fetch, so the session does not grow with it
+            if (++rowCount[0] % fetchSize == 0) {
+                entityManager.clear();
+            }
+            return projection.create(tuple.toArray());
+        });
+    }
+
+    private Path<?> resolvePath(String path, Root<T> root, Map<String, Join<?, ?>> joins) {
+        int separator = path.lastIndexOf('.');
+        if (separator < 0) {
+            return root.get(path);
+        }
+        // optional associations must not drop the row, so they are joined with LEFT rather than navigated
+        String association = path.substring(0, separator);
+        Join<?, ?> join = joins.computeIfAbsent(association, name -> root.join(name, JoinType.LEFT));
+        return join.get(path.substring(separator + 1));
+    }
+
+    // like criteria the trigram index can narrow reach the query with the ids of the only rows they can match
+    private Specification<T> getSearchSpecification(EntitySearchSpecification specification) {
+        if (trigramIndex == null || !trigramIndex.isEnabled() || getTrigramIndexedFields().isEmpty()) {
+            return specification.getSearchFilterSpecification();
+        }
+        boolean narrowed = false;
+        List<SearchCriteria> criteriaList = new ArrayList<>();
+        for (SearchCriteria criteria : specification.getSearchCriteriaList()) {
+            Optional<Set<Object>> candidateIds = SearchOperation.LIKE_CRITERIA_OPERATIONS.contains(criteria.getOperation())
+                    ? trigramIndex.findCandidates(entityClass, criteria.getField(), criteria.getOperation(),
+                        String.valueOf(criteria.getValue()))
+                    : Optional.empty();
+            criteriaList.add(candidateIds.map(criteria::withCandidateIds).orElse(criteria));
+            narrowed |= candidateIds.isPresent();
+        }
+        return narrowed ? new SearchFilterSpecificationsBuilder<T>().withSearchCriteriaList(criteriaList).build()
+                : specification.getSearchFilterSpecification();
+    }
+
+    private void warnIfUnindexed(EntitySearchSpecification specification) {
+        if (indexedColumnRegistry == null) {
+            return;
+        }
+        // full-text matches are answered by the text index and reach the query as ids
+        specification.getSearchCriteriaList().stream()
+                .filter(criteria -> criteria.getOperation() != SearchOperation.MATCH)
+                .forEach(criteria -> indexedColumnRegistry.warnIfUnindexed(entityClass, criteria.getField(), "Searching"));
+        if (specification.getSorting() != null) {
+            specification.getSorting().stream()
+                    .filter(sorting -> !Sorting.RELEVANCE.equals(sorting.field()))
+                    .forEach(sorting -> indexedColumnRegistry.warnIfUnindexed(entityClass, sorting.field(), "Sorting"));
+        }
+    }
+
+    private <R> List<R> readPage(CriteriaQuery<R> criteriaQuery, KeysetCursor after, int currentPage, int pageSize) {
+        TypedQuery<R> typedQuery = entityManager.createQuery(criteriaQuery);
+        // seeking past the cursor replaces the offset, so deep pages cost the same as the first one
+        if (after == null) {
+            typedQuery.setFirstResult((currentPage - 1) * pageSize);
+        }
+        // one extra row tells whether there is a next page to point the cursor at
+        typedQuery.setMaxResults(pageSize + 1);
+        return new ArrayList<>(typedQuery.getResultList());
+    }
+
+    @Override
+    public List<T> readByIds(List<K> ids, FetchPlan fetchPlan) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        String idFieldName = getIdFieldName();
+        Map<Object, T> entitiesById = new HashMap<>();
+        for (List<String> fetchGroup : createFetchGroups(fetchPlan)) {
+            CriteriaQuery<T> criteriaQuery = criteriaBuilder.createQuery(entityClass);
+            final Root<T> root = criteriaQuery.from(entityClass);
+            fetchGroup.forEach(attribute -> root.fetch(attribute, JoinType.LEFT));
+            criteriaQuery.select(root).distinct(true).where(root.get(idFieldName).in(ids));
+            // later groups hit the same managed instances and only initialize their collections
+            entityManager.createQuery(criteriaQuery).getResultList()
+                    .forEach(entity -> entitiesById.putIfAbsent(entity.getId(), entity));
+        }
+        List<T> entities = new ArrayList<>();
+        for (K id : ids) {
+            T entity = entitiesById.get(id);
+            if (entity != null) {
+                entities.add(entity);
+            }
+        }
+        return entities;
+    }
+
+    // entities looked up by a unique name, the missing ones are created from their name in one batch
+    protected Map<String, T> readOrCreateByNames(String nameAttribute, Collection<String> names,
+                                                 Function<String, T> entityFactory) {
+        Set<String> distinctNames = new LinkedHashSet<>(names);
+        if (distinctNames.isEmpty()) {
+            return Map.of();
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteriaQuery = criteriaBuilder.createTupleQuery();
+        final Root<T> root = criteriaQuery.from(entityClass);
+        Path<String> name = root.get(nameAttribute);
+        criteriaQuery.multiselect(name, root).where(name.in(distinctNames));
+        Map<String, T> existingEntities = entityManager.createQuery(criteriaQuery).getResultStream()
+                .collect(Collectors.toMap(tuple -> tuple.get(0, String.class), tuple -> tuple.get(1, entityClass),
+                        (first, second) -> first));
+
+        Map<String, T> entitiesByName = new LinkedHashMap<>();
+        List<T> missingEntities = new ArrayList<>();
+        for (String distinctName : distinctNames) {
+            T entity = existingEntities.get(distinctName);
+            if (entity == null) {
+                entity = entityFactory.apply(distinctName);
+                missingEntities.add(entity);
+            }
+            entitiesByName.put(distinctName, entity);
+        }
+        createAll(missingEntities);
+        return entitiesByName;
+    }
 
-      return new Page<T>(typedQuery.getResultList(), currentPage, countPages(searchSpec, pageSize));
+    private List<List<String>> createFetchGroups(FetchPlan fetchPlan) {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        List<String> singularAttributes = new ArrayList<>();
+        List<String> collectionAttributes = new ArrayList<>();
+        for (String attribute : fetchPlan.attributes()) {
+            if (entityType.getAttribute(attribute).isCollection()) {
+                collectionAttributes.add(attribute);
+            } else {
+                singularAttributes.add(attribute);
+            }
+        }
+        List<List<String>> fetchGroups = new ArrayList<>();
+        List<String> firstGroup = new ArrayList<>(singularAttributes);
+        if (!collectionAttributes.isEmpty()) {
+            firstGroup.add(collectionAttributes.get(0));
+        }
+        fetchGroups.add(firstGroup);
+        // Hibernate cannot fetch two bags in one query, so every further collection gets a query of its own
+        for (int i = 1; i < collectionAttributes.size(); i++) {
+            fetchGroups.add(List.of(collectionAttributes.get(i)));
+        }
+        return fetchGroups;
+    }
+
+    private void setSearchConditions(Specification<T> searchSpecification, KeysetCursor after, List<Sorting> sortingList,
+            TextMatch textMatch, CriteriaBuilder criteriaBuilder, CriteriaQuery criteriaQuery, Root<T> root) {
+        if (after == null) {
+            setSearchConditions(searchSpecification, criteriaBuilder, criteriaQuery, root);
+            return;
+        }
+        Predicate keysetPredicate = createKeysetPredicate(sortingList, after, textMatch, criteriaBuilder, root);
+        Predicate searchPredicate = searchSpecification == null ? null
+                : searchSpecification.toPredicate(root, criteriaQuery, criteriaBuilder);
+        criteriaQuery.where(searchPredicate == null ? keysetPredicate
+                : criteriaBuilder.and(searchPredicate, keysetPredicate));
     }
 
     private void setSearchConditions(
-            SearchFilterSpecification searchSpecification, CriteriaBuilder criteriaBuilder, CriteriaQuery criteriaQuery, Root<T> root) {
+            Specification<T> searchSpecification, CriteriaBuilder criteriaBuilder, CriteriaQuery criteriaQuery, Root<T> root) {
         if (searchSpecification != null) {
             Predicate predicate = searchSpecification
                 .toPredicate(root, criteriaQuery, criteriaBuilder);
@@ -68,32 +379,232 @@ public abstract class AbstractDBRepository<T extends BaseEntity<K>, K> implement
         }
     }
 
-    private void setOrder(
-           List<Sorting> sortingList, CriteriaBuilder criteriaBuilder, CriteriaQuery<T> criteriaQuery, Root<T> root) {
+    private void setOrder(List<Sorting> sortingList, TextMatch textMatch, CriteriaBuilder criteriaBuilder,
+           CriteriaQuery<?> criteriaQuery, Root<T> root) {
         List<Order> orders = new ArrayList<>();
         for (Sorting sorting : sortingList) {
-            Path<Object> fieldPath = root.get(sorting.field());
-            Order order = SortOrder.ASC.equals(sorting.order()) ? criteriaBuilder.asc(fieldPath) :
-                    criteriaBuilder.desc(fieldPath);
+            Expression<?> sortKey = getSortKey(sorting, textMatch, criteriaBuilder, root);
+            Order order = SortOrder.ASC.equals(sorting.order()) ? criteriaBuilder.asc(sortKey) :
+                    criteriaBuilder.desc(sortKey);
             orders.add(order);
         }
         criteriaQuery.orderBy(orders);
     }
 
-    private int countPages(SearchFilterSpecification searchSpec, int pageSize) {
-            CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+    // the rank among the text matches for a relevance sorting, best first, and the sorted attribute otherwise
+    private Expression<?> getSortKey(Sorting sorting, TextMatch textMatch, CriteriaBuilder criteriaBuilder, Root<T> root) {
+        if (!Sorting.RELEVANCE.equals(sorting.field())) {
+            return root.get(sorting.field());
+        }
+        if (textMatch == null || textMatch.ids().isEmpty()) {
+            return criteriaBuilder.literal(0);
+        }
+        CriteriaBuilder.SimpleCase<Object, Integer> rank = criteriaBuilder.selectCase(root.get(getIdFieldName()));
+        List<Long> ids = textMatch.ids();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.when(ids.get(i), i);
+        }
+        return rank.otherwise(ids.size());
+    }
+
+    // the match a relevance sorting ranks by, the first one of the search
+    private TextMatch findTextMatch(EntitySearchSpecification specification) {
+        return specification.getSearchCriteriaList().stream()
+                .map(SearchCriteria::getValue)
+                .filter(TextMatch.class::isInstance)
+                .map(TextMatch.class::cast)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private List<Sorting> withIdTiebreaker(List<Sorting> sortingList) {
+        String idFieldName = getIdFieldName();
+        List<Sorting> keysetSorting = new ArrayList<>();
+        if (sortingList != null) {
+            keysetSorting.addAll(sortingList);
+        }
+        if (keysetSorting.stream().noneMatch(sorting -> idFieldName.equals(sorting.field()))) {
+            keysetSorting.add(new Sorting(idFieldName, SortOrder.ASC));
+        }
+        return keysetSorting;
+    }
+
+    private Predicate createKeysetPredicate(List<Sorting> sortingList, KeysetCursor cursor, TextMatch textMatch,
+            CriteriaBuilder criteriaBuilder, Root<T> root) {
+        if (cursor.values().size() != sortingList.size()) {
+            throw new InvalidCursorException("Cursor does not match the requested sorting.");
+        }
+        // (a > x) OR (a = x AND b > y) OR (a = x AND b = y AND id > z) for the sort keys a, b and id
+        List<Predicate> alternatives = new ArrayList<>();
+        List<Predicate> equalities = new ArrayList<>();
+        for (int i = 0; i < sortingList.size(); i++) {
+            Sorting sorting = sortingList.get(i);
+            Expression sortKey = getSortKey(sorting, textMatch, criteriaBuilder, root);
+            Class<?> keyType = Sorting.RELEVANCE.equals(sorting.field()) ? Integer.class : sortKey.getJavaType();
+            Comparable value = convertCursorValue(cursor.values().get(i), keyType);
+
+            List<Predicate> alternative = new ArrayList<>(equalities);
+            alternative.add(createBeyondPredicate(sortKey, value, sorting.order(), criteriaBuilder));
+            alternatives.add(criteriaBuilder.and(alternative.toArray(new Predicate[0])));
+
+            equalities.add(value == null ? criteriaBuilder.isNull(sortKey) : criteriaBuilder.equal(sortKey, value));
+        }
+        return criteriaBuilder.or(alternatives.toArray(new Predicate[0]));
+    }
+
+    private Predicate createBeyondPredicate(
+            Expression fieldPath, Comparable value, SortOrder sortOrder, CriteriaBuilder criteriaBuilder) {
+        boolean ascending = SortOrder.ASC.equals(sortOrder);
+        // H2 sorts nulls low: first in ascending order and last in descending order
+        if (value == null) {
+            return ascending ? criteriaBuilder.isNotNull(fieldPath) : criteriaBuilder.disjunction();
+        }
+        Predicate beyond = ascending ? criteriaBuilder.greaterThan(fieldPath, value)
+                : criteriaBuilder.lessThan(fieldPath, value);
+        return ascending ? beyond : criteriaBuilder.or(beyond, criteriaBuilder.isNull(fieldPath));
+    }
+
+    private KeysetCursor createCursor(T entity, List<Sorting> sortingList, TextMatch textMatch) {
+        BeanWrapper entityWrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        List<String> values = new ArrayList<>();
+        for (Sorting sorting : sortingList) {
+            Object value = !Sorting.RELEVANCE.equals(sorting.field()) ? entityWrapper.getPropertyValue(sorting.field())
+                    : textMatch == null ? 0 : textMatch.rankOf(entity.getId());
+            values.add(value == null ? null : value.toString());
+        }
+        return new KeysetCursor(values);
+    }
+
+    private Comparable convertCursorValue(String value, Class<?> fieldType) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (LocalDateTime.class.equals(fieldType)) {
+                return LocalDateTime.parse(value);
+            }
+            return (Comparable) DefaultConversionService.getSharedInstance().convert(value, fieldType);
+        } catch (RuntimeException exc) {
+            throw new InvalidCursorException(String.format("Cursor value '%s' is not valid.", value));
+        }
+    }
+
+    private Class<?> getEntityType(Root<T> root, String association) {
+        if (association == null) {
+            return entityClass;
+        }
+        Attribute<? super T, ?> attribute = root.getModel().getAttribute(association);
+        return attribute instanceof PluralAttribute<?, ?, ?> pluralAttribute
+            ? pluralAttribute.getElementType().getJavaType() : attribute.getJavaType();
+    }
+
+    private String getIdFieldName() {
+        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
+        return entityType.getId(idClass).getName();
+    }
+
+    private Integer countPages(EntitySearchSpecification specification, Specification<T> searchSpec, int pageSize) {
+        Long entityCount = switch (specification.getCountPolicy()) {
+            case SKIP -> null;
+            case CACHED -> readCachedCount(specification.getSearchCriteriaList(), searchSpec);
+            case EXACT -> countEntities(searchSpec);
+        };
+        if (entityCount == null) {
+            return null;
+        }
+        if (entityCount % pageSize == 0) {
+            return (int) (entityCount / pageSize);
+        }
+        return (int) (entityCount / pageSize) + 1;
+    }
+
+    private Long readCachedCount(List<SearchCriteria> searchCriteriaList, Specification<T> searchSpec) {
+        Long entityCount = countCache.getIfPresent(searchCriteriaList);
+        if (entityCount == null) {
+            long readGeneration = countGeneration.get();
+            entityCount = countEntities(searchSpec);
+            if (readGeneration == countGeneration.get()) {
+                countCache.put(searchCriteriaList, entityCount);
+            }
+        }
+        return entityCount;
+    }
+
+    private long countEntities(Specification<T> searchSpec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> countQuery = criteriaBuilder.createQuery(Long.class);
         final Root<T> root = countQuery.from(entityClass);
 
         setSearchConditions(searchSpec, criteriaBuilder, countQuery, root);
 
         countQuery.select(criteriaBuilder.count(root));
-        Long entityCount = entityManager.createQuery(countQuery).getSingleResult();
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
 
-        if (entityCount % pageSize == 0) {
-            return (int) (entityCount / pageSize);
+    protected void evictCachedEntity(K id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(entityClass, id);
+        // a concurrent read may put the old state back before this transaction commits
+        TransactionCallbacks.afterCompletion(() -> cache.evict(entityClass, id));
+    }
+
+    // relative updates, so that writers moving the same counter at once add up instead of overwriting each other.
+    // Plain SQL, as a JPQL update would evict the whole cache region of the entity instead of the changed rows
+    protected void adjustCounters(String attribute, Map<K, Long> deltaById) {
+        if (deltaById.isEmpty()) {
+            return;
         }
-        return (int) (entityCount / pageSize) + 1;
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class).getMetamodel().entityPersister(entityClass);
+        String column = persister.getPropertyColumnNames(attribute)[0];
+        String sql = "UPDATE " + persister.getTableName() + " SET " + column + " = " + column + " + ? WHERE "
+            + persister.getIdentifierColumnNames()[0] + " = ?";
+        // rows inserted in this transaction have to be written before they can be counted
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Map.Entry<K, Long> delta : deltaById.entrySet()) {
+                    statement.setLong(1, delta.getValue());
+                    statement.setObject(2, delta.getKey());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        // counts filtered on the counter are stale, whichever repository wrote the rows that moved it
+        invalidateCountCache();
+        deltaById.keySet().forEach(this::evictCachedEntity);
+    }
+
+    protected void invalidateCountCache() {
+        clearCountCache();
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new EntityWrittenEvent(entityClass));
+        }
+    }
+
+    // entities whose writes change rows of this one without going through this repository:
+    // a foreign key set to null by the database, or a counter kept on the row
+    protected List<Class<?>> getCountDependencies() {
+        return List.of();
+    }
+
+    @EventListener
+    public void onEntityWritten(EntityWrittenEvent event) {
+        if (getCountDependencies().contains(event.entityClass())) {
+            clearCountCache();
+        }
+    }
+
+    private void clearCountCache() {
+        dropCountCache();
+        // a count read by another transaction before this one commits must not outlive the commit
+        TransactionCallbacks.afterCompletion(this::dropCountCache);
+    }
+
+    private void dropCountCache() {
+        countGeneration.incrementAndGet();
+        countCache.invalidateAll();
     }
 
     @Override
@@ -101,23 +612,201 @@ public abstract class AbstractDBRepository<T extends BaseEntity<K>, K> implement
         return Optional.ofNullable(entityManager.find(entityClass, id));
     }
 
+    @Override
+    public Optional<T> readById(K id, FetchPlan fetchPlan) {
+        if (fetchPlan == null || fetchPlan.isEmpty()) {
+            return readById(id);
+        }
+        return readByIds(List.of(id), fetchPlan).stream().findFirst();
+    }
+
+    @Override
+    public <P> Optional<P> readById(K id, Projection<P> projection) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> tupleQuery = criteriaBuilder.createTupleQuery();
+        final Root<T> root = tupleQuery.from(entityClass);
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        projection.getPaths().forEach(path -> selections.add(resolvePath(path, root, joins)));
+        tupleQuery.multiselect(selections).where(criteriaBuilder.equal(root.get(getIdFieldName()), id));
+        return entityManager.createQuery(tupleQuery).getResultStream()
+                .findFirst()
+                .map(tuple -> projection.create(tuple.toArray()));
+    }
+
+    @Override
+    public Optional<EntityVersion> readVersion(K id) {
+        Specification<T> byId = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get(getIdFieldName()), id);
+        EntityVersion version = readAggregateVersion(byId, null);
+        if (version.fingerprint() == 0) {
+            return Optional.empty();
+        }
+        for (String association : getVersionAssociations()) {
+            version = version.combine(readAggregateVersion(byId, association));
+        }
+        return Optional.of(version);
+    }
+
+    @Override
+    public EntityVersion readVersion(final EntitySearchSpecification specification) {
+        Specification<T> searchSpec = getSearchSpecification(specification);
+        EntityVersion version = readAggregateVersion(searchSpec, null);
+        for (String association : getVersionAssociations()) {
+            version = version.combine(readAggregateVersion(searchSpec, association));
+        }
+        return version;
+    }
+
+    // associations written into the representation of an entity, their changes are changes of the entity
+    protected List<String> getVersionAssociations() {
+        return List.of();
+    }
+
+    // string attributes searched with like, startlike and endlike that the trigram index keeps
+    protected List<String> getTrigramIndexedFields() {
+        return List.of();
+    }
+
+    // read in id order a batch at a time, rows written meanwhile are indexed by their writes
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTrigramIndex() {
+        List<String> fields = getTrigramIndexedFields();
+        if (trigramIndex == null || !trigramIndex.isEnabled() || fields.isEmpty()) {
+            return;
+        }
+        String idFieldName = getIdFieldName();
+        String select = "SELECT e." + idFieldName + ", e." + String.join(", e.", fields)
+            + " FROM " + entityClass.getSimpleName() + " e";
+        String order = " ORDER BY e." + idFieldName;
+        Object lastId = null;
+        List<Object[]> rows;
+        do {
+            TypedQuery<Object[]> query = lastId == null
+                ? entityManager.createQuery(select + order, Object[].class)
+                : entityManager.createQuery(select + " WHERE e." + idFieldName + " > :lastId" + order, Object[].class)
+                    .setParameter("lastId", lastId);
+            rows = query.setMaxResults(TRIGRAM_LOAD_BATCH_SIZE).getResultList();
+            for (Object[] row : rows) {
+                for (int i = 0; i < fields.size(); i++) {
+                    trigramIndex.load(entityClass, fields.get(i), row[0], (String) row[i + 1]);
+                }
+                lastId = row[0];
+            }
+        } while (rows.size() == TRIGRAM_LOAD_BATCH_SIZE);
+    }
+
+    private void indexTrigrams(T entity) {
+        List<String> fields = getTrigramIndexedFields();
+        if (trigramIndex == null || fields.isEmpty()) {
+            return;
+        }
+        BeanWrapper entityWrapper = PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        Map<String, String> values = new HashMap<>();
+        fields.forEach(field -> values.put(field, (String) entityWrapper.getPropertyValue(field)));
+        trigramIndex.put(entityClass, entity.getId(), values);
+    }
+
+    // counters kept on the rows, they change without moving the modification date
+    protected List<String> getVersionCounters() {
+        return List.of();
+    }
+
+    // counters kept on the rows of a version association, such as the number of news of the author of a news
+    protected List<String> getVersionCounters(String association) {
+        return List.of();
+    }
+
+    // one aggregate per association, as joining them all at once would multiply the rows
+    private EntityVersion readAggregateVersion(Specification<T> searchSpec, String association) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> versionQuery = criteriaBuilder.createTupleQuery();
+        final Root<T> root = versionQuery.from(entityClass);
+        From<?, ?> from = association == null ? root : root.join(association);
+        Expression<Long> count = association == null ? criteriaBuilder.count(root) : criteriaBuilder.countDistinct(from);
+        EntityType<?> entityType = entityManager.getMetamodel().entity(getEntityType(root, association));
+        boolean dated = entityType.getAttributes().stream()
+            .anyMatch(attribute -> LAST_UPDATED_DATE_FIELD.equals(attribute.getName()));
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(count);
+        if (dated) {
+            selections.add(criteriaBuilder.greatest(from.<LocalDateTime>get(LAST_UPDATED_DATE_FIELD)));
+        }
+        // weighted by id, so that a count moving from one row to another still changes the sum
+        List<String> counters = association == null ? getVersionCounters() : getVersionCounters(association);
+        String idFieldName = entityType.getSingularAttributes().stream()
+            .filter(SingularAttribute::isId)
+            .map(Attribute::getName)
+            .findFirst()
+            .orElseThrow();
+        for (String counter : counters) {
+            selections.add(criteriaBuilder.sum(
+                criteriaBuilder.prod(from.<Long>get(idFieldName), from.<Long>get(counter))));
+        }
+        versionQuery.multiselect(selections);
+        setSearchConditions(searchSpec, criteriaBuilder, versionQuery, root);
+
+        Tuple tuple = entityManager.createQuery(versionQuery).getSingleResult();
+        long fingerprint = tuple.get(0, Long.class);
+        for (int i = selections.size() - counters.size(); i < selections.size(); i++) {
+            Number weightedCount = (Number) tuple.get(i);
+            fingerprint = 31 * fingerprint + (weightedCount == null ? 0 : weightedCount.longValue());
+        }
+        return new EntityVersion(dated ? tuple.get(1, LocalDateTime.class) : null, fingerprint);
+    }
+
     @Override
     public T create(T entity) {
         try {
             entityManager.persist(entity);
+            // sequence ids defer the INSERT, flushing keeps constraint violations reported here
+            entityManager.flush();
+            invalidateCountCache();
+            indexTrigrams(entity);
             return entity;
         } catch (PersistentObjectException | ConstraintViolationException exc) {
             throw new EntityConflictRepositoryException(exc.getMessage());
+        } catch (PersistenceException exc) {
+            throw toConflictException(exc);
         }
     }
 
+    @Override
+    public List<T> createAll(Collection<T> entities) {
+        if (entities.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            entities.forEach(entityManager::persist);
+            // a single flush sends the INSERTs as JDBC batches of hibernate.jdbc.batch_size
+            entityManager.flush();
+            invalidateCountCache();
+            entities.forEach(this::indexTrigrams);
+            return new ArrayList<>(entities);
+        } catch (PersistentObjectException | ConstraintViolationException exc) {
+            throw new EntityConflictRepositoryException(exc.getMessage());
+        } catch (PersistenceException exc) {
+            throw toConflictException(exc);
+        }
+    }
+
+    private RuntimeException toConflictException(PersistenceException exc) {
+        // the entity manager wraps violations of the unique name indexes raised at flush
+        if (exc.getCause() instanceof ConstraintViolationException violation) {
+            return new EntityConflictRepositoryException(violation.getMessage());
+        }
+        return exc;
+    }
+
     @Override
     public T update(T entity) {
             return readById(entity.getId()).map(existingEntity -> {
                 update(existingEntity, entity);
                 T updated = entityManager.merge(existingEntity);
+                invalidateCountCache();
+                evictCachedEntity(existingEntity.getId());
                 // flush is needed for auditable entities to get actual value of @LastModifiedDate field
                 entityManager.flush();
+                indexTrigrams(updated);
                 return updated;
             }).orElse(null);
     }
@@ -127,13 +816,17 @@ public abstract class AbstractDBRepository<T extends BaseEntity<K>, K> implement
         if (id != null) {
             T entityRef = getReference(id);
             entityManager.remove(entityRef);
+            invalidateCountCache();
+            evictCachedEntity(id);
+            if (trigramIndex != null && !getTrigramIndexedFields().isEmpty()) {
+                trigramIndex.remove(entityClass, id);
+            }
         }
     }
 
     @Override
     public boolean existById(K id) {
-        EntityType<T> entityType = entityManager.getMetamodel().entity(entityClass);
-        String idFieldName = entityType.getId(idClass).getName();
+        String idFieldName = getIdFieldName();
 
         Query query = entityManager.createQuery("SELECT COUNT(*) FROM " + entityClass.getSimpleName() +
             " WHERE " + idFieldName + " = ?1").setParameter(1, id);
@@ -141,6 +834,20 @@ public abstract class AbstractDBRepository<T extends BaseEntity<K>, K> implement
         return count > 0;
     }
 
+    // one query for a whole batch of ids instead of an existById per id
+    @Override
+    public Set<K> readExistingIds(Collection<K> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<K> idQuery = criteriaBuilder.createQuery(idClass);
+        final Root<T> root = idQuery.from(entityClass);
+        Path<K> idPath = root.get(getIdFieldName());
+        idQuery.select(idPath).where(idPath.in(ids));
+        return entityManager.createQuery(idQuery).getResultStream().collect(Collectors.toSet());
+    }
+
     @Override
     public T getReference(K id) {
         return entityManager.getReference(this.entityClass, id);
@@ -1,15 +1,45 @@
 package com.mjc.school.repository.impl;
 
 import com.mjc.school.repository.model.Author;
+import com.mjc.school.repository.model.News;
 import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 public class AuthorRepository extends AbstractDBRepository<Author, Long> {
 
+    public static final String BY_NAME_CACHE_REGION = "authors-by-name";
+
+    private static final List<String> AUTHOR_VERSION_COUNTERS = List.of("newsCount");
+
+    private static final List<String> AUTHOR_TRIGRAM_INDEXED_FIELDS = List.of("name");
+
+    // the news count moves with every news written
+    private static final List<Class<?>> AUTHOR_COUNT_DEPENDENCIES = List.of(News.class);
+
+    @Override
+    protected List<String> getVersionCounters() {
+        return AUTHOR_VERSION_COUNTERS;
+    }
+
+    @Override
+    protected List<String> getTrigramIndexedFields() {
+        return AUTHOR_TRIGRAM_INDEXED_FIELDS;
+    }
+
+    @Override
+    protected List<Class<?>> getCountDependencies() {
+        return AUTHOR_COUNT_DEPENDENCIES;
+    }
+
     @Override
     void update(Author prevState, Author nextState) {
         if (nextState.getName() != null && !nextState.getName().isBlank()) {
@@ -28,10 +58,28 @@ public class AuthorRepository extends AbstractDBRepository<Author, Long> {
         }
     }
 
+    // the given managed authors are moved along, so that they show the new count for the rest of the transaction
+    public void adjustNewsCounts(Map<Author, Long> deltaByAuthor) {
+        adjustCounters("newsCount", deltaByAuthor.entrySet().stream()
+            .collect(Collectors.toMap(delta -> delta.getKey().getId(), Map.Entry::getValue, Long::sum)));
+        deltaByAuthor.forEach((author, delta) -> author.setNewsCount(author.getNewsCount() + delta));
+    }
+
+    public Map<String, Author> readOrCreateByNames(Collection<String> names) {
+        return readOrCreateByNames("name", names, name -> {
+            Author author = new Author();
+            author.setName(name);
+            return author;
+        });
+    }
+
     public Optional<Author> readByName(String name) {
         TypedQuery<Author> typedQuery = entityManager.createQuery(
             "SELECT a FROM Author a WHERE a.name=:name", Author.class);
         typedQuery.setParameter("name", name);
+        // Hibernate drops the cached result whenever the authors table is written
+        typedQuery.setHint(QueryHints.CACHEABLE, true);
+        typedQuery.setHint(QueryHints.CACHE_REGION, BY_NAME_CACHE_REGION);
         try {
             return Optional.of(typedQuery.getSingleResult());
         } catch (NoResultException ex) {
@@ -1,13 +1,28 @@
 package com.mjc.school.repository.impl;
 
 import com.mjc.school.repository.model.Comment;
+import com.mjc.school.repository.model.News;
+import com.mjc.school.repository.projection.CommentProjection;
+import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Repository
 public class CommentRepository extends AbstractDBRepository<Comment, Long> {
+
+    // deleting a news sets News_Id of its comments to null
+    private static final List<Class<?>> COMMENT_COUNT_DEPENDENCIES = List.of(News.class);
+
+    @Override
+    protected List<Class<?>> getCountDependencies() {
+        return COMMENT_COUNT_DEPENDENCIES;
+    }
+
     @Override
     void update(Comment prevState, Comment nextState) {
         if (nextState.getContent() != null && !nextState.getContent().isBlank()) {
@@ -15,10 +30,46 @@ public class CommentRepository extends AbstractDBRepository<Comment, Long> {
         }
     }
 
-    public List<Comment> readByNewsId(Long newsId) {
-        TypedQuery<Comment> typedQuery = entityManager.createQuery("SELECT c FROM Comment c INNER JOIN " +
-            "c.news n WHERE n.id=:newsId", Comment.class);
+    // H2 keeps the primary key in every secondary index, so IX_COMMENTS_NEWS_ID walks a news' comments in id order
+    // and a page starts where the previous one ended however deep it is
+    public List<CommentProjection> readProjectionsByNewsId(Long newsId, Long afterId, int limit) {
+        TypedQuery<CommentProjection> typedQuery = entityManager.createQuery("SELECT NEW " +
+            CommentProjection.class.getName() + "(c.id, c.content, n.id, c.createdDate, c.lastUpdatedDate) " +
+            "FROM Comment c INNER JOIN c.news n WHERE n.id = :newsId" +
+            (afterId != null ? " AND c.id > :afterId" : "") + " ORDER BY c.id", CommentProjection.class);
         typedQuery.setParameter("newsId", newsId);
-        return typedQuery.getResultList();
+        if (afterId != null) {
+            typedQuery.setParameter("afterId", afterId);
+        }
+        return typedQuery.setMaxResults(limit).getResultList();
+    }
+
+    // the first comments of every news, JPQL has no window functions so the ranking is done in SQL;
+    // the database still walks all the comments of a news, but only the first limitPerNews are read out
+    @SuppressWarnings("unchecked")
+    public Map<Long, List<CommentProjection>> readProjectionsByNewsIds(Collection<Long> newsIds, int limitPerNews) {
+        if (newsIds.isEmpty()) {
+            return Map.of();
+        }
+        Query query = entityManager.createNativeQuery("SELECT Id, Content, News_Id, Created_Date, Last_Updated_Date " +
+            "FROM (SELECT c.Id, c.Content, c.News_Id, c.Created_Date, c.Last_Updated_Date, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.News_Id ORDER BY c.Id) AS Comment_Number " +
+            "FROM comments c WHERE c.News_Id IN (:newsIds)) ranked " +
+            "WHERE Comment_Number <= :limitPerNews ORDER BY Id", Comment.PROJECTION_MAPPING);
+        query.setParameter("newsIds", newsIds);
+        query.setParameter("limitPerNews", limitPerNews);
+        return ((List<CommentProjection>) query.getResultList()).stream()
+            .collect(Collectors.groupingBy(CommentProjection::newsId));
+    }
+
+    // number of the given comments per news, the comments of no news are left out
+    public Map<Long, Long> countPerNewsId(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        TypedQuery<Object[]> typedQuery = entityManager.createQuery("SELECT n.id, COUNT(c) FROM Comment c " +
+            "INNER JOIN c.news n WHERE c.id IN :ids GROUP BY n.id", Object[].class);
+        typedQuery.setParameter("ids", ids);
+        return typedQuery.getResultStream().collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
     }
 }
@@ -1,15 +1,58 @@
 package com.mjc.school.repository.impl;
 
+import com.mjc.school.repository.filter.fetch.FetchPlan;
 import com.mjc.school.repository.model.Author;
+import com.mjc.school.repository.model.Comment;
 import com.mjc.school.repository.model.News;
 import com.mjc.school.repository.model.Tag;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public class NewsRepository extends AbstractDBRepository<News, Long> {
 
+    // everything NewsMapper.modelToDto touches
+    public static final FetchPlan NEWS_DETAILS_FETCH_PLAN = FetchPlan.of("author", "tags");
+
+    private static final List<String> NEWS_VERSION_ASSOCIATIONS = List.of("author", "tags", "comments");
+
+    // a news shows the number of news of its author and of each of its tags
+    private static final Map<String, List<String>> NEWS_VERSION_ASSOCIATION_COUNTERS = Map.of(
+        "author", List.of("newsCount"),
+        "tags", List.of("newsCount"));
+
+    private static final List<String> NEWS_TRIGRAM_INDEXED_FIELDS = List.of("title", "content");
+
+    // the comment count moves with every comment written
+    private static final List<Class<?>> NEWS_COUNT_DEPENDENCIES = List.of(Comment.class);
+
+    // a renamed tag or author moves the version of every news showing it
+    @Override
+    protected List<String> getVersionAssociations() {
+        return NEWS_VERSION_ASSOCIATIONS;
+    }
+
+    @Override
+    protected List<String> getVersionCounters(String association) {
+        return NEWS_VERSION_ASSOCIATION_COUNTERS.getOrDefault(association, List.of());
+    }
+
+    @Override
+    protected List<String> getTrigramIndexedFields() {
+        return NEWS_TRIGRAM_INDEXED_FIELDS;
+    }
+
+    @Override
+    protected List<Class<?>> getCountDependencies() {
+        return NEWS_COUNT_DEPENDENCIES;
+    }
+
+    public void adjustCommentCounts(Map<Long, Long> deltaByNewsId) {
+        adjustCounters("commentCount", deltaByNewsId);
+    }
+
     @Override
     void update(News prevState, News nextState) {
         if (nextState.getTitle() != null && !nextState.getTitle().isBlank()) {
@@ -1,16 +1,47 @@
 package com.mjc.school.repository.impl;
 
 import com.mjc.school.repository.model.Tag;
+import com.mjc.school.repository.model.News;
+import com.mjc.school.repository.projection.TagProjection;
 import javax.persistence.NoResultException;
+import javax.persistence.Tuple;
 import javax.persistence.TypedQuery;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Repository
 public class TagRepository extends AbstractDBRepository<Tag, Long> {
 
+    public static final String BY_NAME_CACHE_REGION = "tags-by-name";
+
+    private static final List<String> TAG_VERSION_COUNTERS = List.of("newsCount");
+
+    private static final List<String> TAG_TRIGRAM_INDEXED_FIELDS = List.of("name");
+
+    // the news count moves with every news written
+    private static final List<Class<?>> TAG_COUNT_DEPENDENCIES = List.of(News.class);
+
+    @Override
+    protected List<String> getVersionCounters() {
+        return TAG_VERSION_COUNTERS;
+    }
+
+    @Override
+    protected List<String> getTrigramIndexedFields() {
+        return TAG_TRIGRAM_INDEXED_FIELDS;
+    }
+
+    @Override
+    protected List<Class<?>> getCountDependencies() {
+        return TAG_COUNT_DEPENDENCIES;
+    }
+
     @Override
     void update(Tag prevState, Tag nextState) {
         if (nextState.getName() != null && !nextState.getName().isBlank()) {
@@ -25,10 +56,40 @@ public class TagRepository extends AbstractDBRepository<Tag, Long> {
         return typedQuery.getResultList();
     }
 
+    public Map<Long, List<TagProjection>> readProjectionsByNewsIds(Collection<Long> newsIds) {
+        if (newsIds.isEmpty()) {
+            return Map.of();
+        }
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery("SELECT n.id, t.id, t.name, t.newsCount FROM Tag t " +
+            "INNER JOIN t.news n WHERE n.id IN :newsIds ORDER BY t.id", Tuple.class);
+        typedQuery.setParameter("newsIds", newsIds);
+        return typedQuery.getResultStream().collect(Collectors.groupingBy(tuple -> tuple.get(0, Long.class),
+            Collectors.mapping(tuple -> new TagProjection(tuple.get(1, Long.class), tuple.get(2, String.class),
+                tuple.get(3, Long.class)), Collectors.toList())));
+    }
+
+    // the given managed tags are moved along, so that they show the new count for the rest of the transaction
+    public void adjustNewsCounts(Map<Tag, Long> deltaByTag) {
+        adjustCounters("newsCount", deltaByTag.entrySet().stream()
+            .collect(Collectors.toMap(delta -> delta.getKey().getId(), Map.Entry::getValue, Long::sum)));
+        deltaByTag.forEach((tag, delta) -> tag.setNewsCount(tag.getNewsCount() + delta));
+    }
+
+    public Map<String, Tag> readOrCreateByNames(Collection<String> names) {
+        return readOrCreateByNames("name", names, name -> {
+            Tag tag = new Tag();
+            tag.setName(name);
+            return tag;
+        });
+    }
+
     public Optional<Tag> readByName(String name) {
         TypedQuery<Tag> typedQuery = entityManager.createQuery(
             "SELECT t FROM Tag t WHERE t.name=:name", Tag.class);
         typedQuery.setParameter("name", name);
+        // Hibernate drops the cached result whenever the tags table is written
+        typedQuery.setHint(QueryHints.CACHEABLE, true);
+        typedQuery.setHint(QueryHints.CACHE_REGION, BY_NAME_CACHE_REGION);
         try {
             return Optional.of(typedQuery.getSingleResult());
         } catch (NoResultException ex) {
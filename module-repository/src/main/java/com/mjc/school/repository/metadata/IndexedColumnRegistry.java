@@ -0,0 +1,114 @@
+package com.mjc.school.repository.metadata;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import javax.sql.DataSource;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Knows which entity attributes are backed by the leading column of some index
+@Component
+public class IndexedColumnRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexedColumnRegistry.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final Map<Class<?>, Set<String>> unindexedAttributes = new ConcurrentHashMap<>();
+    private final Set<String> reportedAttributes = ConcurrentHashMap.newKeySet();
+
+    public IndexedColumnRegistry(EntityManagerFactory entityManagerFactory, DataSource dataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkIndexes() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            for (EntityType<?> entityType : entityManagerFactory.getMetamodel().getEntities()) {
+                EntityPersister persister = sessionFactory.getMetamodel().entityPersister(entityType.getJavaType());
+                if (persister instanceof AbstractEntityPersister entityPersister) {
+                    checkIndexes(entityType, entityPersister, metaData);
+                }
+            }
+        } catch (SQLException exc) {
+            LOGGER.warn("Index metadata cannot be read, unindexed search and sort fields are not reported.", exc);
+        }
+    }
+
+    private void checkIndexes(EntityType<?> entityType, AbstractEntityPersister persister, DatabaseMetaData metaData)
+            throws SQLException {
+        Set<String> indexedColumns = readIndexedColumns(metaData, persister.getTableName());
+        Set<String> unindexed = new HashSet<>();
+        for (Attribute<?, ?> attribute : entityType.getAttributes()) {
+            if (attribute.isCollection() || attribute instanceof SingularAttribute<?, ?> singular && singular.isId()) {
+                continue;
+            }
+            String[] columns = persister.getPropertyColumnNames(attribute.getName());
+            if (columns.length > 0 && !indexedColumns.contains(normalize(columns[0]))) {
+                unindexed.add(attribute.getName());
+            }
+        }
+        unindexedAttributes.put(entityType.getJavaType(), unindexed);
+        if (!unindexed.isEmpty()) {
+            LOGGER.warn("Searching or sorting {} by {} scans table '{}', these columns have no index.",
+                entityType.getName(), unindexed, persister.getTableName());
+        }
+    }
+
+    private Set<String> readIndexedColumns(DatabaseMetaData metaData, String tableName) throws SQLException {
+        Set<String> indexedColumns = new HashSet<>();
+        // unquoted identifiers are stored upper-case by H2 and lower-case by some other databases
+        for (String name : List.of(tableName, tableName.toUpperCase(Locale.ROOT), tableName.toLowerCase(Locale.ROOT))) {
+            try (ResultSet indexes = metaData.getIndexInfo(null, null, name, false, true)) {
+                while (indexes.next()) {
+                    // only the leading column of an index can serve a filter or an ORDER BY on its own
+                    if (indexes.getShort("ORDINAL_POSITION") == 1 && indexes.getString("COLUMN_NAME") != null) {
+                        indexedColumns.add(normalize(indexes.getString("COLUMN_NAME")));
+                    }
+                }
+            }
+            if (!indexedColumns.isEmpty()) {
+                break;
+            }
+        }
+        return indexedColumns;
+    }
+
+    public boolean isIndexed(Class<?> entityClass, String attribute) {
+        Set<String> unindexed = unindexedAttributes.get(entityClass);
+        return unindexed == null || !unindexed.contains(attribute);
+    }
+
+    public void warnIfUnindexed(Class<?> entityClass, String attribute, String usage) {
+        if (!isIndexed(entityClass, attribute) && reportedAttributes.add(entityClass.getName() + "." + attribute)) {
+            LOGGER.warn("{} by unindexed field '{}' of {} scans the whole table.", usage, attribute,
+                entityClass.getSimpleName());
+        }
+    }
+
+    private static String normalize(String column) {
+        return column.replace("\"", "").toUpperCase(Locale.ROOT);
+    }
+}
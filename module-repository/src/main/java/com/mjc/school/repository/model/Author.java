@@ -1,6 +1,9 @@
 package com.mjc.school.repository.model;
 
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -11,13 +14,19 @@ import java.util.Collections;
 import java.util.List;
 
 @Entity
-@Table(name = "authors")
+@Table(name = "authors", indexes = {
+    @Index(name = "UX_AUTHORS_NAME", columnList = "Name", unique = true),
+    @Index(name = "IX_AUTHORS_NEWS_COUNT", columnList = "News_Count DESC")})
 @EntityListeners(AuditingEntityListener.class)
-
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Author.CACHE_REGION)
 public class Author implements BaseEntity<Long> {
 
+  public static final String CACHE_REGION = "authors";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "authors_seq")
+  @SequenceGenerator(name = "authors_seq", sequenceName = "authors_seq", allocationSize = ID_ALLOCATION_SIZE)
   @Column(name = "Id")
   private Long id;
 
@@ -32,6 +41,11 @@ public class Author implements BaseEntity<Long> {
   @LastModifiedDate
   private LocalDateTime lastUpdatedDate;
 
+  // moved by relative updates as news are added and removed, an update of the author never writes it back
+  @Column(name = "News_Count", nullable = false, updatable = false)
+  @ColumnDefault("0")
+  private long newsCount;
+
   @OneToMany(mappedBy = "author", fetch = FetchType.LAZY)
   private List<News> news;
 
@@ -69,6 +83,14 @@ public class Author implements BaseEntity<Long> {
     this.lastUpdatedDate = lastUpdatedDate;
   }
 
+  public long getNewsCount() {
+    return newsCount;
+  }
+
+  public void setNewsCount(final long newsCount) {
+    this.newsCount = newsCount;
+  }
+
   public List<News> getNews() {
     return Collections.unmodifiableList(news);
   }
@@ -2,6 +2,9 @@ package com.mjc.school.repository.model;
 
 public interface BaseEntity<K> {
 
+    // ids are reserved from the sequences in blocks of this size, it must match the sequences' INCREMENT BY
+    int ID_ALLOCATION_SIZE = 50;
+
     K getId();
 
     void setId(K id);
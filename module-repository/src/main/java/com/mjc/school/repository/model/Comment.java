@@ -1,5 +1,6 @@
 package com.mjc.school.repository.model;
 
+import com.mjc.school.repository.projection.CommentProjection;
 import javax.persistence.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -9,11 +10,24 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = @Index(name = "IX_COMMENTS_NEWS_ID", columnList = "News_Id"))
 @EntityListeners(AuditingEntityListener.class)
+@SqlResultSetMapping(name = Comment.PROJECTION_MAPPING, classes = @ConstructorResult(
+    targetClass = CommentProjection.class,
+    columns = {
+        @ColumnResult(name = "Id", type = Long.class),
+        @ColumnResult(name = "Content", type = String.class),
+        @ColumnResult(name = "News_Id", type = Long.class),
+        @ColumnResult(name = "Created_Date", type = LocalDateTime.class),
+        @ColumnResult(name = "Last_Updated_Date", type = LocalDateTime.class)}))
 public class Comment implements BaseEntity<Long> {
+
+    // native queries read comments into a CommentProjection with it
+    public static final String PROJECTION_MAPPING = "CommentProjection";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "Id")
     private Long id;
 
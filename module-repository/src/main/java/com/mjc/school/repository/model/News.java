@@ -1,6 +1,7 @@
 package com.mjc.school.repository.model;
 
 import javax.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -9,12 +10,15 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "news")
+@Table(name = "news", indexes = {
+    @Index(name = "IX_NEWS_AUTHOR_ID", columnList = "Author_Id"),
+    @Index(name = "IX_NEWS_COMMENT_COUNT", columnList = "Comment_Count DESC")})
 @EntityListeners(AuditingEntityListener.class)
 public class News implements BaseEntity<Long> {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_seq")
+    @SequenceGenerator(name = "news_seq", sequenceName = "news_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "Id")
     private Long id;
 
@@ -32,6 +36,11 @@ public class News implements BaseEntity<Long> {
     @LastModifiedDate
     private LocalDateTime lastUpdatedDate;
 
+    // moved by relative updates as comments are added and removed, an update of the news never writes it back
+    @Column(name = "Comment_Count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long commentCount;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "Author_Id")
     private Author author;
@@ -43,7 +52,8 @@ public class News implements BaseEntity<Long> {
     @JoinTable(
         name = "newstags",
         joinColumns = {@JoinColumn(name = "News_Id")},
-        inverseJoinColumns = {@JoinColumn(name = "Tag_Id")})
+        inverseJoinColumns = {@JoinColumn(name = "Tag_Id")},
+        indexes = @Index(name = "IX_NEWSTAGS_TAG_ID", columnList = "Tag_Id"))
     private List<Tag> tags;
 
     @Override
@@ -88,6 +98,14 @@ public class News implements BaseEntity<Long> {
         this.lastUpdatedDate = lastUpdatedDate;
     }
 
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(final long commentCount) {
+        this.commentCount = commentCount;
+    }
+
     public Author getAuthor() {
         return author;
     }
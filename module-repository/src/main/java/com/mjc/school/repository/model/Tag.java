@@ -1,21 +1,44 @@
 package com.mjc.school.repository.model;
 
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "tags")
+@Table(name = "tags", indexes = {
+    @Index(name = "UX_TAGS_NAME", columnList = "Name", unique = true),
+    @Index(name = "IX_TAGS_NEWS_COUNT", columnList = "News_Count DESC")})
+@EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Tag.CACHE_REGION)
 public class Tag implements BaseEntity<Long> {
 
+    public static final String CACHE_REGION = "tags";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tags_seq")
+    @SequenceGenerator(name = "tags_seq", sequenceName = "tags_seq", allocationSize = ID_ALLOCATION_SIZE)
     @Column(name = "Id")
     private Long id;
 
     @Column(name = "Name")
     private String name;
 
+    @Column(name = "Last_Updated_Date")
+    @LastModifiedDate
+    private LocalDateTime lastUpdatedDate;
+
+    // moved by relative updates as news are tagged and untagged, an update of the tag never writes it back
+    @Column(name = "News_Count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private long newsCount;
+
     @ManyToMany(mappedBy = "tags", fetch = FetchType.LAZY)
     private List<News> news;
 
@@ -35,6 +58,22 @@ public class Tag implements BaseEntity<Long> {
         this.name = name;
     }
 
+    public LocalDateTime getLastUpdatedDate() {
+        return lastUpdatedDate;
+    }
+
+    public void setLastUpdatedDate(final LocalDateTime lastUpdatedDate) {
+        this.lastUpdatedDate = lastUpdatedDate;
+    }
+
+    public long getNewsCount() {
+        return newsCount;
+    }
+
+    public void setNewsCount(final long newsCount) {
+        this.newsCount = newsCount;
+    }
+
     public List<News> getNews() {
         return news;
     }
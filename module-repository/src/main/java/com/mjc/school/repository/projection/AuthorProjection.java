@@ -0,0 +1,10 @@
+package com.mjc.school.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record AuthorProjection(Long id, String name, LocalDateTime createdDate, LocalDateTime lastUpdatedDate,
+        Long newsCount) {
+
+    public static final Projection<AuthorProjection> PROJECTION = Projection.of(AuthorProjection.class,
+            "id", "name", "createdDate", "lastUpdatedDate", "newsCount");
+}
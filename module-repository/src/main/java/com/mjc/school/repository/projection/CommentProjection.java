@@ -0,0 +1,14 @@
+package com.mjc.school.repository.projection;
+
+import java.time.LocalDateTime;
+
+public record CommentProjection(
+        Long id,
+        String content,
+        Long newsId,
+        LocalDateTime createdDate,
+        LocalDateTime lastUpdatedDate) {
+
+    public static final Projection<CommentProjection> PROJECTION = Projection.of(CommentProjection.class,
+            "id", "content", "news.id", "createdDate", "lastUpdatedDate");
+}
@@ -0,0 +1,16 @@
+package com.mjc.school.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Latest modification date of the matching rows and a fingerprint of how many there are, read without loading them
+public record EntityVersion(LocalDateTime lastModified, long fingerprint) {
+
+    // the later modification wins, the counts are folded so that a removal from any part changes the version
+    public EntityVersion combine(EntityVersion other) {
+        LocalDateTime latest = lastModified;
+        if (latest == null || (other.lastModified() != null && other.lastModified().isAfter(latest))) {
+            latest = other.lastModified();
+        }
+        return new EntityVersion(latest, 31 * fingerprint + other.fingerprint());
+    }
+}
@@ -0,0 +1,22 @@
+package com.mjc.school.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Tags and comments are collections and are read separately by news ids
+public record NewsProjection(
+        Long id,
+        String title,
+        String content,
+        LocalDateTime createdDate,
+        LocalDateTime lastUpdatedDate,
+        Long commentCount,
+        Long authorId,
+        String authorName,
+        LocalDateTime authorCreatedDate,
+        LocalDateTime authorLastUpdatedDate,
+        Long authorNewsCount) {
+
+    public static final Projection<NewsProjection> PROJECTION = Projection.of(NewsProjection.class,
+            "id", "title", "content", "createdDate", "lastUpdatedDate", "commentCount",
+            "author.id", "author.name", "author.createdDate", "author.lastUpdatedDate", "author.newsCount");
+}
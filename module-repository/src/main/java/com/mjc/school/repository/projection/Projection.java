@@ -0,0 +1,103 @@
+package com.mjc.school.repository.projection;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+// Read-only view of an entity: the record components are filled, in order, from the given attribute paths
+public final class Projection<P> {
+
+    private final Class<P> type;
+
+    private final List<String> componentNames;
+
+    private final List<String> componentPaths;
+
+    private final Constructor<P> constructor;
+
+    // indexes of the components that are read, null when all of them are
+    private final int[] selectedComponents;
+
+    private final List<String> paths;
+
+    private Projection(final Class<P> type, final List<String> paths) {
+        if (!type.isRecord()) {
+            throw new IllegalArgumentException(String.format("Projection type '%s' must be a record.", type.getName()));
+        }
+        RecordComponent[] components = type.getRecordComponents();
+        if (components.length != paths.size()) {
+            throw new IllegalArgumentException(String.format(
+                    "Projection '%s' has %d components but %d paths.", type.getSimpleName(), components.length, paths.size()));
+        }
+        try {
+            this.constructor = type.getDeclaredConstructor(
+                    Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new));
+        } catch (NoSuchMethodException exc) {
+            throw new IllegalArgumentException(exc);
+        }
+        this.type = type;
+        this.componentNames = Arrays.stream(components).map(RecordComponent::getName).toList();
+        this.componentPaths = List.copyOf(paths);
+        this.selectedComponents = null;
+        this.paths = componentPaths;
+    }
+
+    private Projection(final Projection<P> projection, final int[] selectedComponents) {
+        this.type = projection.type;
+        this.componentNames = projection.componentNames;
+        this.componentPaths = projection.componentPaths;
+        this.constructor = projection.constructor;
+        this.selectedComponents = selectedComponents;
+        this.paths = Arrays.stream(selectedComponents).mapToObj(componentPaths::get).toList();
+    }
+
+    public static <P> Projection<P> of(final Class<P> type, final String... paths) {
+        return new Projection<>(type, List.of(paths));
+    }
+
+    // Reads only the named components, the others are created as null
+    public Projection<P> select(final Collection<String> components) {
+        List<Integer> indexes = new ArrayList<>();
+        for (String component : components) {
+            int index = componentNames.indexOf(component);
+            if (index < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Projection '%s' has no component '%s'.", type.getSimpleName(), component));
+            }
+            if (type.getRecordComponents()[index].getType().isPrimitive()) {
+                throw new IllegalArgumentException(String.format(
+                        "Projection '%s' cannot leave out the primitive component '%s'.", type.getSimpleName(), component));
+            }
+            if (!indexes.contains(index)) {
+                indexes.add(index);
+            }
+        }
+        return new Projection<>(this, indexes.stream().sorted().mapToInt(Integer::intValue).toArray());
+    }
+
+    public Class<P> getType() {
+        return type;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public P create(final Object... values) {
+        Object[] arguments = values;
+        if (selectedComponents != null) {
+            arguments = new Object[componentNames.size()];
+            for (int i = 0; i < selectedComponents.length; i++) {
+                arguments[selectedComponents[i]] = values[i];
+            }
+        }
+        try {
+            return constructor.newInstance(arguments);
+        } catch (ReflectiveOperationException exc) {
+            throw new IllegalStateException(String.format("Projection '%s' cannot be created.", type.getSimpleName()), exc);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.mjc.school.repository.projection;
+
+public record TagProjection(Long id, String name, Long newsCount) {
+
+    public static final Projection<TagProjection> PROJECTION = Projection.of(TagProjection.class, "id", "name", "newsCount");
+}
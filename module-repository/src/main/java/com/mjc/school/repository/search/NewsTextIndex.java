@@ -0,0 +1,268 @@
+package com.mjc.school.repository.search;
+
+import com.mjc.school.repository.model.News;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.mjc.school.repository.support.TransactionCallbacks.afterCommit;
+
+// Full-text index over the title and content of news, kept in the application instead of a search service.
+// Searches answer the ids of the best BM25 matches, the repository query then reads, filters and sorts them.
+// Each field is saved to a memory-mapped segment file, valid as long as the news table has not changed since.
+@Component
+public class NewsTextIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NewsTextIndex.class);
+
+    public static final String TITLE_FIELD = "title";
+    public static final String CONTENT_FIELD = "content";
+
+    // the version and the page of a listing resolve the same match criteria, the second one reuses the hits
+    private static final int MATCHES_MAX_SIZE = 1000;
+
+    private static final int SEGMENT_MAGIC = 0x4E545853;
+    private static final int SEGMENT_FORMAT = 1;
+    private static final int SEGMENT_HEADER_SIZE = 2 * Integer.BYTES + 3 * Long.BYTES;
+
+    private static final String FINGERPRINT_QUERY =
+        "SELECT COUNT(*), COALESCE(SUM(Id), 0), MAX(COALESCE(Last_Updated_Date, Created_Date)) FROM news";
+    private static final String DOCUMENTS_QUERY = "SELECT Id, Title, Content FROM news";
+
+    private final DataSource dataSource;
+    private final Path directory;
+    private final int maxHits;
+    private final Map<String, TextFieldIndex> fields = new LinkedHashMap<>();
+    private final Map<MatchKey, TextMatch> matches = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public NewsTextIndex(
+            DataSource dataSource,
+            @Value("${news.search.index-dir:}") String directory,
+            @Value("${news.search.max-hits:1000}") int maxHits) {
+        this.dataSource = dataSource;
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.maxHits = maxHits;
+        fields.put(TITLE_FIELD, new TextFieldIndex());
+        fields.put(CONTENT_FIELD, new TextFieldIndex());
+    }
+
+    public boolean isIndexed(String field) {
+        return fields.containsKey(field);
+    }
+
+    // the ids of the best matching news for any of the terms of the query, best first
+    public TextMatch match(String field, String query) {
+        MatchKey key = new MatchKey(field, query);
+        // hits are kept under the read lock, so a write clearing them cannot come in between
+        lock.readLock().lock();
+        try {
+            TextMatch hits = matches.get(key);
+            if (hits == null) {
+                hits = score(fields.get(field), TextFieldIndex.tokenize(query));
+                if (matches.size() >= MATCHES_MAX_SIZE) {
+                    matches.clear();
+                }
+                matches.put(key, hits);
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // a rolled back write must not be searchable, so the index follows the commit
+    public void indexAfterCommit(News news) {
+        Long id = news.getId();
+        String title = news.getTitle();
+        String content = news.getContent();
+        afterCommit(() -> write(() -> {
+            fields.get(TITLE_FIELD).put(id, title);
+            fields.get(CONTENT_FIELD).put(id, content);
+        }));
+    }
+
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> write(() -> fields.values().forEach(field -> field.remove(id))));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            matches.clear();
+            Fingerprint fingerprint = readFingerprint();
+            if (directory != null && readSegments(fingerprint)) {
+                LOGGER.info("News text index loaded from {}.", directory);
+                return;
+            }
+            rebuild();
+            if (directory != null) {
+                writeSegments(fingerprint);
+            }
+        } catch (SQLException exc) {
+            LOGGER.warn("News cannot be read, the text index starts empty and only follows new writes.", exc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // the data source is still open when the context starts closing
+    @EventListener(ContextClosedEvent.class)
+    public void save() {
+        if (directory == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            writeSegments(readFingerprint());
+        } catch (SQLException exc) {
+            LOGGER.warn("News text index is not saved, it is rebuilt on the next start.", exc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private TextMatch score(TextFieldIndex field, List<String> terms) {
+        Map<Long, Double> scores = new HashMap<>();
+        field.score(terms, scores);
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<Long, Double> score : scores.entrySet()) {
+            best.add(score);
+            if (best.size() > maxHits) {
+                best.poll();
+            }
+        }
+        List<Map.Entry<Long, Double>> hits = new ArrayList<>(best);
+        hits.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()));
+        return new TextMatch(hits.stream().map(Map.Entry::getKey).toList(), scores.size() > maxHits);
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            matches.clear();
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuild() throws SQLException {
+        fields.values().forEach(TextFieldIndex::clear);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setFetchSize(1_000);
+            try (ResultSet resultSet = statement.executeQuery(DOCUMENTS_QUERY)) {
+                while (resultSet.next()) {
+                    long id = resultSet.getLong(1);
+                    fields.get(TITLE_FIELD).put(id, resultSet.getString(2));
+                    fields.get(CONTENT_FIELD).put(id, resultSet.getString(3));
+                }
+            }
+        }
+    }
+
+    // a change the index has not seen moves the count, the id sum or the latest modification date
+    private Fingerprint readFingerprint() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(FINGERPRINT_QUERY)) {
+            resultSet.next();
+            Timestamp lastModified = resultSet.getTimestamp(3);
+            return new Fingerprint(resultSet.getLong(1), resultSet.getLong(2),
+                lastModified == null ? 0 : lastModified.getTime());
+        }
+    }
+
+    private boolean readSegments(Fingerprint fingerprint) {
+        try {
+            for (Map.Entry<String, TextFieldIndex> field : fields.entrySet()) {
+                Path segment = segmentPath(field.getKey());
+                if (!Files.isRegularFile(segment)) {
+                    return false;
+                }
+                try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    if (buffer.getInt() != SEGMENT_MAGIC || buffer.getInt() != SEGMENT_FORMAT
+                        || !fingerprint.equals(new Fingerprint(buffer.getLong(), buffer.getLong(), buffer.getLong()))) {
+                        return false;
+                    }
+                    field.getValue().read(buffer);
+                }
+            }
+            return true;
+        } catch (IOException | RuntimeException exc) {
+            LOGGER.warn("News text index segments in {} cannot be read, the index is rebuilt.", directory, exc);
+            return false;
+        }
+    }
+
+    // written next to the segment and moved over it, a crash leaves either the old or the new segment
+    private void writeSegments(Fingerprint fingerprint) {
+        try {
+            Files.createDirectories(directory);
+            for (Map.Entry<String, TextFieldIndex> field : fields.entrySet()) {
+                Map<String, byte[]> encodedTerms = new HashMap<>();
+                int size = SEGMENT_HEADER_SIZE + field.getValue().serializedSize(encodedTerms);
+                Path segment = segmentPath(field.getKey());
+                Path written = segment.resolveSibling(segment.getFileName() + ".tmp");
+                try (FileChannel channel = FileChannel.open(written, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                    writeHeader(buffer, fingerprint);
+                    field.getValue().write(buffer, encodedTerms);
+                    buffer.force();
+                }
+                Files.move(written, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException exc) {
+            LOGGER.warn("News text index segments cannot be written to {}, the index is rebuilt on the next start.",
+                directory, exc);
+        }
+    }
+
+    private static void writeHeader(ByteBuffer buffer, Fingerprint fingerprint) {
+        buffer.putInt(SEGMENT_MAGIC).putInt(SEGMENT_FORMAT)
+            .putLong(fingerprint.count()).putLong(fingerprint.idSum()).putLong(fingerprint.lastModified());
+    }
+
+    private Path segmentPath(String field) {
+        return directory.resolve("news-" + field + ".seg");
+    }
+
+    private record MatchKey(String field, String query) {
+    }
+
+    private record Fingerprint(long count, long idSum, long lastModified) {
+    }
+}
@@ -0,0 +1,143 @@
+package com.mjc.school.repository.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Inverted index of one text field: for every term the documents it occurs in and how often, scored with BM25.
+// Not thread-safe, NewsTextIndex guards it with a lock.
+final class TextFieldIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // the usual BM25 constants: term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, Integer> lengthByDocument = new HashMap<>();
+    // the distinct terms of every document, to take it out of the postings again
+    private final Map<Long, List<String>> termsByDocument = new HashMap<>();
+    private long totalLength;
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    void put(long id, String text) {
+        remove(id);
+        List<String> tokens = tokenize(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokens.forEach(token -> frequencies.merge(token, 1, Integer::sum));
+        frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, key -> new HashMap<>()).put(id, frequency));
+        termsByDocument.put(id, new ArrayList<>(frequencies.keySet()));
+        lengthByDocument.put(id, tokens.size());
+        totalLength += tokens.size();
+    }
+
+    void remove(long id) {
+        List<String> terms = termsByDocument.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> documents = postings.get(term);
+            documents.remove(id);
+            if (documents.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengthByDocument.remove(id);
+    }
+
+    void clear() {
+        postings.clear();
+        lengthByDocument.clear();
+        termsByDocument.clear();
+        totalLength = 0;
+    }
+
+    // adds the BM25 score of every document that has one of the terms, a term given twice counts twice
+    void score(List<String> terms, Map<Long, Double> scores) {
+        int documentCount = lengthByDocument.size();
+        if (documentCount == 0) {
+            return;
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+        for (String term : terms) {
+            Map<Long, Integer> documents = postings.get(term);
+            if (documents == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (documentCount - documents.size() + 0.5) / (documents.size() + 0.5));
+            documents.forEach((id, frequency) -> {
+                double lengthRatio = lengthByDocument.get(id) / averageLength;
+                double termScore = idf * frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * lengthRatio));
+                scores.merge(id, termScore, Double::sum);
+            });
+        }
+    }
+
+    // document lengths, then every term with its postings; the term lists of the documents are rebuilt on read
+    int serializedSize(Map<String, byte[]> encodedTerms) {
+        int size = Integer.BYTES + lengthByDocument.size() * (Long.BYTES + Integer.BYTES) + Integer.BYTES;
+        for (Map.Entry<String, Map<Long, Integer>> posting : postings.entrySet()) {
+            byte[] term = posting.getKey().getBytes(StandardCharsets.UTF_8);
+            encodedTerms.put(posting.getKey(), term);
+            size += Integer.BYTES + term.length + Integer.BYTES
+                + posting.getValue().size() * (Long.BYTES + Integer.BYTES);
+        }
+        return size;
+    }
+
+    void write(ByteBuffer buffer, Map<String, byte[]> encodedTerms) {
+        buffer.putInt(lengthByDocument.size());
+        lengthByDocument.forEach((id, length) -> buffer.putLong(id).putInt(length));
+        buffer.putInt(postings.size());
+        postings.forEach((term, documents) -> {
+            byte[] encodedTerm = encodedTerms.get(term);
+            buffer.putInt(encodedTerm.length).put(encodedTerm).putInt(documents.size());
+            documents.forEach((id, frequency) -> buffer.putLong(id).putInt(frequency));
+        });
+    }
+
+    void read(ByteBuffer buffer) {
+        clear();
+        int documentCount = buffer.getInt();
+        for (int i = 0; i < documentCount; i++) {
+            long id = buffer.getLong();
+            int length = buffer.getInt();
+            lengthByDocument.put(id, length);
+            termsByDocument.put(id, new ArrayList<>());
+            totalLength += length;
+        }
+        int termCount = buffer.getInt();
+        for (int i = 0; i < termCount; i++) {
+            byte[] encodedTerm = new byte[buffer.getInt()];
+            buffer.get(encodedTerm);
+            String term = new String(encodedTerm, StandardCharsets.UTF_8);
+            int postingCount = buffer.getInt();
+            Map<Long, Integer> documents = new HashMap<>(postingCount * 4 / 3 + 1);
+            for (int j = 0; j < postingCount; j++) {
+                long id = buffer.getLong();
+                documents.put(id, buffer.getInt());
+                termsByDocument.get(id).add(term);
+            }
+            postings.put(term, documents);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.mjc.school.repository.search;
+
+import java.util.List;
+
+// The ids of the best matches of a full-text query, best first, as the value of a match criteria.
+// Truncated when more news matched than the index answers, the listing then only covers the best ones.
+public record TextMatch(List<Long> ids, boolean truncated) {
+
+    // the rank of an id among the matches, the ids that did not match come after all of them
+    public int rankOf(Object id) {
+        int rank = ids.indexOf(id);
+        return rank < 0 ? ids.size() : rank;
+    }
+}
@@ -0,0 +1,200 @@
+package com.mjc.school.repository.search;
+
+import com.mjc.school.repository.filter.specification.SearchOperation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.mjc.school.repository.support.TransactionCallbacks.afterCommit;
+
+// Trigrams of the string attributes searched with like, startlike and endlike, each with the ids of the rows
+// whose value contains it. The ids whose value has every trigram of a pattern are a superset of its matches,
+// the query narrows to them and still applies the pattern, so a row held for too long only costs a comparison.
+@Component
+public class TrigramIndex {
+
+    // pad the values as pg_trgm does, so that prefixes and suffixes have trigrams of their own
+    private static final String START = "\u0001\u0001";
+    private static final String END = "\u0002";
+
+    private final boolean enabled;
+    private final int maxCandidates;
+    private final Map<String, FieldTrigrams> fields = new ConcurrentHashMap<>();
+
+    public TrigramIndex(
+            @Value("${news.trigram-index.enabled:true}") boolean enabled,
+            @Value("${news.trigram-index.max-candidates:1000}") int maxCandidates) {
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void load(Class<?> type, String field, Object id, String value) {
+        if (enabled) {
+            getField(type, field).add(id, value);
+        }
+    }
+
+    // the new value is searchable at once, the trigrams of the old one are dropped once the write is committed;
+    // a rolled back write only leaves extra candidates until the row is written again
+    public void put(Class<?> type, Object id, Map<String, String> values) {
+        if (!enabled) {
+            return;
+        }
+        values.forEach((field, value) -> getField(type, field).add(id, value));
+        afterCommit(() -> values.forEach((field, value) -> getField(type, field).replace(id, value)));
+    }
+
+    public void remove(Class<?> type, Object id) {
+        if (!enabled) {
+            return;
+        }
+        String prefix = type.getName() + '.';
+        afterCommit(() -> fields.forEach((key, field) -> {
+            if (key.startsWith(prefix)) {
+                field.remove(id);
+            }
+        }));
+    }
+
+    // the ids of the only rows a like criteria can match, empty when the index cannot narrow it
+    public Optional<Set<Object>> findCandidates(Class<?> type, String field, SearchOperation operation, String value) {
+        FieldTrigrams trigrams = enabled ? fields.get(key(type, field)) : null;
+        // _ and % inside the value are wildcards of the pattern, not characters the value contains
+        if (trigrams == null || value == null || value.indexOf('%') >= 0 || value.indexOf('_') >= 0) {
+            return Optional.empty();
+        }
+        String pattern = value.toLowerCase(Locale.ROOT);
+        if (SearchOperation.LIKE_START.equals(operation)) {
+            pattern = START + pattern;
+        } else if (SearchOperation.LIKE_END.equals(operation)) {
+            pattern = pattern + END;
+        } else if (!SearchOperation.LIKE.equals(operation)) {
+            return Optional.empty();
+        }
+        Set<String> patternTrigrams = trigramsOf(pattern);
+        if (patternTrigrams.isEmpty()) {
+            return Optional.empty();
+        }
+        return trigrams.findCandidates(patternTrigrams, maxCandidates);
+    }
+
+    private FieldTrigrams getField(Class<?> type, String field) {
+        return fields.computeIfAbsent(key(type, field), key -> new FieldTrigrams());
+    }
+
+    private static String key(Class<?> type, String field) {
+        return type.getName() + '.' + field;
+    }
+
+    private static Set<String> trigramsOf(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static Set<String> trigramsOfValue(String value) {
+        return value == null ? Set.of() : trigramsOf(START + value.toLowerCase(Locale.ROOT) + END);
+    }
+
+    private static final class FieldTrigrams {
+
+        private final Map<String, Set<Object>> postings = new HashMap<>();
+        private final Map<Object, Set<String>> trigramsById = new HashMap<>();
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void add(Object id, String value) {
+            Set<String> trigrams = trigramsOfValue(value);
+            lock.writeLock().lock();
+            try {
+                Set<String> indexed = trigramsById.computeIfAbsent(id, key -> new HashSet<>());
+                for (String trigram : trigrams) {
+                    if (indexed.add(trigram)) {
+                        postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void replace(Object id, String value) {
+            Set<String> trigrams = trigramsOfValue(value);
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+                trigramsById.put(id, new HashSet<>(trigrams));
+                trigrams.forEach(trigram -> postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Object id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void removeLocked(Object id) {
+            Set<String> trigrams = trigramsById.remove(id);
+            if (trigrams == null) {
+                return;
+            }
+            for (String trigram : trigrams) {
+                Set<Object> ids = postings.get(trigram);
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+
+        // intersected from the rarest trigram; too many candidates, or a rarest trigram shared by far more rows,
+        // are no better than the scan they would replace
+        Optional<Set<Object>> findCandidates(Set<String> trigrams, int maxCandidates) {
+            lock.readLock().lock();
+            try {
+                List<Set<Object>> idSets = new ArrayList<>(trigrams.size());
+                for (String trigram : trigrams) {
+                    Set<Object> ids = postings.get(trigram);
+                    if (ids == null) {
+                        return Optional.of(Set.of());
+                    }
+                    idSets.add(ids);
+                }
+                idSets.sort(Comparator.comparingInt(Set::size));
+                if (idSets.get(0).size() > maxCandidates * 4) {
+                    return Optional.empty();
+                }
+                Set<Object> candidates = new HashSet<>(idSets.get(0));
+                for (int i = 1; i < idSets.size() && !candidates.isEmpty(); i++) {
+                    candidates.retainAll(idSets.get(i));
+                }
+                return candidates.size() > maxCandidates ? Optional.empty() : Optional.of(candidates);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.mjc.school.repository.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Work deferred to the end of the current transaction, for the in-memory state kept beside the database:
+// indexes that must not see a rolled back write and caches that a concurrent read may fill with the old rows.
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    // runs at once outside of a transaction
+    public static void afterCommit(Runnable callback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    callback.run();
+                }
+            });
+        } else {
+            callback.run();
+        }
+    }
+
+    // runs after a commit or a rollback, and not at all outside of a transaction
+    public static void afterCompletion(Runnable callback) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    callback.run();
+                }
+            });
+        }
+    }
+}
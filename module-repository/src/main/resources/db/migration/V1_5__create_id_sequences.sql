@@ -0,0 +1,13 @@
+-- ids come from sequences with a pooled optimizer, so INSERTs can be batched;
+-- INCREMENT BY must match BaseEntity.ID_ALLOCATION_SIZE
+CREATE SEQUENCE IF NOT EXISTS authors_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS news_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tags_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
+-- the pooled optimizer hands out the block ending at the value it reads,
+-- so every sequence restarts a full block above the ids already in use
+ALTER SEQUENCE authors_seq RESTART WITH (SELECT COALESCE(MAX(Id), 0) + 50 FROM authors);
+ALTER SEQUENCE news_seq RESTART WITH (SELECT COALESCE(MAX(Id), 0) + 50 FROM news);
+ALTER SEQUENCE tags_seq RESTART WITH (SELECT COALESCE(MAX(Id), 0) + 50 FROM tags);
+ALTER SEQUENCE comments_seq RESTART WITH (SELECT COALESCE(MAX(Id), 0) + 50 FROM comments);
@@ -0,0 +1,25 @@
+-- names become unique, so duplicate tags and authors are merged into the one with the lowest id first
+UPDATE newstags nt SET Tag_Id = (
+    SELECT MIN(t2.Id) FROM tags t1 INNER JOIN tags t2 ON t2.Name = t1.Name WHERE t1.Id = nt.Tag_Id
+) WHERE nt.Tag_Id IS NOT NULL;
+DELETE FROM tags t WHERE t.Id > (SELECT MIN(t2.Id) FROM tags t2 WHERE t2.Name = t.Name);
+
+UPDATE news n SET Author_Id = (
+    SELECT MIN(a2.Id) FROM authors a1 INNER JOIN authors a2 ON a2.Name = a1.Name WHERE a1.Id = n.Author_Id
+) WHERE n.Author_Id IS NOT NULL;
+DELETE FROM authors a WHERE a.Id > (SELECT MIN(a2.Id) FROM authors a2 WHERE a2.Name = a.Name);
+
+CREATE UNIQUE INDEX IF NOT EXISTS UX_AUTHORS_NAME ON authors(Name);
+CREATE UNIQUE INDEX IF NOT EXISTS UX_TAGS_NAME ON tags(Name);
+
+CREATE INDEX IF NOT EXISTS IX_NEWS_AUTHOR_ID ON news(Author_Id);
+CREATE INDEX IF NOT EXISTS IX_COMMENTS_NEWS_ID ON comments(News_Id);
+
+-- the link table gets a composite primary key, which needs non-null and distinct rows
+DELETE FROM newstags WHERE News_Id IS NULL OR Tag_Id IS NULL;
+DELETE FROM newstags WHERE _ROWID_ NOT IN (SELECT MIN(_ROWID_) FROM newstags GROUP BY News_Id, Tag_Id);
+ALTER TABLE newstags ALTER COLUMN News_Id SET NOT NULL;
+ALTER TABLE newstags ALTER COLUMN Tag_Id SET NOT NULL;
+ALTER TABLE newstags ADD CONSTRAINT PK_NEWSTAGS PRIMARY KEY (News_Id, Tag_Id);
+-- the primary key covers lookups by News_Id, Tag_Id needs an index of its own
+CREATE INDEX IF NOT EXISTS IX_NEWSTAGS_TAG_ID ON newstags(Tag_Id);
@@ -0,0 +1,3 @@
+-- the number of comments is kept with the news, so a news shows it without counting its comments
+ALTER TABLE news ADD COLUMN IF NOT EXISTS Comment_Count BIGINT DEFAULT 0 NOT NULL;
+UPDATE news n SET Comment_Count = (SELECT COUNT(*) FROM comments c WHERE c.News_Id = n.Id);
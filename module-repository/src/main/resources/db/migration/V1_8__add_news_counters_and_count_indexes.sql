@@ -0,0 +1,11 @@
+-- the number of news is kept with every author and tag, as the number of comments is with every news
+ALTER TABLE authors ADD COLUMN IF NOT EXISTS News_Count BIGINT DEFAULT 0 NOT NULL;
+UPDATE authors a SET News_Count = (SELECT COUNT(*) FROM news n WHERE n.Author_Id = a.Id);
+
+ALTER TABLE tags ADD COLUMN IF NOT EXISTS News_Count BIGINT DEFAULT 0 NOT NULL;
+UPDATE tags t SET News_Count = (SELECT COUNT(*) FROM newstags nt WHERE nt.Tag_Id = t.Id);
+
+-- the counts are sorted on, most of all the largest first
+CREATE INDEX IF NOT EXISTS IX_NEWS_COMMENT_COUNT ON news(Comment_Count DESC);
+CREATE INDEX IF NOT EXISTS IX_AUTHORS_NEWS_COUNT ON authors(News_Count DESC);
+CREATE INDEX IF NOT EXISTS IX_TAGS_NEWS_COUNT ON tags(News_Count DESC);
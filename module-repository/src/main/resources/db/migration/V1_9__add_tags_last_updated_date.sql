@@ -0,0 +1,2 @@
+-- renaming a tag changes the news showing it, so a tag keeps its modification date as authors and news do
+ALTER TABLE tags ADD COLUMN IF NOT EXISTS Last_Updated_Date timestamp NULL;
@@ -0,0 +1,88 @@
+package com.mjc.school.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Schema migration tests")
+public class MigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:migration;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void migrate_ShouldMergeDuplicatesBackfillCountersAndMoveSequences() throws SQLException {
+        Flyway.configure().dataSource(URL, "sa", "").target("1.4").load().migrate();
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            // rows written before names were unique and the link table had a primary key
+            execute(connection,
+                "INSERT INTO authors (Id, Name, Created_Date) VALUES"
+                    + " (1, 'Gosling', CURRENT_TIMESTAMP), (2, 'Gosling', CURRENT_TIMESTAMP), (3, 'Pike', CURRENT_TIMESTAMP)",
+                "INSERT INTO tags (Id, Name) VALUES (1, 'java'), (2, 'java'), (3, 'go')",
+                "INSERT INTO news (Id, Title, Content, Created_Date, Author_Id) VALUES"
+                    + " (1, 'Records', 'Records content', CURRENT_TIMESTAMP, 1),"
+                    + " (2, 'Sealed classes', 'Sealed content', CURRENT_TIMESTAMP, 2),"
+                    + " (3, 'Generics', 'Generics content', CURRENT_TIMESTAMP, 3),"
+                    + " (120, 'Virtual threads', 'Loom content', CURRENT_TIMESTAMP, 2)",
+                "INSERT INTO newstags (News_Id, Tag_Id) VALUES (1, 1), (1, 2), (2, 2), (2, 2), (3, 3), (120, 1), (3, NULL)",
+                "INSERT INTO comments (Id, Content, Created_Date, News_Id) VALUES"
+                    + " (1, 'First', CURRENT_TIMESTAMP, 1), (2, 'Second', CURRENT_TIMESTAMP, 1),"
+                    + " (75, 'Third', CURRENT_TIMESTAMP, 2)");
+
+            Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM authors")).isEqualTo(2);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM news WHERE Author_Id = 1")).isEqualTo(3);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM tags")).isEqualTo(2);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM newstags")).isEqualTo(4);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM newstags WHERE Tag_Id = 1")).isEqualTo(3);
+            assertThat(queryLong(connection, "SELECT COUNT(*) FROM newstags WHERE News_Id = 3")).isEqualTo(1);
+
+            assertThat(queryLong(connection, "SELECT Comment_Count FROM news WHERE Id = 1")).isEqualTo(2);
+            assertThat(queryLong(connection, "SELECT Comment_Count FROM news WHERE Id = 2")).isEqualTo(1);
+            assertThat(queryLong(connection, "SELECT Comment_Count FROM news WHERE Id = 120")).isZero();
+            assertThat(queryLong(connection, "SELECT News_Count FROM authors WHERE Id = 1")).isEqualTo(3);
+            assertThat(queryLong(connection, "SELECT News_Count FROM authors WHERE Id = 3")).isEqualTo(1);
+            assertThat(queryLong(connection, "SELECT News_Count FROM tags WHERE Id = 1")).isEqualTo(3);
+            assertThat(queryLong(connection, "SELECT News_Count FROM tags WHERE Id = 3")).isEqualTo(1);
+
+            // the pooled optimizer hands out the 50 ids ending at the value it reads
+            assertThat(queryLong(connection, "SELECT NEXT VALUE FOR news_seq") - 50)
+                .isGreaterThanOrEqualTo(queryLong(connection, "SELECT MAX(Id) FROM news"));
+            assertThat(queryLong(connection, "SELECT NEXT VALUE FOR comments_seq") - 50)
+                .isGreaterThanOrEqualTo(queryLong(connection, "SELECT MAX(Id) FROM comments"));
+            assertThat(queryLong(connection, "SELECT NEXT VALUE FOR authors_seq") - 50)
+                .isGreaterThanOrEqualTo(queryLong(connection, "SELECT MAX(Id) FROM authors"));
+            assertThat(queryLong(connection, "SELECT NEXT VALUE FOR tags_seq") - 50)
+                .isGreaterThanOrEqualTo(queryLong(connection, "SELECT MAX(Id) FROM tags"));
+
+            assertThatThrownBy(() -> execute(connection, "INSERT INTO tags (Id, Name) VALUES (4, 'go')"))
+                .isInstanceOf(SQLException.class);
+            assertThatThrownBy(() -> execute(connection, "INSERT INTO newstags (News_Id, Tag_Id) VALUES (1, 1)"))
+                .isInstanceOf(SQLException.class);
+        }
+    }
+
+    private static void execute(Connection connection, String... sqls) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : sqls) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -1,25 +1,75 @@
 package com.mjc.school.service;
 
+import com.mjc.school.repository.exception.InvalidCursorException;
+import com.mjc.school.repository.filter.fetch.FetchPlan;
+import com.mjc.school.repository.filter.pagination.Page;
 import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
+import com.mjc.school.service.dto.BulkResponseDto;
 import com.mjc.school.service.dto.PageDtoResponse;
+import com.mjc.school.service.dto.ResourceVersionDto;
+import com.mjc.school.service.exceptions.ValidatorException;
+import com.mjc.school.service.export.ResourceExport;
 import com.mjc.school.service.filter.ResourceSearchFilter;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.mjc.school.service.exceptions.ServiceErrorCode.VALIDATION;
+
 public interface BaseService<C, R, G, S, U> {
     PageDtoResponse<R> readAll(S searchFilterRequest);
 
+    // The search is checked when called, the resources are read when the export is iterated
+    ResourceExport<R> exportAll(S searchFilterRequest);
+
     R readById(G id);
 
+    R readById(G id, List<String> fields);
+
+    // Versions answer conditional requests without reading the resource, empty when it keeps no modification date
+    default Optional<ResourceVersionDto> readVersion(G id) {
+        return Optional.empty();
+    }
+
+    default Optional<ResourceVersionDto> readListVersion(S searchFilterRequest) {
+        return Optional.empty();
+    }
+
     R create(C createRequest);
 
     R update(G id, U updateRequest);
 
     void deleteById(G id);
 
+    // Bulk requests report an outcome per item, an item that cannot be written does not fail the others
+    BulkResponseDto<R> createAll(List<C> createRequests);
+
+    BulkResponseDto<Void> deleteAll(List<G> ids);
+
+    // a cursor is only checked against the sorting and the field types once the page is read: one taken from
+    // a listing sorted otherwise is as invalid as a malformed one
+    default <P> Page<P> readPage(final Supplier<Page<P>> pageReader) {
+        try {
+            return pageReader.get();
+        } catch (InvalidCursorException exc) {
+            throw new ValidatorException(String.format(VALIDATION.getMessage(), exc.getMessage()));
+        }
+    }
+
     default EntitySearchSpecification getEntitySearchSpecification(final ResourceSearchFilter searchFilter) {
+        return getEntitySearchSpecification(searchFilter, FetchPlan.NONE);
+    }
+
+    default EntitySearchSpecification getEntitySearchSpecification(final ResourceSearchFilter searchFilter,
+                                                                   final FetchPlan fetchPlan) {
         return new EntitySearchSpecification.Builder()
                 .pagination(searchFilter.getPagination())
                 .sorting(searchFilter.getOrder())
-                .searchFilterSpecification(searchFilter.getSearchCriteriaList()).build();
+                .searchFilterSpecification(searchFilter.getSearchCriteriaList())
+                .after(searchFilter.getAfter())
+                .countPolicy(searchFilter.getCountPolicy())
+                .fetchPlan(fetchPlan).build();
     }
 
 }
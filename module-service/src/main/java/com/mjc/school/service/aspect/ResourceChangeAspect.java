@@ -0,0 +1,31 @@
+package com.mjc.school.service.aspect;
+
+import com.mjc.school.service.event.ChangesResources;
+import com.mjc.school.service.event.ResourceChangedEvent;
+import com.mjc.school.service.event.ResourceType;
+import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+
+@Aspect
+@Component
+public class ResourceChangeAspect {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ResourceChangeAspect(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    // also after a failure: a bulk write commits chunk by chunk, the chunks before the failing one are written
+    @After("@annotation(changesResources)")
+    public void publishAfterInvocation(final ChangesResources changesResources) {
+        eventPublisher.publishEvent(new ResourceChangedEvent(EnumSet.copyOf(List.of(changesResources.value()))));
+    }
+}
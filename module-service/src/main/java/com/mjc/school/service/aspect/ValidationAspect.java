@@ -15,46 +15,78 @@ import org.springframework.stereotype.Component;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 @Aspect
 @Component
 public class ValidationAspect {
 
+    private static final int[] NO_VALID_PARAMETERS = new int[0];
+
     private final Validator validator;
 
+    // per target class and advised method, the indexes of the @Valid parameters of the implementation
+    private final ClassValue<Map<Method, int[]>> validParameterIndexes = new ClassValue<>() {
+        @Override
+        protected Map<Method, int[]> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     @Autowired
     public ValidationAspect(Validator validator) {
         this.validator = validator;
     }
 
     @Before("execution(public * *(.., @com.mjc.school.service.validator.Valid (*), ..))")
-    public void validateBeforeInvocation(final JoinPoint joinPoint) throws NoSuchMethodException {
+    public void validateBeforeInvocation(final JoinPoint joinPoint) {
         if (joinPoint.getSignature() instanceof MethodSignature signature) {
-            var targetMethod = getTargetMethod(joinPoint, signature);
-            var args = joinPoint.getArgs();
-            var parameterAnnotations = targetMethod.getParameterAnnotations();
+            var indexes = validParameterIndexes.get(joinPoint.getTarget().getClass())
+                .computeIfAbsent(signature.getMethod(), method -> findValidParameters(joinPoint.getTarget(), method));
+            if (indexes.length == 0) {
+                return;
+            }
 
-            var violations = new HashSet<ConstraintViolation>();
-            for (int i = 0; i < parameterAnnotations.length; i++) {
-                if (requiresValidation(parameterAnnotations[i])) {
-                    violations.addAll(validator.validate(args[i]));
+            var args = joinPoint.getArgs();
+            Set<ConstraintViolation> violations = null;
+            for (int index : indexes) {
+                var argumentViolations = validator.validate(args[index]);
+                if (!argumentViolations.isEmpty()) {
+                    if (violations == null) {
+                        violations = new HashSet<>();
+                    }
+                    violations.addAll(argumentViolations);
                 }
             }
 
-            if (!violations.isEmpty()) {
+            if (violations != null) {
                 throw new ValidatorException(String.format(ServiceErrorCode.VALIDATION.getMessage(), violations));
             }
         }
     }
 
-    private Method getTargetMethod(JoinPoint joinPoint, MethodSignature signature) throws NoSuchMethodException {
-        Method baseMethod = signature.getMethod();
-        return joinPoint.getTarget().getClass()
-            .getMethod(baseMethod.getName(), baseMethod.getParameterTypes());
+    private int[] findValidParameters(Object target, Method baseMethod) {
+        var parameterAnnotations = getTargetMethod(target, baseMethod).getParameterAnnotations();
+        var indexes = IntStream.range(0, parameterAnnotations.length)
+            .filter(i -> requiresValidation(parameterAnnotations[i]))
+            .toArray();
+        return indexes.length > 0 ? indexes : NO_VALID_PARAMETERS;
+    }
+
+    private Method getTargetMethod(Object target, Method baseMethod) {
+        try {
+            return target.getClass().getMethod(baseMethod.getName(), baseMethod.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            // the advised method itself is public, the lookup cannot miss
+            return baseMethod;
+        }
     }
 
     private boolean requiresValidation(final Annotation[] annotations) {
         return Stream.of(annotations).anyMatch(Valid.class::isInstance);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package com.mjc.school.service.bulk;
+
+import com.mjc.school.service.dto.BulkItemResultDto;
+import com.mjc.school.service.dto.BulkResponseDto;
+import com.mjc.school.service.exceptions.NotFoundException;
+import com.mjc.school.service.exceptions.ResourceConflictServiceException;
+import com.mjc.school.service.exceptions.ValidatorException;
+import com.mjc.school.service.validator.ConstraintViolation;
+import com.mjc.school.service.validator.Validator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static com.mjc.school.service.exceptions.ServiceErrorCode.RESOURCE_NOT_FOUND;
+import static com.mjc.school.service.exceptions.ServiceErrorCode.VALIDATION;
+
+// Writes the items of a bulk request a chunk at a time, every chunk in a transaction of its own: the persistence
+// context is flushed as JDBC batches and dropped once per chunk, and a failing item does not undo the others
+@Component
+public class BulkWriter {
+
+    public static final int MAX_ITEMS = 10_000;
+
+    public static final int CREATED = 201;
+    public static final int NO_CONTENT = 204;
+
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int CONFLICT = 409;
+
+    // a multiple of hibernate.jdbc.batch_size and of the id allocation size
+    static final int CHUNK_SIZE = 500;
+
+    private final Validator validator;
+    private final TransactionTemplate transaction;
+
+    public BulkWriter(final Validator validator, final PlatformTransactionManager transactionManager) {
+        this.validator = validator;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // the chunk writer returns the written resources in the order of its items
+    public <I, R> BulkResponseDto<R> write(
+            final List<I> items, final int successStatus, final Function<List<I>, List<R>> chunkWriter) {
+        if (items == null || items.isEmpty() || items.size() > MAX_ITEMS) {
+            throw new ValidatorException(String.format(VALIDATION.getMessage(),
+                String.format("A bulk request takes from 1 to %d items.", MAX_ITEMS)));
+        }
+        List<BulkItemResultDto<R>> results = new ArrayList<>(Collections.nCopies(items.size(), null));
+        // every item is validated once, up front, the invalid ones are left out of the chunks
+        List<Integer> validIndexes = new ArrayList<>(items.size());
+        for (int index = 0; index < items.size(); index++) {
+            I item = items.get(index);
+            Set<ConstraintViolation> violations = item == null
+                ? Set.of(new ConstraintViolation("Item must not be null"))
+                : validator.validate(item);
+            if (violations.isEmpty()) {
+                validIndexes.add(index);
+            } else {
+                results.set(index, BulkItemResultDto.failure(index, BAD_REQUEST, VALIDATION.getErrorCode(),
+                    String.format(VALIDATION.getMessage(), violations)));
+            }
+        }
+        for (int from = 0; from < validIndexes.size(); from += CHUNK_SIZE) {
+            List<Integer> chunkIndexes = validIndexes.subList(from, Math.min(from + CHUNK_SIZE, validIndexes.size()));
+            writeChunk(items, chunkIndexes, successStatus, chunkWriter, results);
+        }
+        return new BulkResponseDto<>(results);
+    }
+
+    // a chunk rejected because of one of its items is split in halves until that item is alone,
+    // the items around it are still written a sub-chunk at a time
+    private <I, R> void writeChunk(List<I> items, List<Integer> indexes, int successStatus,
+                                   Function<List<I>, List<R>> chunkWriter, List<BulkItemResultDto<R>> results) {
+        List<I> chunk = indexes.stream().map(items::get).toList();
+        try {
+            List<R> written = transaction.execute(status -> chunkWriter.apply(chunk));
+            for (int i = 0; i < indexes.size(); i++) {
+                results.set(indexes.get(i), BulkItemResultDto.success(indexes.get(i), successStatus, written.get(i)));
+            }
+        } catch (ValidatorException | NotFoundException | ResourceConflictServiceException exc) {
+            if (indexes.size() == 1) {
+                results.set(indexes.get(0), toFailure(indexes.get(0), exc));
+                return;
+            }
+            int half = indexes.size() / 2;
+            writeChunk(items, indexes.subList(0, half), successStatus, chunkWriter, results);
+            writeChunk(items, indexes.subList(half, indexes.size()), successStatus, chunkWriter, results);
+        }
+    }
+
+    // the statuses and codes RestExceptionHandler answers these exceptions with
+    private <R> BulkItemResultDto<R> toFailure(int index, RuntimeException exc) {
+        if (exc instanceof ResourceConflictServiceException conflict) {
+            return BulkItemResultDto.failure(index, CONFLICT, conflict.getCode(), conflict.getMessage());
+        }
+        if (exc instanceof NotFoundException) {
+            return BulkItemResultDto.failure(index, NOT_FOUND, RESOURCE_NOT_FOUND.getErrorCode(), exc.getMessage());
+        }
+        return BulkItemResultDto.failure(index, BAD_REQUEST, VALIDATION.getErrorCode(), exc.getMessage());
+    }
+}
@@ -12,6 +12,7 @@ public class AuthorDtoResponse extends RepresentationModel<AuthorDtoResponse> {
     private String name;
     private LocalDateTime createdDate;
     private LocalDateTime lastUpdatedDate;
+    private Long newsCount;
 
     public AuthorDtoResponse(){}
 
@@ -38,6 +39,10 @@ public class AuthorDtoResponse extends RepresentationModel<AuthorDtoResponse> {
         return lastUpdatedDate;
     }
 
+    public Long getNewsCount() {
+        return newsCount;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -53,4 +58,8 @@ public class AuthorDtoResponse extends RepresentationModel<AuthorDtoResponse> {
     public void setLastUpdatedDate(LocalDateTime lastUpdatedDate) {
         this.lastUpdatedDate = lastUpdatedDate;
     }
+
+    public void setNewsCount(Long newsCount) {
+        this.newsCount = newsCount;
+    }
 }
@@ -0,0 +1,28 @@
+package com.mjc.school.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Outcome of one item of a bulk request, index is its position in the request and status the HTTP status
+// a request of its own would have got
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResultDto<R>(
+    int index,
+    int status,
+    String errorCode,
+    String message,
+    R resource) {
+
+    public static <R> BulkItemResultDto<R> success(int index, int status, R resource) {
+        return new BulkItemResultDto<>(index, status, null, null, resource);
+    }
+
+    public static <R> BulkItemResultDto<R> failure(int index, int status, String errorCode, String message) {
+        return new BulkItemResultDto<>(index, status, errorCode, message, null);
+    }
+
+    @JsonIgnore
+    public boolean isSuccessful() {
+        return status < 400;
+    }
+}
@@ -0,0 +1,30 @@
+package com.mjc.school.service.dto;
+
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+public class BulkResponseDto<R> extends RepresentationModel<BulkResponseDto<R>> {
+
+    private final int succeeded;
+    private final int failed;
+    private final List<BulkItemResultDto<R>> results;
+
+    public BulkResponseDto(List<BulkItemResultDto<R>> results) {
+        this.succeeded = (int) results.stream().filter(BulkItemResultDto::isSuccessful).count();
+        this.failed = results.size() - succeeded;
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<BulkItemResultDto<R>> getResults() {
+        return results;
+    }
+}
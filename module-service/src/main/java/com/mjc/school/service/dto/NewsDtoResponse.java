@@ -14,6 +14,8 @@ public class NewsDtoResponse extends RepresentationModel<NewsDtoResponse> {
     private String content;
     private LocalDateTime createdDate;
     private LocalDateTime lastUpdatedDate;
+    // all the comments of the news, commentsDto only holds the first of them
+    private Long commentCount;
     private AuthorDtoResponse authorDto;
     private List<TagDtoResponse> tagsDto;
     private List<CommentsDtoForNewsResponse> commentsDto;
@@ -56,6 +58,10 @@ public class NewsDtoResponse extends RepresentationModel<NewsDtoResponse> {
         return lastUpdatedDate;
     }
 
+    public Long getCommentCount() {
+        return commentCount;
+    }
+
     public AuthorDtoResponse getAuthorDto() {
         return authorDto;
     }
@@ -83,6 +89,10 @@ public class NewsDtoResponse extends RepresentationModel<NewsDtoResponse> {
         this.lastUpdatedDate = lastUpdatedDate;
     }
 
+    public void setCommentCount(Long commentCount) {
+        this.commentCount = commentCount;
+    }
+
     public void setCreatedDate(LocalDateTime createdDate) {
         this.createdDate = createdDate;
     }
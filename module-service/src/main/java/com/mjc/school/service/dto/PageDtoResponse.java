@@ -11,18 +11,28 @@ public class PageDtoResponse<T> extends RepresentationModel<PageDtoResponse<T>>
 
     private List<T> modelDtoList;
     private int currentPage;
-    private int pageCount;
+    private Integer pageCount;
+    private String nextCursor;
+    private boolean hasNext;
+    // set when a search matched more than it lists, left out of the response otherwise
+    private Boolean truncated;
 
     public PageDtoResponse() {
         this.modelDtoList = new ArrayList<>();
     }
 
-    public PageDtoResponse(List<T> modelDtoList, int currentPage, int pageCount) {
+    public PageDtoResponse(List<T> modelDtoList, int currentPage, Integer pageCount) {
         this.modelDtoList = modelDtoList !=null ? modelDtoList: new ArrayList<>();
         this.currentPage = currentPage;
         this.pageCount = pageCount;
     }
 
+    public PageDtoResponse(List<T> modelDtoList, int currentPage, Integer pageCount, String nextCursor) {
+        this(modelDtoList, currentPage, pageCount);
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
     public List<T> getModelDtoList() {
         return modelDtoList;
     }
@@ -31,10 +41,22 @@ public class PageDtoResponse<T> extends RepresentationModel<PageDtoResponse<T>>
         return currentPage;
     }
 
-    public int getPageCount() {
+    public Integer getPageCount() {
         return pageCount;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean getHasNext() {
+        return hasNext;
+    }
+
+    public Boolean getTruncated() {
+        return truncated;
+    }
+
     public void setModelDtoList(List<T> modelDtoList) {
         this.modelDtoList = modelDtoList;
     }
@@ -43,7 +65,19 @@ public class PageDtoResponse<T> extends RepresentationModel<PageDtoResponse<T>>
         this.currentPage = currentPage;
     }
 
-    public void setPageCount(int pageCount) {
+    public void setPageCount(Integer pageCount) {
         this.pageCount = pageCount;
     }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public void setTruncated(Boolean truncated) {
+        this.truncated = truncated;
+    }
 }
@@ -24,6 +24,15 @@ public class ResourceSearchFilterRequestDTO {
     @SearchCriteria
     private List<String> searchCriteria = new ArrayList<>();
 
+    // Opaque cursor returned as nextCursor by the previous page, replaces the page offset when present
+    private String after;
+
+    // Value example: skip (exact, skip or cached)
+    private String countPolicy;
+
+    // Value example: id,title,authorDto (response fields to read, all of them when empty)
+    private List<String> fields;
+
     public ResourceSearchFilterRequestDTO(
             @Nullable int page,
             @Nullable int pageSize,
@@ -59,4 +68,27 @@ public class ResourceSearchFilterRequestDTO {
         return searchCriteria;
     }
 
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    public String getCountPolicy() {
+        return countPolicy;
+    }
+
+    public void setCountPolicy(String countPolicy) {
+        this.countPolicy = countPolicy;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
 }
@@ -0,0 +1,7 @@
+package com.mjc.school.service.dto;
+
+import java.time.LocalDateTime;
+
+// Version of a resource or of a listing, lastModified is null when nothing it covers keeps a modification date
+public record ResourceVersionDto(LocalDateTime lastModified, long fingerprint) {
+}
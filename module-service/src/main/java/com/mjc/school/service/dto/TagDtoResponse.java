@@ -8,6 +8,7 @@ public class TagDtoResponse extends RepresentationModel<TagDtoResponse> {
 
     private Long id;
     private String name;
+    private Long newsCount;
 
     public TagDtoResponse() {}
 
@@ -24,6 +25,10 @@ public class TagDtoResponse extends RepresentationModel<TagDtoResponse> {
         return name;
     }
 
+    public Long getNewsCount() {
+        return newsCount;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
@@ -31,4 +36,8 @@ public class TagDtoResponse extends RepresentationModel<TagDtoResponse> {
     public void setName(String name) {
         this.name = name;
     }
+
+    public void setNewsCount(Long newsCount) {
+        this.newsCount = newsCount;
+    }
 }
@@ -0,0 +1,11 @@
+package com.mjc.school.service.event;
+
+import java.lang.annotation.*;
+
+// The resources a service method writes, including the rows the database changes along with them
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ChangesResources {
+    ResourceType[] value();
+}
@@ -0,0 +1,7 @@
+package com.mjc.school.service.event;
+
+import java.util.Set;
+
+// Published once a service method has written the given resources, caches of their representations listen to it
+public record ResourceChangedEvent(Set<ResourceType> resources) {
+}
@@ -0,0 +1,8 @@
+package com.mjc.school.service.event;
+
+public enum ResourceType {
+    NEWS,
+    AUTHOR,
+    TAG,
+    COMMENT
+}
@@ -0,0 +1,10 @@
+package com.mjc.school.service.export;
+
+import java.util.function.Consumer;
+
+// All the resources matching a search, handed over one at a time while they are read
+@FunctionalInterface
+public interface ResourceExport<R> {
+
+    void forEach(Consumer<? super R> consumer);
+}
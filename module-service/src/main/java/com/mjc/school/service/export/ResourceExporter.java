@@ -0,0 +1,25 @@
+package com.mjc.school.service.export;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// An export is written to the response after the request handler has returned, on another thread,
+// so it cannot join the transaction of a service method and reads in a read-only transaction of its own
+@Component
+public class ResourceExporter {
+
+    // rows fetched by the driver at a time, also the size of the batches the collections of news are read in
+    public static final int EXPORT_FETCH_SIZE = 500;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ResourceExporter(final PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public <R> ResourceExport<R> export(final ResourceExport<R> reader) {
+        return consumer -> readOnlyTransaction.executeWithoutResult(status -> reader.forEach(consumer));
+    }
+}
@@ -1,5 +1,7 @@
 package com.mjc.school.service.filter;
 
+import com.mjc.school.repository.filter.pagination.CountPolicy;
+import com.mjc.school.repository.filter.pagination.KeysetCursor;
 import com.mjc.school.repository.filter.pagination.Pagination;
 import com.mjc.school.repository.filter.sorting.Sorting;
 import com.mjc.school.repository.filter.specification.SearchCriteria;
@@ -14,11 +16,23 @@ public class ResourceSearchFilter {
 
     private List<SearchCriteria> searchCriteriaList;
 
+    private KeysetCursor after;
+
+    private CountPolicy countPolicy;
+
     public ResourceSearchFilter(final Pagination pagination, final List<Sorting> sorting,
                                 final List<SearchCriteria> searchCriteriaList) {
+        this(pagination, sorting, searchCriteriaList, null, CountPolicy.EXACT);
+    }
+
+    public ResourceSearchFilter(final Pagination pagination, final List<Sorting> sorting,
+                                final List<SearchCriteria> searchCriteriaList, final KeysetCursor after,
+                                final CountPolicy countPolicy) {
         this.pagination = pagination;
         this.sorting = sorting;
         this.searchCriteriaList = searchCriteriaList;
+        this.after = after;
+        this.countPolicy = countPolicy;
     }
 
     public Pagination getPagination() {
@@ -32,4 +46,12 @@ public class ResourceSearchFilter {
     public List<SearchCriteria> getSearchCriteriaList() {
         return searchCriteriaList;
     }
+
+    public KeysetCursor getAfter() {
+        return after;
+    }
+
+    public CountPolicy getCountPolicy() {
+        return countPolicy;
+    }
 }
@@ -0,0 +1,113 @@
+package com.mjc.school.service.filter;
+
+import com.mjc.school.repository.filter.sorting.SortOrder;
+import com.mjc.school.repository.filter.sorting.Sorting;
+import com.mjc.school.repository.filter.specification.SearchCriteria;
+import com.mjc.school.repository.filter.specification.SearchOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static com.mjc.school.service.filter.mapper.BaseSearchFilterMapper.SORT_AND_FILTER_DELIMITER;
+
+// Value examples: title:asc, title:like:news, or:title:like:news
+// Parses the sorting and search criteria parameters in one pass, validated once and shared by the checkers and
+// the mappers. Clients send a small set of filter shapes, so the results are kept by the raw parameter strings.
+public final class SearchFilterParser {
+
+    private static final int CACHE_MAX_SIZE = 1000;
+    private static final char DELIMITER = SORT_AND_FILTER_DELIMITER.charAt(0);
+
+    private static final Map<List<String>, ParsedSorting> SORTING_CACHE = new ConcurrentHashMap<>();
+    private static final Map<List<String>, ParsedSearchCriteria> SEARCH_CRITERIA_CACHE = new ConcurrentHashMap<>();
+
+    private SearchFilterParser() {
+    }
+
+    public static ParsedSorting parseSorting(final List<String> sorting) {
+        return parseCached(sorting, SORTING_CACHE, SearchFilterParser::compileSorting);
+    }
+
+    public static ParsedSearchCriteria parseSearchCriteria(final List<String> searchCriteria) {
+        return parseCached(searchCriteria, SEARCH_CRITERIA_CACHE, SearchFilterParser::compileSearchCriteria);
+    }
+
+    private static <P> P parseCached(final List<String> raw, final Map<List<String>, P> cache,
+                                     final Function<List<String>, P> compiler) {
+        // the request keeps its own mutable list, the key must not change once cached
+        List<String> key = List.copyOf(raw);
+        P parsed = cache.get(key);
+        if (parsed == null) {
+            parsed = compiler.apply(key);
+            if (cache.size() >= CACHE_MAX_SIZE) {
+                cache.clear();
+            }
+            cache.put(key, parsed);
+        }
+        return parsed;
+    }
+
+    private static ParsedSorting compileSorting(final List<String> sorting) {
+        List<Sorting> sortingList = new ArrayList<>(sorting.size());
+        for (String sort : sorting) {
+            int orderStart = sort.indexOf(DELIMITER) + 1;
+            SortOrder order = orderStart == 0 || sort.indexOf(DELIMITER, orderStart) >= 0
+                ? null : SortOrder.findSortOrderByName(sort.substring(orderStart));
+            if (order == null) {
+                return ParsedSorting.failedAt(sort);
+            }
+            sortingList.add(new Sorting(sort.substring(0, orderStart - 1), order));
+        }
+        return new ParsedSorting(List.copyOf(sortingList), null);
+    }
+
+    // the value is the rest of the criteria, delimiters included, so that times and urls can be searched for
+    private static ParsedSearchCriteria compileSearchCriteria(final List<String> searchCriteria) {
+        List<SearchCriteria> criteriaList = new ArrayList<>(searchCriteria.size());
+        for (String criteria : searchCriteria) {
+            int fieldStart = criteria.indexOf(DELIMITER) + 1;
+            SearchOperation predicate = fieldStart == 0
+                ? null : SearchOperation.findSearchOperationByName(criteria.substring(0, fieldStart - 1));
+            if (!SearchOperation.PREDICATES.contains(predicate)) {
+                predicate = null;
+                fieldStart = 0;
+            }
+            int operationStart = criteria.indexOf(DELIMITER, fieldStart) + 1;
+            int valueStart = operationStart == 0 ? 0 : criteria.indexOf(DELIMITER, operationStart) + 1;
+            SearchOperation operation = valueStart == 0
+                ? null : SearchOperation.findSearchOperationByName(criteria.substring(operationStart, valueStart - 1));
+            if (!SearchOperation.SEARCH_OPERATIONS.contains(operation) || valueStart == criteria.length()) {
+                return ParsedSearchCriteria.failedAt(criteria);
+            }
+            criteriaList.add(new SearchCriteria(predicate, criteria.substring(fieldStart, operationStart - 1),
+                operation, criteria.substring(valueStart)));
+        }
+        return new ParsedSearchCriteria(List.copyOf(criteriaList), null);
+    }
+
+    // invalid names the first entry that cannot be parsed, null when all of them were
+    public record ParsedSorting(List<Sorting> sorting, String invalid) {
+
+        private static ParsedSorting failedAt(final String sort) {
+            return new ParsedSorting(List.of(), sort);
+        }
+
+        public boolean isValid() {
+            return invalid == null;
+        }
+    }
+
+    public record ParsedSearchCriteria(List<SearchCriteria> searchCriteria, String invalid) {
+
+        private static ParsedSearchCriteria failedAt(final String criteria) {
+            return new ParsedSearchCriteria(List.of(), criteria);
+        }
+
+        public boolean isValid() {
+            return invalid == null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.mjc.school.service.filter;
+
+import com.mjc.school.repository.projection.Projection;
+import com.mjc.school.service.exceptions.ValidatorException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.mjc.school.service.exceptions.ServiceErrorCode.VALIDATION;
+
+// Value example: fields=id,title,authorDto
+// Response fields asked for by the client, each one read from the listed projection components
+public final class SparseFieldset {
+
+    public static final String ID_FIELD = "id";
+    // not a response field, asks for all the links next to a sparse fieldset, which otherwise keeps only self
+    public static final String LINKS_FIELD = "_links";
+
+    private static final SparseFieldset ALL = new SparseFieldset(null, Map.of());
+
+    // null when no fields were asked for, then the whole resource is read
+    private final Set<String> fields;
+
+    private final Map<String, List<String>> componentsByField;
+
+    private SparseFieldset(final Set<String> fields, final Map<String, List<String>> componentsByField) {
+        this.fields = fields;
+        this.componentsByField = componentsByField;
+    }
+
+    public static SparseFieldset of(final List<String> requestedFields, final Map<String, List<String>> componentsByField) {
+        if (requestedFields == null || requestedFields.isEmpty()) {
+            return ALL;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String requestedField : requestedFields) {
+            for (String field : requestedField.split(",")) {
+                field = field.trim();
+                if (field.isEmpty() || LINKS_FIELD.equals(field)) {
+                    continue;
+                }
+                if (!componentsByField.containsKey(field)) {
+                    throw new ValidatorException(String.format(VALIDATION.getMessage(),
+                        String.format("Unknown field '%s', expected one of %s.", field, componentsByField.keySet())));
+                }
+                fields.add(field);
+            }
+        }
+        // only _links was asked for
+        if (fields.isEmpty()) {
+            return ALL;
+        }
+        // the id is always written, the links and the collections of the resource are built from it
+        fields.add(ID_FIELD);
+        return new SparseFieldset(fields, componentsByField);
+    }
+
+    // Fields named as the projection components they are read from
+    public static Map<String, List<String>> sameNamedComponents(final String... fields) {
+        Map<String, List<String>> componentsByField = new LinkedHashMap<>();
+        Arrays.stream(fields).forEach(field -> componentsByField.put(field, List.of(field)));
+        return componentsByField;
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public boolean includes(final String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    public <P> Projection<P> select(final Projection<P> projection) {
+        if (fields == null) {
+            return projection;
+        }
+        Collection<String> components = new LinkedHashSet<>();
+        fields.forEach(field -> components.addAll(componentsByField.get(field)));
+        return projection.select(components);
+    }
+}
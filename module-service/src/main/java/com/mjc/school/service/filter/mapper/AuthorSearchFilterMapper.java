@@ -19,7 +19,7 @@ public class AuthorSearchFilterMapper extends BaseSearchFilterMapper<ResourceSea
 
     @Override
     public ResourceSearchFilter map(ResourceSearchFilterRequestDTO searchFilterRequest) {
-        return createResourceSearchFilter(searchFilterRequest.getPage(), searchFilterRequest.getPageSize(), searchFilterRequest.getSortByAndOrder(), searchFilterRequest.getSearchFilter());
+        return createResourceSearchFilter(searchFilterRequest.getPage(), searchFilterRequest.getPageSize(), searchFilterRequest.getSortByAndOrder(), searchFilterRequest.getSearchFilter(), searchFilterRequest.getAfter(), searchFilterRequest.getCountPolicy());
     }
 
 }
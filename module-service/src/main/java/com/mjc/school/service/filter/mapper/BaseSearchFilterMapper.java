@@ -1,15 +1,21 @@
 package com.mjc.school.service.filter.mapper;
 
+import com.mjc.school.repository.exception.InvalidCursorException;
+import com.mjc.school.repository.filter.pagination.CountPolicy;
+import com.mjc.school.repository.filter.pagination.KeysetCursor;
 import com.mjc.school.repository.filter.pagination.Pagination;
-import com.mjc.school.repository.filter.sorting.SortOrder;
 import com.mjc.school.repository.filter.sorting.Sorting;
 import com.mjc.school.repository.filter.specification.SearchCriteria;
 import com.mjc.school.repository.filter.specification.SearchOperation;
+import com.mjc.school.service.exceptions.ValidatorException;
 import com.mjc.school.service.filter.ResourceSearchFilter;
+import com.mjc.school.service.filter.SearchFilterParser;
 import org.springframework.util.CollectionUtils;
 
 import java.util.*;
 
+import static com.mjc.school.service.exceptions.ServiceErrorCode.VALIDATION;
+
 public abstract class BaseSearchFilterMapper<T> {
 
     public final static String SORT_AND_FILTER_DELIMITER = ":";
@@ -19,36 +25,73 @@ public abstract class BaseSearchFilterMapper<T> {
     public abstract ResourceSearchFilter map(T searchFilterRequest);
 
     protected ResourceSearchFilter createResourceSearchFilter(final int page, final int pageSize, final List<String> sortAndOrder, final List<String> searchFilterRequest) {
+        return createResourceSearchFilter(page, pageSize, sortAndOrder, searchFilterRequest, null, null);
+    }
+
+    protected ResourceSearchFilter createResourceSearchFilter(final int page, final int pageSize, final List<String> sortAndOrder,
+                                                              final List<String> searchFilterRequest, final String after,
+                                                              final String countPolicy) {
         Pagination pagination = new Pagination(page, pageSize);
         List<Sorting> sorting = createSorting(sortAndOrder);
         List<SearchCriteria> searchCriteriaList = createSearchCriteriaList(searchFilterRequest);
-        return new ResourceSearchFilter(pagination, sorting, searchCriteriaList);
+        return new ResourceSearchFilter(pagination, sorting, searchCriteriaList, createCursor(after),
+                createCountPolicy(countPolicy));
+    }
+
+    protected KeysetCursor createCursor(final String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        try {
+            return KeysetCursor.decode(after);
+        } catch (InvalidCursorException exc) {
+            throw new ValidatorException(String.format(VALIDATION.getMessage(), exc.getMessage()));
+        }
+    }
+
+    protected CountPolicy createCountPolicy(final String countPolicy) {
+        if (countPolicy == null || countPolicy.isBlank()) {
+            return CountPolicy.EXACT;
+        }
+        try {
+            return CountPolicy.valueOf(countPolicy.toUpperCase());
+        } catch (IllegalArgumentException exc) {
+            throw new ValidatorException(String.format(VALIDATION.getMessage(),
+                    String.format("Count policy '%s' is not supported.", countPolicy)));
+        }
     }
 
     protected List<Sorting> createSorting(List<String> sorting) {
-        List<Sorting> sortingList = new ArrayList<>();
         if (CollectionUtils.isEmpty(sorting)) {
             return getDefaultSorting();
         }
-        for (String sort : sorting) {
-            String[] splitSorting = sort.split(SORT_AND_FILTER_DELIMITER);
-            sortingList.add(new Sorting(splitSorting[0], SortOrder.valueOf(splitSorting[1].toUpperCase())));
+        SearchFilterParser.ParsedSorting parsedSorting = SearchFilterParser.parseSorting(sorting);
+        if (!parsedSorting.isValid()) {
+            throw new ValidatorException(String.format(VALIDATION.getMessage(),
+                    String.format("Sorting '%s' is not valid.", parsedSorting.invalid())));
         }
-        return sortingList;
+        return parsedSorting.sorting();
     }
 
+    // the parsed criteria are shared between requests, only their resolution is done for each one
     protected List<SearchCriteria> createSearchCriteriaList(final List<String> searchFilter) {
-        List<SearchCriteria> searchCriteriaList = new ArrayList<>();
         if (CollectionUtils.isEmpty(searchFilter)) {
             return List.of();
         }
-        for (String filter : searchFilter) {
-            String[] splitFilter = filter.split(SORT_AND_FILTER_DELIMITER);
-            if (splitFilter.length == 3) {
-                searchCriteriaList.add(
-                    new SearchCriteria(splitFilter[0], SearchOperation.getSearchOperationByName(splitFilter[1]), splitFilter[2]));
-            }
+        SearchFilterParser.ParsedSearchCriteria parsedCriteria = SearchFilterParser.parseSearchCriteria(searchFilter);
+        if (!parsedCriteria.isValid()) {
+            throw new ValidatorException(String.format(VALIDATION.getMessage(),
+                    String.format("Search criteria '%s' is not valid.", parsedCriteria.invalid())));
+        }
+        return parsedCriteria.searchCriteria().stream().map(this::resolveSearchCriteria).toList();
+    }
+
+    // full-text matches need a text index, only resources that keep one resolve them
+    protected SearchCriteria resolveSearchCriteria(final SearchCriteria searchCriteria) {
+        if (SearchOperation.MATCH.equals(searchCriteria.getOperation())) {
+            throw new ValidatorException(String.format(VALIDATION.getMessage(),
+                    String.format("Field '%s' is not full-text indexed.", searchCriteria.getField())));
         }
-        return searchCriteriaList;
+        return searchCriteria;
     }
 }
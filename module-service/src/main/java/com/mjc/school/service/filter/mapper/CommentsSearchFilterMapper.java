@@ -20,6 +20,6 @@ public class CommentsSearchFilterMapper extends BaseSearchFilterMapper<ResourceS
 
     @Override
     public ResourceSearchFilter map(ResourceSearchFilterRequestDTO searchFilterRequest) {
-        return createResourceSearchFilter(searchFilterRequest.getPage(), searchFilterRequest.getPageSize(), searchFilterRequest.getSortByAndOrder(), searchFilterRequest.getSearchFilter());
+        return createResourceSearchFilter(searchFilterRequest.getPage(), searchFilterRequest.getPageSize(), searchFilterRequest.getSortByAndOrder(), searchFilterRequest.getSearchFilter(), searchFilterRequest.getAfter(), searchFilterRequest.getCountPolicy());
     }
 }
@@ -2,15 +2,26 @@ package com.mjc.school.service.filter.mapper;
 
 import com.mjc.school.repository.filter.sorting.SortOrder;
 import com.mjc.school.repository.filter.sorting.Sorting;
+import com.mjc.school.repository.filter.specification.SearchCriteria;
+import com.mjc.school.repository.filter.specification.SearchOperation;
+import com.mjc.school.repository.search.NewsTextIndex;
+import com.mjc.school.repository.search.TextMatch;
 import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
 import com.mjc.school.service.filter.ResourceSearchFilter;
 import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
 
 import java.util.List;
 
 @Component
 public class NewsSearchFilterMapper extends BaseSearchFilterMapper<ResourceSearchFilterRequestDTO> {
 
+    private final NewsTextIndex newsTextIndex;
+
+    public NewsSearchFilterMapper(final NewsTextIndex newsTextIndex) {
+        this.newsTextIndex = newsTextIndex;
+    }
+
     @Override
     public List<Sorting> getDefaultSorting() {
         return List.of(
@@ -21,7 +32,24 @@ public class NewsSearchFilterMapper extends BaseSearchFilterMapper<ResourceSearc
 
     @Override
     public ResourceSearchFilter map(ResourceSearchFilterRequestDTO searchFilterRequest) {
-        return createResourceSearchFilter(searchFilterRequest.getPage(), searchFilterRequest.getPageSize(), searchFilterRequest.getSortByAndOrder(), searchFilterRequest.getSearchFilter());
+        ResourceSearchFilter searchFilter = createResourceSearchFilter(searchFilterRequest.getPage(), searchFilterRequest.getPageSize(), searchFilterRequest.getSortByAndOrder(), searchFilterRequest.getSearchFilter(), searchFilterRequest.getAfter(), searchFilterRequest.getCountPolicy());
+        // a full-text search without a sorting of its own lists the best matches first
+        if (CollectionUtils.isEmpty(searchFilterRequest.getSortByAndOrder()) && searchFilter.getSearchCriteriaList().stream()
+                .anyMatch(criteria -> criteria.getValue() instanceof TextMatch)) {
+            return new ResourceSearchFilter(searchFilter.getPagination(), List.of(new Sorting(Sorting.RELEVANCE, SortOrder.ASC)),
+                    searchFilter.getSearchCriteriaList(), searchFilter.getAfter(), searchFilter.getCountPolicy());
+        }
+        return searchFilter;
+    }
+
+    // title:match:elections becomes the ids of the best matching news, which the query reads like any other filter
+    @Override
+    protected SearchCriteria resolveSearchCriteria(final SearchCriteria searchCriteria) {
+        if (SearchOperation.MATCH.equals(searchCriteria.getOperation()) && newsTextIndex.isIndexed(searchCriteria.getField())) {
+            return new SearchCriteria(searchCriteria.getPredicate(), searchCriteria.getField(), SearchOperation.MATCH,
+                    newsTextIndex.match(searchCriteria.getField(), searchCriteria.getValue().toString()));
+        }
+        return super.resolveSearchCriteria(searchCriteria);
     }
 
 }
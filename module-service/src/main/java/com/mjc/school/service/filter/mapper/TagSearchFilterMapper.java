@@ -18,7 +18,7 @@ public class TagSearchFilterMapper extends BaseSearchFilterMapper<ResourceSearch
 
     @Override
     public ResourceSearchFilter map(ResourceSearchFilterRequestDTO searchFilterRequest) {
-        return createResourceSearchFilter(searchFilterRequest.getPage(), searchFilterRequest.getPageSize(), searchFilterRequest.getSortByAndOrder(), searchFilterRequest.getSearchFilter());
+        return createResourceSearchFilter(searchFilterRequest.getPage(), searchFilterRequest.getPageSize(), searchFilterRequest.getSortByAndOrder(), searchFilterRequest.getSearchFilter(), searchFilterRequest.getAfter(), searchFilterRequest.getCountPolicy());
     }
 
 }
@@ -2,16 +2,26 @@ package com.mjc.school.service.impl;
 
 import com.mjc.school.repository.exception.EntityConflictRepositoryException;
 import com.mjc.school.repository.filter.pagination.Page;
+import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
 import com.mjc.school.repository.impl.AuthorRepository;
 import com.mjc.school.repository.model.Author;
+import com.mjc.school.repository.projection.AuthorProjection;
+import com.mjc.school.repository.projection.EntityVersion;
 import com.mjc.school.service.BaseService;
+import com.mjc.school.service.bulk.BulkWriter;
 import com.mjc.school.service.dto.AuthorDtoRequest;
 import com.mjc.school.service.dto.AuthorDtoResponse;
+import com.mjc.school.service.dto.BulkResponseDto;
 import com.mjc.school.service.dto.PageDtoResponse;
 import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
+import com.mjc.school.service.dto.ResourceVersionDto;
+import com.mjc.school.service.event.ChangesResources;
 import com.mjc.school.service.exceptions.NotFoundException;
 import com.mjc.school.service.exceptions.ResourceConflictServiceException;
+import com.mjc.school.service.export.ResourceExport;
+import com.mjc.school.service.export.ResourceExporter;
 import com.mjc.school.service.filter.ResourceSearchFilter;
+import com.mjc.school.service.filter.SparseFieldset;
 import com.mjc.school.service.filter.mapper.AuthorSearchFilterMapper;
 import com.mjc.school.service.mapper.AuthorMapper;
 import com.mjc.school.service.validator.Valid;
@@ -19,32 +29,63 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static com.mjc.school.service.bulk.BulkWriter.CREATED;
+import static com.mjc.school.service.bulk.BulkWriter.NO_CONTENT;
+import static com.mjc.school.service.event.ResourceType.*;
 import static com.mjc.school.service.exceptions.ServiceErrorCode.*;
+import static com.mjc.school.service.export.ResourceExporter.EXPORT_FETCH_SIZE;
 
 @Service
 public class AuthorService
     implements BaseService<AuthorDtoRequest, AuthorDtoResponse, Long, ResourceSearchFilterRequestDTO, AuthorDtoRequest> {
 
+    private static final Map<String, List<String>> AUTHOR_FIELDS = SparseFieldset.sameNamedComponents("id", "name", "createdDate", "lastUpdatedDate", "newsCount");
+
     private final AuthorRepository authorRepository;
     private final AuthorMapper mapper;
     private final AuthorSearchFilterMapper authorSearchFilterMapper;
+    private final ResourceExporter resourceExporter;
+    private final BulkWriter bulkWriter;
 
     @Autowired
-    public AuthorService(AuthorRepository authorRepository, AuthorMapper mapper, AuthorSearchFilterMapper authorSearchFilterMapper) {
+    public AuthorService(AuthorRepository authorRepository, AuthorMapper mapper, AuthorSearchFilterMapper authorSearchFilterMapper,
+                         ResourceExporter resourceExporter, BulkWriter bulkWriter) {
         this.authorRepository = authorRepository;
         this.mapper = mapper;
         this.authorSearchFilterMapper = authorSearchFilterMapper;
+        this.resourceExporter = resourceExporter;
+        this.bulkWriter = bulkWriter;
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageDtoResponse<AuthorDtoResponse> readAll(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
         final ResourceSearchFilter searchFilter = authorSearchFilterMapper.map(searchFilterRequest);
-        final Page page = authorRepository.readAll(getEntitySearchSpecification(searchFilter));
-        final List<AuthorDtoResponse> modelDtoList = mapper.modelListToDtoList(page.entities());
-        return new PageDtoResponse<>(modelDtoList, page.currentPage(), page.pageCount());
+        final SparseFieldset fieldset = SparseFieldset.of(searchFilterRequest.getFields(), AUTHOR_FIELDS);
+        final Page<AuthorProjection> page = readPage(() -> authorRepository.readAll(getEntitySearchSpecification(searchFilter),
+            fieldset.select(AuthorProjection.PROJECTION)));
+        final List<AuthorDtoResponse> modelDtoList = mapper.projectionListToDtoList(page.entities());
+        return new PageDtoResponse<>(modelDtoList, page.currentPage(), page.pageCount(), page.nextCursor());
+    }
+
+    @Override
+    public ResourceExport<AuthorDtoResponse> exportAll(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
+        final ResourceSearchFilter searchFilter = authorSearchFilterMapper.map(searchFilterRequest);
+        final SparseFieldset fieldset = SparseFieldset.of(searchFilterRequest.getFields(), AUTHOR_FIELDS);
+        final EntitySearchSpecification specification = getEntitySearchSpecification(searchFilter);
+        return resourceExporter.export(consumer -> {
+            try (Stream<AuthorProjection> projections = authorRepository.streamAll(specification,
+                fieldset.select(AuthorProjection.PROJECTION), EXPORT_FETCH_SIZE)) {
+                projections.map(mapper::projectionToDto).forEach(consumer);
+            }
+        });
     }
 
     @Override
@@ -62,8 +103,35 @@ public class AuthorService
             );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public AuthorDtoResponse readById(Long id, List<String> fields) {
+        final SparseFieldset fieldset = SparseFieldset.of(fields, AUTHOR_FIELDS);
+        if (fieldset.isAll()) {
+            return readById(id);
+        }
+        return authorRepository.readById(id, fieldset.select(AuthorProjection.PROJECTION))
+            .map(mapper::projectionToDto)
+            .orElseThrow(() -> new NotFoundException(String.format(AUTHOR_ID_DOES_NOT_EXIST.getMessage(), id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersionDto> readVersion(Long id) {
+        return authorRepository.readVersion(id).map(version -> new ResourceVersionDto(version.lastModified(), version.fingerprint()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersionDto> readListVersion(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
+        final ResourceSearchFilter searchFilter = authorSearchFilterMapper.map(searchFilterRequest);
+        final EntityVersion version = authorRepository.readVersion(getEntitySearchSpecification(searchFilter));
+        return Optional.of(new ResourceVersionDto(version.lastModified(), version.fingerprint()));
+    }
+
     @Override
     @Transactional
+    @ChangesResources(AUTHOR)
     public AuthorDtoResponse create(@Valid AuthorDtoRequest createRequest) {
         try {
             Author model = mapper.dtoToModel(createRequest);
@@ -76,6 +144,7 @@ public class AuthorService
 
     @Override
     @Transactional
+    @ChangesResources(AUTHOR)
     public AuthorDtoResponse update(Long id, @Valid AuthorDtoRequest updateRequest) {
         if (authorRepository.existById(id)) {
             Author model = mapper.dtoToModel(updateRequest);
@@ -89,6 +158,7 @@ public class AuthorService
 
     @Override
     @Transactional
+    @ChangesResources({AUTHOR, NEWS})
     public void deleteById(Long id) {
         if (authorRepository.existById(id)) {
             authorRepository.deleteById(id);
@@ -97,6 +167,34 @@ public class AuthorService
         }
     }
 
+    @Override
+    @ChangesResources(AUTHOR)
+    public BulkResponseDto<AuthorDtoResponse> createAll(List<AuthorDtoRequest> createRequests) {
+        return bulkWriter.write(createRequests, CREATED, chunk -> {
+            try {
+                List<Author> models = authorRepository.createAll(chunk.stream().map(mapper::dtoToModel).toList());
+                return mapper.modelListToDtoList(models);
+            } catch (EntityConflictRepositoryException exc) {
+                throw new ResourceConflictServiceException(AUTHOR_CONFLICT.getMessage(), AUTHOR_CONFLICT.getErrorCode(), exc.getMessage());
+            }
+        });
+    }
+
+    @Override
+    @ChangesResources({AUTHOR, NEWS})
+    public BulkResponseDto<Void> deleteAll(List<Long> ids) {
+        return bulkWriter.write(ids, NO_CONTENT, chunk -> {
+            Set<Long> existingIds = authorRepository.readExistingIds(chunk);
+            for (Long id : chunk) {
+                if (!existingIds.contains(id)) {
+                    throw new NotFoundException(String.format(AUTHOR_ID_DOES_NOT_EXIST.getMessage(), id));
+                }
+            }
+            chunk.forEach(authorRepository::deleteById);
+            return Collections.nCopies(chunk.size(), null);
+        });
+    }
+
     public AuthorDtoResponse readByNewsId(Long newsId) {
         return authorRepository.readByNewsId(newsId)
             .map(mapper::modelToDto)
@@ -1,18 +1,30 @@
 package com.mjc.school.service.impl;
 
 import com.mjc.school.repository.exception.EntityConflictRepositoryException;
+import com.mjc.school.repository.filter.pagination.KeysetCursor;
 import com.mjc.school.repository.filter.pagination.Page;
+import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
 import com.mjc.school.repository.impl.CommentRepository;
 import com.mjc.school.repository.impl.NewsRepository;
 import com.mjc.school.repository.model.Comment;
+import com.mjc.school.repository.projection.CommentProjection;
+import com.mjc.school.repository.projection.EntityVersion;
 import com.mjc.school.service.BaseService;
+import com.mjc.school.service.bulk.BulkWriter;
+import com.mjc.school.service.dto.BulkResponseDto;
 import com.mjc.school.service.dto.CommentsDtoRequest;
 import com.mjc.school.service.dto.CommentsDtoResponse;
 import com.mjc.school.service.dto.PageDtoResponse;
 import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
+import com.mjc.school.service.dto.ResourceVersionDto;
+import com.mjc.school.service.event.ChangesResources;
 import com.mjc.school.service.exceptions.NotFoundException;
 import com.mjc.school.service.exceptions.ResourceConflictServiceException;
+import com.mjc.school.service.exceptions.ValidatorException;
+import com.mjc.school.service.export.ResourceExport;
+import com.mjc.school.service.export.ResourceExporter;
 import com.mjc.school.service.filter.ResourceSearchFilter;
+import com.mjc.school.service.filter.SparseFieldset;
 import com.mjc.school.service.filter.mapper.BaseSearchFilterMapper;
 import com.mjc.school.service.mapper.CommentMapper;
 import com.mjc.school.service.validator.Valid;
@@ -20,37 +32,70 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.mjc.school.service.bulk.BulkWriter.CREATED;
+import static com.mjc.school.service.bulk.BulkWriter.NO_CONTENT;
+import static com.mjc.school.service.event.ResourceType.*;
 import static com.mjc.school.service.exceptions.ServiceErrorCode.*;
+import static com.mjc.school.service.export.ResourceExporter.EXPORT_FETCH_SIZE;
 
 @Service
 public class CommentService
     implements BaseService<CommentsDtoRequest, CommentsDtoResponse, Long, ResourceSearchFilterRequestDTO, CommentsDtoRequest> {
 
+    private static final Map<String, List<String>> COMMENT_FIELDS = SparseFieldset.sameNamedComponents("id", "content", "newsId", "createdDate", "lastUpdatedDate");
+
     private final CommentRepository commentRepository;
     private final NewsRepository newsRepository;
     private final CommentMapper mapper;
     private final BaseSearchFilterMapper commentsSearchFilterMapper;
+    private final ResourceExporter resourceExporter;
+    private final BulkWriter bulkWriter;
 
     @Autowired
     public CommentService(CommentRepository commentRepository,
                           NewsRepository newsRepository,
                           CommentMapper mapper,
-                          BaseSearchFilterMapper commentsSearchFilterMapper) {
+                          BaseSearchFilterMapper commentsSearchFilterMapper,
+                          ResourceExporter resourceExporter,
+                          BulkWriter bulkWriter) {
         this.commentRepository = commentRepository;
         this.newsRepository = newsRepository;
         this.mapper = mapper;
         this.commentsSearchFilterMapper = commentsSearchFilterMapper;
+        this.resourceExporter = resourceExporter;
+        this.bulkWriter = bulkWriter;
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageDtoResponse<CommentsDtoResponse> readAll(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
         final ResourceSearchFilter searchFilter = commentsSearchFilterMapper.map(searchFilterRequest);
-        final Page page = commentRepository.readAll(getEntitySearchSpecification(searchFilter));
-        final List<CommentsDtoResponse> modelDtoList = mapper.modelListToDtoList(page.entities());
-        return new PageDtoResponse<>(modelDtoList, page.currentPage(), page.pageCount());
+        final SparseFieldset fieldset = SparseFieldset.of(searchFilterRequest.getFields(), COMMENT_FIELDS);
+        final Page<CommentProjection> page = readPage(() -> commentRepository.readAll(getEntitySearchSpecification(searchFilter),
+            fieldset.select(CommentProjection.PROJECTION)));
+        final List<CommentsDtoResponse> modelDtoList = mapper.projectionListToDtoList(page.entities());
+        return new PageDtoResponse<>(modelDtoList, page.currentPage(), page.pageCount(), page.nextCursor());
+    }
+
+    @Override
+    public ResourceExport<CommentsDtoResponse> exportAll(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
+        final ResourceSearchFilter searchFilter = commentsSearchFilterMapper.map(searchFilterRequest);
+        final SparseFieldset fieldset = SparseFieldset.of(searchFilterRequest.getFields(), COMMENT_FIELDS);
+        final EntitySearchSpecification specification = getEntitySearchSpecification(searchFilter);
+        return resourceExporter.export(consumer -> {
+            try (Stream<CommentProjection> projections = commentRepository.streamAll(specification,
+                fieldset.select(CommentProjection.PROJECTION), EXPORT_FETCH_SIZE)) {
+                projections.map(mapper::projectionToDto).forEach(consumer);
+            }
+        });
     }
 
     @Override
@@ -68,8 +113,35 @@ public class CommentService
                 );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CommentsDtoResponse readById(Long id, List<String> fields) {
+        final SparseFieldset fieldset = SparseFieldset.of(fields, COMMENT_FIELDS);
+        if (fieldset.isAll()) {
+            return readById(id);
+        }
+        return commentRepository.readById(id, fieldset.select(CommentProjection.PROJECTION))
+            .map(mapper::projectionToDto)
+            .orElseThrow(() -> new NotFoundException(String.format(COMMENT_ID_DOES_NOT_EXIST.getMessage(), id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersionDto> readVersion(Long id) {
+        return commentRepository.readVersion(id).map(version -> new ResourceVersionDto(version.lastModified(), version.fingerprint()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersionDto> readListVersion(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
+        final ResourceSearchFilter searchFilter = commentsSearchFilterMapper.map(searchFilterRequest);
+        final EntityVersion version = commentRepository.readVersion(getEntitySearchSpecification(searchFilter));
+        return Optional.of(new ResourceVersionDto(version.lastModified(), version.fingerprint()));
+    }
+
     @Override
     @Transactional
+    @ChangesResources(COMMENT)
     public CommentsDtoResponse create(@Valid CommentsDtoRequest createRequest) {
         if (!newsRepository.existById(createRequest.newsId())) {
             throw new NotFoundException(String.format(NEWS_ID_DOES_NOT_EXIST.getMessage(), createRequest.newsId()));
@@ -77,6 +149,7 @@ public class CommentService
         try {
             Comment model = mapper.dtoToModel(createRequest);
             model = commentRepository.create(model);
+            newsRepository.adjustCommentCounts(Map.of(createRequest.newsId(), 1L));
             return mapper.modelToDto(model);
         } catch (EntityConflictRepositoryException exc) {
             throw new ResourceConflictServiceException(COMMENT_CONFLICT.getMessage(), COMMENT_CONFLICT.getErrorCode(), exc.getMessage());
@@ -85,6 +158,7 @@ public class CommentService
 
     @Override
     @Transactional
+    @ChangesResources(COMMENT)
     public CommentsDtoResponse update(Long id, @Valid CommentsDtoRequest updateRequest) {
         if (commentRepository.existById(id)) {
             Comment model = mapper.dtoToModel(updateRequest);
@@ -98,16 +172,91 @@ public class CommentService
 
     @Override
     @Transactional
+    @ChangesResources(COMMENT)
     public void deleteById(Long id) {
         if (commentRepository.existById(id)) {
-            commentRepository.deleteById(id);
+            deleteWithCounts(List.of(id));
         } else {
             throw new NotFoundException(String.format(COMMENT_ID_DOES_NOT_EXIST.getMessage(), id));
         }
     }
 
+    @Override
+    @ChangesResources(COMMENT)
+    public BulkResponseDto<CommentsDtoResponse> createAll(List<CommentsDtoRequest> createRequests) {
+        return bulkWriter.write(createRequests, CREATED, chunk -> {
+            Set<Long> existingNewsIds = newsRepository.readExistingIds(
+                chunk.stream().map(CommentsDtoRequest::newsId).collect(Collectors.toSet()));
+            for (CommentsDtoRequest createRequest : chunk) {
+                if (!existingNewsIds.contains(createRequest.newsId())) {
+                    throw new NotFoundException(String.format(NEWS_ID_DOES_NOT_EXIST.getMessage(), createRequest.newsId()));
+                }
+            }
+            try {
+                List<Comment> models = commentRepository.createAll(chunk.stream().map(mapper::dtoToModel).toList());
+                newsRepository.adjustCommentCounts(chunk.stream()
+                    .collect(Collectors.groupingBy(CommentsDtoRequest::newsId, Collectors.counting())));
+                return mapper.modelListToDtoList(models);
+            } catch (EntityConflictRepositoryException exc) {
+                throw new ResourceConflictServiceException(COMMENT_CONFLICT.getMessage(), COMMENT_CONFLICT.getErrorCode(), exc.getMessage());
+            }
+        });
+    }
+
+    @Override
+    @ChangesResources(COMMENT)
+    public BulkResponseDto<Void> deleteAll(List<Long> ids) {
+        return bulkWriter.write(ids, NO_CONTENT, chunk -> {
+            Set<Long> existingIds = commentRepository.readExistingIds(chunk);
+            for (Long id : chunk) {
+                if (!existingIds.contains(id)) {
+                    throw new NotFoundException(String.format(COMMENT_ID_DOES_NOT_EXIST.getMessage(), id));
+                }
+            }
+            deleteWithCounts(chunk);
+            return Collections.nCopies(chunk.size(), null);
+        });
+    }
+
+    // the comment counts of their news go down in the transaction that removes the comments
+    private void deleteWithCounts(List<Long> ids) {
+        Map<Long, Long> deletedPerNewsId = commentRepository.countPerNewsId(ids);
+        ids.forEach(commentRepository::deleteById);
+        newsRepository.adjustCommentCounts(deletedPerNewsId.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, deleted -> -deleted.getValue())));
+    }
+
+    // keyset pages in id order: an offset would make the client wait longer the deeper it reads into a long discussion
     @Transactional(readOnly = true)
-    public List<CommentsDtoResponse> readByNewsId(Long newsId) {
-        return mapper.modelListToDtoList(commentRepository.readByNewsId(newsId));
+    public PageDtoResponse<CommentsDtoResponse> readByNewsId(Long newsId, @Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
+        if (!newsRepository.existById(newsId)) {
+            throw new NotFoundException(String.format(NEWS_ID_DOES_NOT_EXIST.getMessage(), newsId));
+        }
+        final ResourceSearchFilter searchFilter = commentsSearchFilterMapper.map(searchFilterRequest);
+        final int pageSize = searchFilter.getPagination().pageSize();
+        // one comment more than the page tells whether there is a next one
+        List<CommentProjection> comments = commentRepository.readProjectionsByNewsId(
+            newsId, getCommentIdCursor(searchFilter.getAfter()), pageSize + 1);
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            nextCursor = new KeysetCursor(List.of(String.valueOf(comments.get(pageSize - 1).id()))).encode();
+        }
+        return new PageDtoResponse<>(mapper.projectionListToDtoList(comments), searchFilterRequest.getPage(), null, nextCursor);
+    }
+
+    private Long getCommentIdCursor(KeysetCursor after) {
+        if (after == null) {
+            return null;
+        }
+        try {
+            if (after.values().size() == 1 && after.values().get(0) != null) {
+                return Long.valueOf(after.values().get(0));
+            }
+        } catch (NumberFormatException exc) {
+            // reported below like any other cursor that is not a comment id
+        }
+        throw new ValidatorException(String.format(VALIDATION.getMessage(),
+            String.format("Cursor '%s' is not a position in the comments of a news.", after.encode())));
     }
 }
@@ -2,17 +2,29 @@ package com.mjc.school.service.impl;
 
 import com.mjc.school.repository.exception.EntityConflictRepositoryException;
 import com.mjc.school.repository.filter.pagination.Page;
+import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
 import com.mjc.school.repository.impl.AuthorRepository;
+import com.mjc.school.repository.impl.CommentRepository;
 import com.mjc.school.repository.impl.NewsRepository;
 import com.mjc.school.repository.impl.TagRepository;
 import com.mjc.school.repository.model.Author;
 import com.mjc.school.repository.model.News;
 import com.mjc.school.repository.model.Tag;
+import com.mjc.school.repository.projection.EntityVersion;
+import com.mjc.school.repository.projection.NewsProjection;
+import com.mjc.school.repository.search.NewsTextIndex;
+import com.mjc.school.repository.search.TextMatch;
 import com.mjc.school.service.BaseService;
+import com.mjc.school.service.bulk.BulkWriter;
 import com.mjc.school.service.dto.*;
+import com.mjc.school.service.event.ChangesResources;
 import com.mjc.school.service.exceptions.NotFoundException;
 import com.mjc.school.service.exceptions.ResourceConflictServiceException;
+import com.mjc.school.service.exceptions.ValidatorException;
+import com.mjc.school.service.export.ResourceExport;
+import com.mjc.school.service.export.ResourceExporter;
 import com.mjc.school.service.filter.ResourceSearchFilter;
+import com.mjc.school.service.filter.SparseFieldset;
 import com.mjc.school.service.filter.mapper.NewsSearchFilterMapper;
 import com.mjc.school.service.mapper.NewsMapper;
 import com.mjc.school.service.validator.Valid;
@@ -20,54 +32,126 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static com.mjc.school.repository.impl.NewsRepository.NEWS_DETAILS_FETCH_PLAN;
+import static com.mjc.school.service.bulk.BulkWriter.CREATED;
+import static com.mjc.school.service.bulk.BulkWriter.NO_CONTENT;
+import static com.mjc.school.service.event.ResourceType.*;
 import static com.mjc.school.service.exceptions.ServiceErrorCode.NEWS_CONFLICT;
 import static com.mjc.school.service.exceptions.ServiceErrorCode.NEWS_ID_DOES_NOT_EXIST;
+import static com.mjc.school.service.exceptions.ServiceErrorCode.VALIDATION;
+import static com.mjc.school.service.export.ResourceExporter.EXPORT_FETCH_SIZE;
 
 
 @Service
 public class NewsService
     implements BaseService<CreateNewsDtoRequest, NewsDtoResponse, Long, ResourceSearchFilterRequestDTO, UpdateNewsDtoRequest> {
 
+    private static final String TAGS_FIELD = "tagsDto";
+    private static final String COMMENTS_FIELD = "commentsDto";
+    // a news embeds its first comments only, all of them are paged through CommentService.readByNewsId
+    static final int EMBEDDED_COMMENTS_LIMIT = 10;
+    // the collections have no columns of their own, they are read by news ids
+    private static final Map<String, List<String>> NEWS_FIELDS = Map.of(
+        "id", List.of("id"),
+        "title", List.of("title"),
+        "content", List.of("content"),
+        "createdDate", List.of("createdDate"),
+        "lastUpdatedDate", List.of("lastUpdatedDate"),
+        "commentCount", List.of("commentCount"),
+        "authorDto", List.of("authorId", "authorName", "authorCreatedDate", "authorLastUpdatedDate", "authorNewsCount"),
+        TAGS_FIELD, List.of(),
+        COMMENTS_FIELD, List.of());
+
     private final NewsRepository newsRepository;
     private final AuthorRepository authorRepository;
     private final TagRepository tagRepository;
-
+    private final CommentRepository commentRepository;
+    private final NewsTextIndex newsTextIndex;
 
     private final NewsMapper mapper;
     private final NewsSearchFilterMapper newsSearchFilterMapper;
+    private final ResourceExporter resourceExporter;
+    private final BulkWriter bulkWriter;
 
     @Autowired
     public NewsService(
         final NewsRepository newsRepository,
         final AuthorRepository authorRepository,
         final TagRepository tagRepository,
+        final CommentRepository commentRepository,
+        final NewsTextIndex newsTextIndex,
         final NewsMapper mapper,
-        final NewsSearchFilterMapper newsSearchFilterMapper
+        final NewsSearchFilterMapper newsSearchFilterMapper,
+        final ResourceExporter resourceExporter,
+        final BulkWriter bulkWriter
     ) {
         this.newsRepository = newsRepository;
         this.authorRepository = authorRepository;
         this.tagRepository = tagRepository;
+        this.commentRepository = commentRepository;
+        this.newsTextIndex = newsTextIndex;
         this.mapper = mapper;
         this.newsSearchFilterMapper = newsSearchFilterMapper;
+        this.resourceExporter = resourceExporter;
+        this.bulkWriter = bulkWriter;
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageDtoResponse<NewsDtoResponse> readAll(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
         final ResourceSearchFilter searchFilter = newsSearchFilterMapper.map(searchFilterRequest);
-        Page page = newsRepository.readAll(getEntitySearchSpecification(searchFilter));
-        List<NewsDtoResponse> modelDtoList = mapper.modelListToDtoList(page.entities());
-        return new PageDtoResponse<>(modelDtoList, page.currentPage(), page.pageCount());
+        final SparseFieldset fieldset = SparseFieldset.of(searchFilterRequest.getFields(), NEWS_FIELDS);
+        Page<NewsProjection> page = readPage(() -> newsRepository.readAll(getEntitySearchSpecification(searchFilter),
+            fieldset.select(NewsProjection.PROJECTION)));
+        List<NewsDtoResponse> modelDtoList = projectionListToDtoList(page.entities(), fieldset);
+        PageDtoResponse<NewsDtoResponse> response = new PageDtoResponse<>(modelDtoList, page.currentPage(), page.pageCount(), page.nextCursor());
+        // the pages of a full-text search only cover the best matches, the count does not tell the others
+        if (searchFilter.getSearchCriteriaList().stream()
+                .anyMatch(criteria -> criteria.getValue() instanceof TextMatch match && match.truncated())) {
+            response.setTruncated(true);
+        }
+        return response;
+    }
+
+    @Override
+    public ResourceExport<NewsDtoResponse> exportAll(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
+        final ResourceSearchFilter searchFilter = newsSearchFilterMapper.map(searchFilterRequest);
+        final SparseFieldset fieldset = SparseFieldset.of(searchFilterRequest.getFields(), NEWS_FIELDS);
+        final EntitySearchSpecification specification = getEntitySearchSpecification(searchFilter);
+        return resourceExporter.export(consumer -> {
+            try (Stream<NewsProjection> projections = newsRepository.streamAll(specification,
+                fieldset.select(NewsProjection.PROJECTION), EXPORT_FETCH_SIZE)) {
+                // tags and comments are read for a batch of news at a time, as for a page
+                List<NewsProjection> batch = new ArrayList<>(EXPORT_FETCH_SIZE);
+                Iterator<NewsProjection> iterator = projections.iterator();
+                while (iterator.hasNext()) {
+                    batch.add(iterator.next());
+                    if (batch.size() == EXPORT_FETCH_SIZE || !iterator.hasNext()) {
+                        projectionListToDtoList(batch, fieldset).forEach(consumer);
+                        batch.clear();
+                    }
+                }
+            }
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
     public NewsDtoResponse readById(final Long id) {
-        return newsRepository.readById(id)
+        return newsRepository.readById(id, NEWS_DETAILS_FETCH_PLAN)
             .map(mapper::modelToDto)
+            .map(this::embedFirstComments)
             .orElseThrow(
                 () -> new NotFoundException(
                     String.format(
@@ -78,14 +162,60 @@ public class NewsService
             );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public NewsDtoResponse readById(final Long id, final List<String> fields) {
+        final SparseFieldset fieldset = SparseFieldset.of(fields, NEWS_FIELDS);
+        if (fieldset.isAll()) {
+            return readById(id);
+        }
+        NewsProjection projection = newsRepository.readById(id, fieldset.select(NewsProjection.PROJECTION))
+            .orElseThrow(() -> new NotFoundException(String.format(NEWS_ID_DOES_NOT_EXIST.getMessage(), id)));
+        return projectionListToDtoList(List.of(projection), fieldset).get(0);
+    }
+
+    // collections of the whole page are read with one query each instead of one per news, and only when asked for
+    private List<NewsDtoResponse> projectionListToDtoList(List<NewsProjection> projections, SparseFieldset fieldset) {
+        List<Long> newsIds = projections.stream().map(NewsProjection::id).toList();
+        return mapper.projectionListToDtoList(projections,
+            fieldset.includes(TAGS_FIELD) ? tagRepository.readProjectionsByNewsIds(newsIds) : null,
+            fieldset.includes(COMMENTS_FIELD)
+                ? commentRepository.readProjectionsByNewsIds(newsIds, EMBEDDED_COMMENTS_LIMIT) : null);
+    }
+
+    private NewsDtoResponse embedFirstComments(NewsDtoResponse dto) {
+        dto.setCommentsDto(mapper.commentProjectionListToDtoList(commentRepository
+            .readProjectionsByNewsIds(List.of(dto.getId()), EMBEDDED_COMMENTS_LIMIT)
+            .getOrDefault(dto.getId(), List.of())));
+        return dto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersionDto> readVersion(final Long id) {
+        return newsRepository.readVersion(id).map(version -> new ResourceVersionDto(version.lastModified(), version.fingerprint()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersionDto> readListVersion(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
+        final ResourceSearchFilter searchFilter = newsSearchFilterMapper.map(searchFilterRequest);
+        final EntityVersion version = newsRepository.readVersion(getEntitySearchSpecification(searchFilter));
+        return Optional.of(new ResourceVersionDto(version.lastModified(), version.fingerprint()));
+    }
+
     @Override
     @Transactional
+    @ChangesResources({NEWS, AUTHOR, TAG})
     public NewsDtoResponse create(@Valid CreateNewsDtoRequest createRequest) {
         createNonExistentAuthor(createRequest.author());
-        createNonExistentTags(createRequest.tags());
+        Map<String, Tag> tags = tagRepository.readOrCreateByNames(createRequest.tags());
         try {
             News model = mapper.dtoToModel(createRequest);
+            model.setTags(new ArrayList<>(tags.values()));
             model = newsRepository.create(model);
+            new NewsCountChanges().add(model, 1).apply();
+            newsTextIndex.indexAfterCommit(model);
             return mapper.modelToDto(model);
         } catch (EntityConflictRepositoryException exc) {
             throw new ResourceConflictServiceException(NEWS_CONFLICT.getMessage(), NEWS_CONFLICT.getErrorCode(), exc.getMessage());
@@ -94,38 +224,121 @@ public class NewsService
 
 @Override
 @Transactional
+@ChangesResources({NEWS, AUTHOR, TAG})
 public NewsDtoResponse update(Long id, UpdateNewsDtoRequest updateRequest) {
-    if (!newsRepository.existById(id)) {
-        throw new NotFoundException(String.format(
+    News previous = newsRepository.readById(id, NEWS_DETAILS_FETCH_PLAN)
+            .orElseThrow(() -> new NotFoundException(String.format(
                 NEWS_ID_DOES_NOT_EXIST.getMessage(),
-                id));
-    }
+                id)));
+    // the managed news is changed in place, its author and tags are taken before
+    NewsCountChanges countChanges = new NewsCountChanges().add(previous, -1);
 
     createNonExistentAuthor(updateRequest.author());
     Author author = authorRepository.readByName(updateRequest.author())
             .orElseThrow(() -> new NotFoundException("Author not found"));
 
-    createNonExistentTags(updateRequest.tags());
-    List<Tag> tags = updateRequest.tags().stream()
-            .map(name -> tagRepository.readByName(name).orElseThrow())
-            .collect(Collectors.toList());
+    Map<String, Tag> tags = tagRepository.readOrCreateByNames(updateRequest.tags());
 
     News model = mapper.dtoToModel(updateRequest);
     model.setId(id);
     model.setAuthor(author);
-    model.setTags(tags);
+    model.setTags(new ArrayList<>(tags.values()));
 
     model = newsRepository.update(model);
-    return mapper.modelToDto(model);
+    countChanges.add(model, 1).apply();
+    newsTextIndex.indexAfterCommit(model);
+    return embedFirstComments(mapper.modelToDto(model));
 }
 
     @Override
     @Transactional
+    @ChangesResources({NEWS, AUTHOR, TAG, COMMENT})
     public void deleteById(Long id) {
-        if (newsRepository.existById(id)) {
-            newsRepository.deleteById(id);
-        } else {
-            throw new NotFoundException(String.format(NEWS_ID_DOES_NOT_EXIST.getMessage(), id));
+        News news = newsRepository.readById(id, NEWS_DETAILS_FETCH_PLAN)
+            .orElseThrow(() -> new NotFoundException(String.format(NEWS_ID_DOES_NOT_EXIST.getMessage(), id)));
+        NewsCountChanges countChanges = new NewsCountChanges().add(news, -1);
+        newsRepository.deleteById(id);
+        countChanges.apply();
+        newsTextIndex.removeAfterCommit(id);
+    }
+
+    @Override
+    @ChangesResources({NEWS, AUTHOR, TAG})
+    public BulkResponseDto<NewsDtoResponse> createAll(List<CreateNewsDtoRequest> createRequests) {
+        return bulkWriter.write(createRequests, CREATED, chunk -> {
+            for (CreateNewsDtoRequest createRequest : chunk) {
+                if (createRequest.author().isBlank()) {
+                    throw new ValidatorException(String.format(VALIDATION.getMessage(), "Author name must not be blank."));
+                }
+            }
+            try {
+                // one lookup, and one batched insert of the missing ones, for all the authors and tags of the chunk
+                Map<String, Author> authors = authorRepository.readOrCreateByNames(
+                    chunk.stream().map(CreateNewsDtoRequest::author).toList());
+                Map<String, Tag> tags = tagRepository.readOrCreateByNames(
+                    chunk.stream().flatMap(createRequest -> createRequest.tags().stream()).toList());
+                List<News> models = new ArrayList<>(chunk.size());
+                for (CreateNewsDtoRequest createRequest : chunk) {
+                    News model = mapper.dtoToModel(createRequest, authors.get(createRequest.author()));
+                    model.setTags(createRequest.tags().stream().distinct().map(tags::get)
+                        .collect(Collectors.toCollection(ArrayList::new)));
+                    models.add(model);
+                }
+                models = newsRepository.createAll(models);
+                NewsCountChanges countChanges = new NewsCountChanges();
+                models.forEach(model -> countChanges.add(model, 1));
+                countChanges.apply();
+                models.forEach(newsTextIndex::indexAfterCommit);
+                return mapper.modelListToDtoList(models);
+            } catch (EntityConflictRepositoryException exc) {
+                throw new ResourceConflictServiceException(NEWS_CONFLICT.getMessage(), NEWS_CONFLICT.getErrorCode(), exc.getMessage());
+            }
+        });
+    }
+
+    @Override
+    @ChangesResources({NEWS, AUTHOR, TAG, COMMENT})
+    public BulkResponseDto<Void> deleteAll(List<Long> ids) {
+        return bulkWriter.write(ids, NO_CONTENT, chunk -> {
+            // the news of the chunk with the authors and tags whose counts go down, in one read
+            Map<Long, News> existingNews = newsRepository.readByIds(chunk, NEWS_DETAILS_FETCH_PLAN).stream()
+                .collect(Collectors.toMap(News::getId, Function.identity()));
+            NewsCountChanges countChanges = new NewsCountChanges();
+            for (Long id : chunk) {
+                News news = existingNews.get(id);
+                if (news == null) {
+                    throw new NotFoundException(String.format(NEWS_ID_DOES_NOT_EXIST.getMessage(), id));
+                }
+                countChanges.add(news, -1);
+            }
+            chunk.forEach(newsRepository::deleteById);
+            countChanges.apply();
+            chunk.forEach(newsTextIndex::removeAfterCommit);
+            return Collections.nCopies(chunk.size(), null);
+        });
+    }
+
+    // news counts moved by one write, summed per author and tag so that the unchanged ones are not written
+    private final class NewsCountChanges {
+
+        private final Map<Author, Long> deltaByAuthor = new HashMap<>();
+        private final Map<Tag, Long> deltaByTag = new HashMap<>();
+
+        NewsCountChanges add(News news, long delta) {
+            if (news.getAuthor() != null) {
+                deltaByAuthor.merge(news.getAuthor(), delta, Long::sum);
+            }
+            if (news.getTags() != null) {
+                news.getTags().forEach(tag -> deltaByTag.merge(tag, delta, Long::sum));
+            }
+            return this;
+        }
+
+        void apply() {
+            deltaByAuthor.values().removeIf(delta -> delta == 0);
+            deltaByTag.values().removeIf(delta -> delta == 0);
+            authorRepository.adjustNewsCounts(deltaByAuthor);
+            tagRepository.adjustNewsCounts(deltaByTag);
         }
     }
 
@@ -138,15 +351,4 @@ public NewsDtoResponse update(Long id, UpdateNewsDtoRequest updateRequest) {
             }
         }
     }
-
-    private void createNonExistentTags(List<String> tagNames) {
-        tagNames.stream()
-            .filter(name -> tagRepository.readByName(name).isEmpty())
-            .map(name -> {
-                Tag tag = new Tag();
-                tag.setName(name);
-                return tag;
-            })
-            .forEach(tagRepository::create);
-    }
 }
@@ -2,16 +2,24 @@ package com.mjc.school.service.impl;
 
 import com.mjc.school.repository.exception.EntityConflictRepositoryException;
 import com.mjc.school.repository.filter.pagination.Page;
+import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
 import com.mjc.school.repository.impl.TagRepository;
 import com.mjc.school.repository.model.Tag;
+import com.mjc.school.repository.projection.TagProjection;
 import com.mjc.school.service.BaseService;
+import com.mjc.school.service.bulk.BulkWriter;
+import com.mjc.school.service.dto.BulkResponseDto;
 import com.mjc.school.service.dto.PageDtoResponse;
 import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
 import com.mjc.school.service.dto.TagDtoRequest;
 import com.mjc.school.service.dto.TagDtoResponse;
+import com.mjc.school.service.event.ChangesResources;
 import com.mjc.school.service.exceptions.NotFoundException;
 import com.mjc.school.service.exceptions.ResourceConflictServiceException;
+import com.mjc.school.service.export.ResourceExport;
+import com.mjc.school.service.export.ResourceExporter;
 import com.mjc.school.service.filter.ResourceSearchFilter;
+import com.mjc.school.service.filter.SparseFieldset;
 import com.mjc.school.service.filter.mapper.BaseSearchFilterMapper;
 import com.mjc.school.service.mapper.TagMapper;
 import com.mjc.school.service.validator.Valid;
@@ -19,33 +27,63 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static com.mjc.school.service.bulk.BulkWriter.CREATED;
+import static com.mjc.school.service.bulk.BulkWriter.NO_CONTENT;
+import static com.mjc.school.service.event.ResourceType.*;
 import static com.mjc.school.service.exceptions.ServiceErrorCode.TAG_CONFLICT;
 import static com.mjc.school.service.exceptions.ServiceErrorCode.TAG_ID_DOES_NOT_EXIST;
+import static com.mjc.school.service.export.ResourceExporter.EXPORT_FETCH_SIZE;
 
 @Service
 public class TagService implements
     BaseService<TagDtoRequest, TagDtoResponse, Long, ResourceSearchFilterRequestDTO, TagDtoRequest> {
 
+    private static final Map<String, List<String>> TAG_FIELDS = SparseFieldset.sameNamedComponents("id", "name", "newsCount");
+
     private final TagRepository tagRepository;
     private final TagMapper mapper;
     private final BaseSearchFilterMapper tagSearchFilterMapper;
+    private final ResourceExporter resourceExporter;
+    private final BulkWriter bulkWriter;
 
     @Autowired
-    public TagService(TagRepository tagRepository, TagMapper mapper, BaseSearchFilterMapper tagSearchFilterMapper) {
+    public TagService(TagRepository tagRepository, TagMapper mapper, BaseSearchFilterMapper tagSearchFilterMapper,
+                      ResourceExporter resourceExporter, BulkWriter bulkWriter) {
         this.tagRepository = tagRepository;
         this.mapper = mapper;
         this.tagSearchFilterMapper = tagSearchFilterMapper;
+        this.resourceExporter = resourceExporter;
+        this.bulkWriter = bulkWriter;
     }
 
     @Override
     @Transactional(readOnly = true)
     public PageDtoResponse<TagDtoResponse> readAll(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
         final ResourceSearchFilter searchFilter = tagSearchFilterMapper.map(searchFilterRequest);
-        final Page page = tagRepository.readAll(getEntitySearchSpecification(searchFilter));
-        final List<TagDtoResponse> modelDtoList = mapper.modelListToDtoList(page.entities());
-        return new PageDtoResponse<>(modelDtoList, page.currentPage(), page.pageCount());
+        final SparseFieldset fieldset = SparseFieldset.of(searchFilterRequest.getFields(), TAG_FIELDS);
+        final Page<TagProjection> page = readPage(() -> tagRepository.readAll(getEntitySearchSpecification(searchFilter),
+            fieldset.select(TagProjection.PROJECTION)));
+        final List<TagDtoResponse> modelDtoList = mapper.projectionListToDtoList(page.entities());
+        return new PageDtoResponse<>(modelDtoList, page.currentPage(), page.pageCount(), page.nextCursor());
+    }
+
+    @Override
+    public ResourceExport<TagDtoResponse> exportAll(@Valid ResourceSearchFilterRequestDTO searchFilterRequest) {
+        final ResourceSearchFilter searchFilter = tagSearchFilterMapper.map(searchFilterRequest);
+        final SparseFieldset fieldset = SparseFieldset.of(searchFilterRequest.getFields(), TAG_FIELDS);
+        final EntitySearchSpecification specification = getEntitySearchSpecification(searchFilter);
+        return resourceExporter.export(consumer -> {
+            try (Stream<TagProjection> projections = tagRepository.streamAll(specification,
+                fieldset.select(TagProjection.PROJECTION), EXPORT_FETCH_SIZE)) {
+                projections.map(mapper::projectionToDto).forEach(consumer);
+            }
+        });
     }
 
     @Override
@@ -63,8 +101,21 @@ public class TagService implements
             );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TagDtoResponse readById(Long id, List<String> fields) {
+        final SparseFieldset fieldset = SparseFieldset.of(fields, TAG_FIELDS);
+        if (fieldset.isAll()) {
+            return readById(id);
+        }
+        return tagRepository.readById(id, fieldset.select(TagProjection.PROJECTION))
+            .map(mapper::projectionToDto)
+            .orElseThrow(() -> new NotFoundException(String.format(TAG_ID_DOES_NOT_EXIST.getMessage(), id)));
+    }
+
     @Override
     @Transactional
+    @ChangesResources(TAG)
     public TagDtoResponse create(@Valid TagDtoRequest createRequest) {
         try {
             Tag model = mapper.dtoToModel(createRequest);
@@ -77,6 +128,7 @@ public class TagService implements
 
     @Override
     @Transactional
+    @ChangesResources(TAG)
     public TagDtoResponse update(Long id, @Valid TagDtoRequest updateRequest) {
         if (tagRepository.existById(id)) {
             Tag model = mapper.dtoToModel(updateRequest);
@@ -90,6 +142,7 @@ public class TagService implements
 
     @Override
     @Transactional
+    @ChangesResources({TAG, NEWS})
     public void deleteById(Long id) {
         if (tagRepository.existById(id)) {
             tagRepository.deleteById(id);
@@ -98,6 +151,34 @@ public class TagService implements
         }
     }
 
+    @Override
+    @ChangesResources(TAG)
+    public BulkResponseDto<TagDtoResponse> createAll(List<TagDtoRequest> createRequests) {
+        return bulkWriter.write(createRequests, CREATED, chunk -> {
+            try {
+                List<Tag> models = tagRepository.createAll(chunk.stream().map(mapper::dtoToModel).toList());
+                return mapper.modelListToDtoList(models);
+            } catch (EntityConflictRepositoryException exc) {
+                throw new ResourceConflictServiceException(TAG_CONFLICT.getMessage(), TAG_CONFLICT.getErrorCode(), exc.getMessage());
+            }
+        });
+    }
+
+    @Override
+    @ChangesResources({TAG, NEWS})
+    public BulkResponseDto<Void> deleteAll(List<Long> ids) {
+        return bulkWriter.write(ids, NO_CONTENT, chunk -> {
+            Set<Long> existingIds = tagRepository.readExistingIds(chunk);
+            for (Long id : chunk) {
+                if (!existingIds.contains(id)) {
+                    throw new NotFoundException(String.format(TAG_ID_DOES_NOT_EXIST.getMessage(), id));
+                }
+            }
+            chunk.forEach(tagRepository::deleteById);
+            return Collections.nCopies(chunk.size(), null);
+        });
+    }
+
     @Transactional(readOnly = true)
     public List<TagDtoResponse> readByNewsId(Long newsId) {
         return mapper.modelListToDtoList(tagRepository.readByNewsId(newsId));
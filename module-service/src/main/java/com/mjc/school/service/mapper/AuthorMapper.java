@@ -1,6 +1,7 @@
 package com.mjc.school.service.mapper;
 
 import com.mjc.school.repository.model.Author;
+import com.mjc.school.repository.projection.AuthorProjection;
 import com.mjc.school.service.dto.AuthorDtoRequest;
 import com.mjc.school.service.dto.AuthorDtoResponse;
 import org.mapstruct.Mapper;
@@ -18,9 +19,14 @@ public interface AuthorMapper {
 
     AuthorDtoResponse modelToDto(Author model);
 
+    List<AuthorDtoResponse> projectionListToDtoList(List<AuthorProjection> projectionList);
+
+    AuthorDtoResponse projectionToDto(AuthorProjection projection);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdDate", ignore = true)
     @Mapping(target = "lastUpdatedDate", ignore = true)
+    @Mapping(target = "newsCount", ignore = true)
     @Mapping(target = "news", ignore = true)
     Author dtoToModel(AuthorDtoRequest dto);
 }
@@ -2,6 +2,7 @@ package com.mjc.school.service.mapper;
 
 import com.mjc.school.repository.impl.NewsRepository;
 import com.mjc.school.repository.model.Comment;
+import com.mjc.school.repository.projection.CommentProjection;
 import com.mjc.school.service.dto.CommentsDtoForNewsResponse;
 import com.mjc.school.service.dto.CommentsDtoRequest;
 import com.mjc.school.service.dto.CommentsDtoResponse;
@@ -26,6 +27,12 @@ public abstract class CommentMapper {
 
     public abstract CommentsDtoForNewsResponse modelToDtoForNews(Comment model);
 
+    public abstract List<CommentsDtoResponse> projectionListToDtoList(List<CommentProjection> projectionList);
+
+    public abstract CommentsDtoResponse projectionToDto(CommentProjection projection);
+
+    public abstract CommentsDtoForNewsResponse projectionToDtoForNews(CommentProjection projection);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdDate", ignore = true)
     @Mapping(target = "lastUpdatedDate", ignore = true)
@@ -2,10 +2,13 @@ package com.mjc.school.service.mapper;
 
 import com.mjc.school.repository.BaseRepository;
 import com.mjc.school.repository.impl.AuthorRepository;
-import com.mjc.school.repository.impl.TagRepository;
 import com.mjc.school.repository.model.Author;
 import com.mjc.school.repository.model.Comment;
 import com.mjc.school.repository.model.News;
+import com.mjc.school.repository.projection.CommentProjection;
+import com.mjc.school.repository.projection.NewsProjection;
+import com.mjc.school.repository.projection.TagProjection;
+import com.mjc.school.service.dto.AuthorDtoResponse;
 import com.mjc.school.service.dto.CommentsDtoForNewsResponse;
 import com.mjc.school.service.dto.CreateNewsDtoRequest;
 import com.mjc.school.service.dto.NewsDtoResponse;
@@ -15,6 +18,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Primary
@@ -25,11 +29,11 @@ public abstract class NewsMapper {
     @Autowired
     protected AuthorRepository authorRepository;
     @Autowired
-    protected TagRepository tagRepository;
-    @Autowired
     protected BaseRepository<Comment, Long> commentsRepository;
     @Autowired
     protected CommentMapper commentMapper;
+    @Autowired
+    protected TagMapper tagMapper;
 
     public abstract List<NewsDtoResponse> modelListToDtoList(List<News> modelList);
 
@@ -38,20 +42,57 @@ public abstract class NewsMapper {
     @Mapping(target = "commentsDto", ignore = true)
     public abstract NewsDtoResponse modelToDto(News model);
 
+    @Mapping(target = "authorDto", ignore = true)
+    @Mapping(target = "tagsDto", ignore = true)
+    @Mapping(target = "commentsDto", ignore = true)
+    public abstract NewsDtoResponse projectionToDto(NewsProjection projection);
+
+    public List<NewsDtoResponse> projectionListToDtoList(List<NewsProjection> projectionList,
+        Map<Long, List<TagProjection>> tagsByNewsId, Map<Long, List<CommentProjection>> commentsByNewsId) {
+        // a null map means the collection was not asked for, it is then left out of the response
+        return projectionList.stream().map(projection -> {
+            NewsDtoResponse dto = projectionToDto(projection);
+            dto.setTagsDto(tagsByNewsId == null ? null
+                : tagMapper.projectionListToDtoList(tagsByNewsId.getOrDefault(projection.id(), List.of())));
+            dto.setCommentsDto(commentsByNewsId == null ? null
+                : commentProjectionListToDtoList(commentsByNewsId.getOrDefault(projection.id(), List.of())));
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
+    // the comments embedded in a news are read apart and capped, its own collection would bring all of them
+    public List<CommentsDtoForNewsResponse> commentProjectionListToDtoList(List<CommentProjection> comments) {
+        return comments.stream()
+            .map(c -> commentMapper.projectionToDtoForNews(c))
+            .collect(Collectors.toList());
+    }
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdDate", ignore = true)
     @Mapping(target = "lastUpdatedDate", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
     @Mapping(target = "author", expression =
         "java(authorRepository.readByName(dto.author()).get())")
-    @Mapping(target = "tags", expression =
-        "java(dto.tags().stream().map(name -> tagRepository.readByName(name).get()).toList())")
+    @Mapping(target = "tags", ignore = true)
     @Mapping(target = "comments", expression =
             "java(dto.commentsIds().stream().map(commentId -> commentsRepository.getReference(commentId)).toList())")
     public abstract News dtoToModel(CreateNewsDtoRequest dto);
 
+    // the author of a bulk create is resolved with its whole chunk instead of read by name for every news
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "createdDate", ignore = true)
+    @Mapping(target = "lastUpdatedDate", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "author", source = "resolvedAuthor")
+    @Mapping(target = "tags", ignore = true)
+    @Mapping(target = "comments", expression =
+            "java(dto.commentsIds().stream().map(commentId -> commentsRepository.getReference(commentId)).toList())")
+    public abstract News dtoToModel(CreateNewsDtoRequest dto, Author resolvedAuthor);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdDate", ignore = true)
     @Mapping(target = "lastUpdatedDate", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
     @Mapping(target = "author", ignore = true)
     @Mapping(target = "tags", ignore=true)
     @Mapping(target = "comments", expression =
@@ -66,12 +107,12 @@ public abstract class NewsMapper {
         }
     }
     @AfterMapping
-    void setComments(News model, @MappingTarget NewsDtoResponse dto) {
-        if (model.getComments() != null) {
-            List<CommentsDtoForNewsResponse> commentsDto = model.getComments().stream()
-                .map(c -> commentMapper.modelToDtoForNews(c))
-                .collect(Collectors.toList());
-            dto.setCommentsDto(commentsDto);
+    void setAuthor(NewsProjection projection, @MappingTarget NewsDtoResponse dto) {
+        if (projection.authorId() != null) {
+            AuthorDtoResponse authorDto = new AuthorDtoResponse(projection.authorId(), projection.authorName(),
+                projection.authorCreatedDate(), projection.authorLastUpdatedDate());
+            authorDto.setNewsCount(projection.authorNewsCount());
+            dto.setAuthorDto(authorDto);
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.mjc.school.service.mapper;
 
 import com.mjc.school.repository.model.Tag;
+import com.mjc.school.repository.projection.TagProjection;
 import com.mjc.school.service.dto.TagDtoRequest;
 import com.mjc.school.service.dto.TagDtoResponse;
 import org.mapstruct.Mapper;
@@ -18,7 +19,13 @@ public interface TagMapper {
 
     TagDtoResponse modelToDto(Tag model);
 
+    List<TagDtoResponse> projectionListToDtoList(List<TagProjection> projectionList);
+
+    TagDtoResponse projectionToDto(TagProjection projection);
+
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "lastUpdatedDate", ignore = true)
+    @Mapping(target = "newsCount", ignore = true)
     @Mapping(target = "news", ignore = true)
     Tag dtoToModel(TagDtoRequest dto);
 }
@@ -0,0 +1,38 @@
+package com.mjc.school.service.validator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.HashSet;
+import java.util.Set;
+
+// Base of the validators generated at compile time for classes with constrained fields, see ConstraintValidatorProcessor.
+// ValidatorImpl uses the generated <SimpleName>_Validator of a class when it exists and falls back to reflection otherwise.
+public abstract class GeneratedValidator<T> {
+
+    public static final String SUFFIX = "_Validator";
+
+    // null while the object is valid, so valid objects cost no allocation
+    public abstract Set<ConstraintViolation> validate(T object);
+
+    protected static Set<ConstraintViolation> addViolation(
+        Set<ConstraintViolation> violations,
+        final String constraintName,
+        final Object value
+    ) {
+        if (violations == null) {
+            violations = new HashSet<>();
+        }
+        violations.add(
+            new ConstraintViolation("Constraint '%s' violated for the value '%s'".formatted(constraintName, value))
+        );
+        return violations;
+    }
+
+    protected static VarHandle fieldHandle(final Class<?> type, final String name, final Class<?> fieldType) {
+        try {
+            return MethodHandles.privateLookupIn(type, MethodHandles.lookup()).findVarHandle(type, name, fieldType);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Field " + type.getName() + "." + name + " is not readable for validation", e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.mjc.school.service.validator;
+
+import com.mjc.school.service.validator.checker.ConstraintChecker;
+import com.mjc.school.service.validator.constraint.Constraint;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// What validating an instance of one class takes, resolved once: its generated validator when there is one,
+// otherwise the constrained fields with their getters and checkers
+@SuppressWarnings("rawtypes")
+final class ValidationPlan {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final GeneratedValidator generatedValidator;
+    private final List<ConstrainedField> fields;
+
+    private ValidationPlan(GeneratedValidator generatedValidator, List<ConstrainedField> fields) {
+        this.generatedValidator = generatedValidator;
+        this.fields = fields;
+    }
+
+    static ValidationPlan of(Class<?> type, Map<Class<? extends Annotation>, ConstraintChecker> checkersMap) {
+        var generatedValidator = findGeneratedValidator(type);
+        if (generatedValidator != null) {
+            return new ValidationPlan(generatedValidator, List.of());
+        }
+        var fields = new ArrayList<ConstrainedField>();
+        for (var declaredField : type.getDeclaredFields()) {
+            var constraints = new ArrayList<Annotation>();
+            for (var declaredAnnotation : declaredField.getDeclaredAnnotations()) {
+                if (declaredAnnotation.annotationType().isAnnotationPresent(Constraint.class)) {
+                    constraints.add(declaredAnnotation);
+                }
+            }
+            if (!constraints.isEmpty() && !Modifier.isStatic(declaredField.getModifiers())
+                && declaredField.trySetAccessible()) {
+                fields.add(new ConstrainedField(getter(declaredField), constraints, checkersMap));
+            }
+        }
+        return new ValidationPlan(null, List.copyOf(fields));
+    }
+
+    GeneratedValidator getGeneratedValidator() {
+        return generatedValidator;
+    }
+
+    List<ConstrainedField> getFields() {
+        return fields;
+    }
+
+    private static GeneratedValidator findGeneratedValidator(Class<?> type) {
+        if (type.getClassLoader() == null) {
+            return null;
+        }
+        try {
+            var validatorClass = Class.forName(type.getName() + GeneratedValidator.SUFFIX, true, type.getClassLoader());
+            if (!GeneratedValidator.class.isAssignableFrom(validatorClass)) {
+                return null;
+            }
+            return (GeneratedValidator) validatorClass.getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Generated validator of " + type.getName() + " cannot be created", e);
+        }
+    }
+
+    private static MethodHandle getter(Field field) {
+        try {
+            return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Field " + field + " is not readable for validation", e);
+        }
+    }
+
+    static final class ConstrainedField {
+
+        private final MethodHandle getter;
+        private final Annotation[] constraints;
+        private final ConstraintChecker[] checkers;
+        private final String[] constraintNames;
+
+        private ConstrainedField(
+            MethodHandle getter,
+            List<Annotation> constraints,
+            Map<Class<? extends Annotation>, ConstraintChecker> checkersMap
+        ) {
+            this.getter = getter;
+            this.constraints = constraints.toArray(Annotation[]::new);
+            this.checkers = new ConstraintChecker[this.constraints.length];
+            this.constraintNames = new String[this.constraints.length];
+            for (int i = 0; i < this.constraints.length; i++) {
+                // a constraint without a checker is never violated, but the value is still validated in depth
+                this.checkers[i] = checkersMap.get(this.constraints[i].annotationType());
+                this.constraintNames[i] = this.constraints[i].annotationType().getSimpleName();
+            }
+        }
+
+        Object get(Object instance) {
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to read a constrained field", e);
+            }
+        }
+
+        int size() {
+            return constraints.length;
+        }
+
+        ConstraintChecker getChecker(int index) {
+            return checkers[index];
+        }
+
+        Annotation getConstraint(int index) {
+            return constraints[index];
+        }
+
+        String getConstraintName(int index) {
+            return constraintNames[index];
+        }
+    }
+}
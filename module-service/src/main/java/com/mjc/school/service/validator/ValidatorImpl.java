@@ -1,12 +1,10 @@
 package com.mjc.school.service.validator;
 
 import com.mjc.school.service.validator.checker.ConstraintChecker;
-import com.mjc.school.service.validator.constraint.Constraint;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.util.*;
 import java.util.function.Function;
 
@@ -18,6 +16,14 @@ public class ValidatorImpl implements Validator {
 
     private final Map<Class<? extends Annotation>, ConstraintChecker> checkersMap;
 
+    // built on the first validation of a class, the reflection is not repeated per call
+    private final ClassValue<ValidationPlan> plans = new ClassValue<>() {
+        @Override
+        protected ValidationPlan computeValue(Class<?> type) {
+            return ValidationPlan.of(type, checkersMap);
+        }
+    };
+
     @Autowired
     public ValidatorImpl(final List<ConstraintChecker> checkers) {
         this.checkersMap = checkers
@@ -29,52 +35,43 @@ public class ValidatorImpl implements Validator {
         if (object == null) {
             return Collections.emptySet();
         }
-        var violations = new HashSet<ConstraintViolation>();
-        for (var declaredField : object.getClass().getDeclaredFields()) {
-            validateField(violations, declaredField, object);
-        }
-        return violations;
+        var violations = validateObject(null, object);
+        return violations != null ? violations : Collections.emptySet();
     }
 
-    private void validateObject(Set<ConstraintViolation> violations, final Object object) {
-        if (object == null) {
-            return;
-        }
-        for (var declaredField : object.getClass().getDeclaredFields()) {
-            validateField(violations, declaredField, object);
+    // the set is only allocated once the first violation is found
+    private Set<ConstraintViolation> validateObject(Set<ConstraintViolation> violations, final Object object) {
+        var plan = plans.get(object.getClass());
+        if (plan.getGeneratedValidator() != null) {
+            Set<ConstraintViolation> generatedViolations = plan.getGeneratedValidator().validate(object);
+            if (generatedViolations == null) {
+                return violations;
+            }
+            if (violations == null) {
+                return generatedViolations;
+            }
+            violations.addAll(generatedViolations);
+            return violations;
         }
-    }
-
-    private void validateField(
-        final Set<ConstraintViolation> violations,
-        final Field field,
-        final Object instance
-    ) {
-        for (var declaredAnnotation : field.getDeclaredAnnotations()) {
-            var annotationType = declaredAnnotation.annotationType();
-            if (annotationType.isAnnotationPresent(Constraint.class)) {
-                try {
-                    if (field.trySetAccessible() && field.canAccess(instance)) {
-                        var value = field.get(instance);
-                        var checker = checkersMap.get(annotationType);
-                        if (checker != null && !checker.check(value, annotationType.cast(declaredAnnotation))) {
-                            violations.add(
-                                new ConstraintViolation(
-                                    "Constraint '%s' violated for the value '%s'".formatted(
-                                        annotationType.getSimpleName(),
-                                        value
-                                    )
-                                )
-                            );
-                        }
-                        validateObject(violations, value);
+        for (var field : plan.getFields()) {
+            var value = field.get(object);
+            for (int i = 0; i < field.size(); i++) {
+                var checker = field.getChecker(i);
+                if (checker != null && !checker.check(value, field.getConstraint(i))) {
+                    if (violations == null) {
+                        violations = new HashSet<>();
                     }
-                } catch (IllegalAccessException e) {
-                    e.printStackTrace();
+                    violations.add(
+                        new ConstraintViolation(
+                            "Constraint '%s' violated for the value '%s'".formatted(field.getConstraintName(i), value)
+                        )
+                    );
                 }
             }
+            if (value != null) {
+                violations = validateObject(violations, value);
+            }
         }
+        return violations;
     }
 }
-
-
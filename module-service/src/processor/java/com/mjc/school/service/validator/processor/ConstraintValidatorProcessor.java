@@ -0,0 +1,275 @@
+package com.mjc.school.service.validator.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+// Generates <SimpleName>_Validator, a GeneratedValidator with the constraint checks written out as plain Java,
+// for every top-level class with fields annotated by constraints from com.mjc.school.service.validator.constraint.
+// A class is left to the reflective ValidatorImpl when one of its checks cannot be generated: an unknown constraint,
+// an unsupported field type, or a field whose value ValidatorImpl would have to validate in depth.
+@SupportedAnnotationTypes("com.mjc.school.service.validator.constraint.*")
+public class ConstraintValidatorProcessor extends AbstractProcessor {
+
+    private static final String CONSTRAINT_PACKAGE = "com.mjc.school.service.validator.constraint";
+    private static final String CONSTRAINT = CONSTRAINT_PACKAGE + ".Constraint";
+    private static final String VALIDATOR_PACKAGE = "com.mjc.school.service.validator";
+    private static final String CHECKER_PACKAGE = VALIDATOR_PACKAGE + ".checker";
+    // GeneratedValidator.SUFFIX, the processor is compiled before the service classes
+    private static final String SUFFIX = "_Validator";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        var types = new LinkedHashSet<TypeElement>();
+        for (var annotation : annotations) {
+            for (var element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if ((element.getKind() == ElementKind.FIELD || element.getKind() == ElementKind.RECORD_COMPONENT)
+                    && element.getEnclosingElement() instanceof TypeElement type) {
+                    types.add(type);
+                }
+            }
+        }
+        for (var type : types) {
+            generate(type);
+        }
+        // the constraints stay visible to the other processors
+        return false;
+    }
+
+    private void generate(TypeElement type) {
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+            skip(type, "it is not a top-level class");
+            return;
+        }
+        var fields = new ArrayList<FieldChecks>();
+        for (var enclosed : type.getEnclosedElements()) {
+            if (enclosed.getKind() != ElementKind.FIELD || enclosed.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            var field = (VariableElement) enclosed;
+            var constraints = constraintsOf(field);
+            if (constraints.isEmpty()) {
+                continue;
+            }
+            if (!isLeafType(field.asType())) {
+                skip(type, "the value of '" + field.getSimpleName() + "' would be validated in depth");
+                return;
+            }
+            var checks = new ArrayList<Check>();
+            for (var constraint : constraints) {
+                var failure = failureCondition(field.asType(), constraint);
+                if (failure == null) {
+                    skip(type, "@" + simpleName(constraint) + " on '" + field.getSimpleName() + "' is not supported");
+                    return;
+                }
+                if (!failure.isEmpty()) {
+                    checks.add(new Check(simpleName(constraint), failure));
+                }
+            }
+            fields.add(new FieldChecks(field, checks));
+        }
+
+        var packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        var validatorName = type.getSimpleName() + SUFFIX;
+        try (Writer writer = processingEnv.getFiler()
+            .createSourceFile(packageName.isEmpty() ? validatorName : packageName + "." + validatorName, type)
+            .openWriter()) {
+            writer.write(source(type, packageName, validatorName, fields));
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Cannot write " + validatorName + ": " + e.getMessage(), type);
+        }
+    }
+
+    private String source(TypeElement type, String packageName, String validatorName, List<FieldChecks> fields) {
+        var typeName = type.getQualifiedName().toString();
+        var isRecord = type.getKind() == ElementKind.RECORD;
+        var source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("@javax.annotation.processing.Generated(\"").append(getClass().getName()).append("\")\n")
+            .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+            .append("public final class ").append(validatorName)
+            .append(" extends ").append(VALIDATOR_PACKAGE).append(".GeneratedValidator<").append(typeName).append("> {\n");
+
+        for (var field : fields) {
+            if (!isRecord && !field.checks.isEmpty() && field.element.getModifiers().contains(Modifier.PRIVATE)) {
+                source.append("\n    private static final java.lang.invoke.VarHandle ").append(handleName(field))
+                    .append(" = fieldHandle(").append(typeName).append(".class, \"").append(field.name())
+                    .append("\", ").append(erasure(field.element.asType())).append(".class);\n");
+            }
+        }
+
+        source.append("\n    @Override\n")
+            .append("    public java.util.Set<").append(VALIDATOR_PACKAGE).append(".ConstraintViolation> validate(")
+            .append(typeName).append(" object) {\n")
+            .append("        java.util.Set<").append(VALIDATOR_PACKAGE).append(".ConstraintViolation> violations = null;\n");
+        for (var field : fields) {
+            if (field.checks.isEmpty()) {
+                continue;
+            }
+            var fieldType = erasure(field.element.asType());
+            var local = field.name() + "Value";
+            source.append("        ").append(fieldType).append(' ').append(local).append(" = ");
+            if (isRecord) {
+                source.append("object.").append(field.name()).append("()");
+            } else if (field.element.getModifiers().contains(Modifier.PRIVATE)) {
+                source.append('(').append(fieldType).append(") ").append(handleName(field)).append(".get(object)");
+            } else {
+                source.append("object.").append(field.name());
+            }
+            source.append(";\n");
+            for (var check : field.checks) {
+                source.append("        if (").append(check.failure.replace("$", local)).append(") {\n")
+                    .append("            violations = addViolation(violations, \"").append(check.constraintName)
+                    .append("\", ").append(local).append(");\n")
+                    .append("        }\n");
+            }
+        }
+        source.append("        return violations;\n")
+            .append("    }\n")
+            .append("}\n");
+        return source.toString();
+    }
+
+    // "$" stands for the field value; an empty condition never fails, null means the check cannot be generated
+    private String failureCondition(TypeMirror type, AnnotationMirror constraint) {
+        var primitive = type.getKind().isPrimitive();
+        switch (simpleName(constraint)) {
+            case "NotNull":
+                return primitive ? "" : "$ == null";
+            case "Size": {
+                if (!isAssignable(type, "java.lang.CharSequence")) {
+                    return primitive || isFinal(type) ? "" : null;
+                }
+                var min = longValue(constraint, "min");
+                var max = longValue(constraint, "max");
+                var bounds = new ArrayList<String>();
+                if (min >= 0) {
+                    bounds.add("$.length() < " + min);
+                }
+                if (max >= 0) {
+                    bounds.add("$.length() > " + max);
+                }
+                return bounds.isEmpty() ? "" : "$ != null && (" + String.join(" || ", bounds) + ")";
+            }
+            case "Min":
+                return numberCondition(type, "<", longValue(constraint, "value"));
+            case "Max":
+                return numberCondition(type, ">", longValue(constraint, "value"));
+            case "SortAndOrder":
+                return isAssignable(type, "java.util.List") ? "!" + CHECKER_PACKAGE + ".SortAndOrderChecker.isValid($)" : null;
+            case "SearchCriteria":
+                return isAssignable(type, "java.util.List") ? "!" + CHECKER_PACKAGE + ".SearchCriteriaChecker.isValid($)" : null;
+            default:
+                return null;
+        }
+    }
+
+    // the checkers compare Number.longValue(), anything else passes
+    private String numberCondition(TypeMirror type, String operator, long bound) {
+        var kind = type.getKind();
+        if (kind == TypeKind.INT || kind == TypeKind.LONG || kind == TypeKind.SHORT || kind == TypeKind.BYTE) {
+            return "$ " + operator + " " + bound + "L";
+        }
+        if (kind == TypeKind.FLOAT || kind == TypeKind.DOUBLE) {
+            return "(long) $ " + operator + " " + bound + "L";
+        }
+        if (kind.isPrimitive()) {
+            return "";
+        }
+        if (isAssignable(type, "java.lang.Number")) {
+            return "$ != null && $.longValue() " + operator + " " + bound + "L";
+        }
+        return isFinal(type) ? "" : null;
+    }
+
+    private List<AnnotationMirror> constraintsOf(Element field) {
+        var constraints = new ArrayList<AnnotationMirror>();
+        for (var mirror : field.getAnnotationMirrors()) {
+            for (var meta : mirror.getAnnotationType().asElement().getAnnotationMirrors()) {
+                if (((TypeElement) meta.getAnnotationType().asElement()).getQualifiedName().contentEquals(CONSTRAINT)) {
+                    constraints.add(mirror);
+                }
+            }
+        }
+        return constraints;
+    }
+
+    // the reflective validator also validates the value of a constrained field, which finds nothing on JDK types
+    private boolean isLeafType(TypeMirror type) {
+        return type.getKind().isPrimitive() || erasure(type).startsWith("java.");
+    }
+
+    private boolean isAssignable(TypeMirror type, String className) {
+        var target = processingEnv.getElementUtils().getTypeElement(className);
+        var types = processingEnv.getTypeUtils();
+        return !type.getKind().isPrimitive() && types.isAssignable(types.erasure(type), types.erasure(target.asType()));
+    }
+
+    private boolean isFinal(TypeMirror type) {
+        var element = processingEnv.getTypeUtils().asElement(type);
+        return element != null && element.getModifiers().contains(Modifier.FINAL);
+    }
+
+    private String erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private long longValue(AnnotationMirror constraint, String name) {
+        for (var entry : processingEnv.getElementUtils().getElementValuesWithDefaults(constraint).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return ((Number) entry.getValue().getValue()).longValue();
+            }
+        }
+        throw new IllegalArgumentException("@" + simpleName(constraint) + " has no attribute " + name);
+    }
+
+    private static String simpleName(AnnotationMirror constraint) {
+        return constraint.getAnnotationType().asElement().getSimpleName().toString();
+    }
+
+    private static String handleName(FieldChecks field) {
+        return field.name().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+    }
+
+    private void skip(TypeElement type, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+            "No validator generated for " + type.getQualifiedName() + ", " + reason + "; it is validated by reflection",
+            type);
+    }
+
+    private record FieldChecks(VariableElement element, List<Check> checks) {
+
+        String name() {
+            return element.getSimpleName().toString();
+        }
+    }
+
+    private record Check(String constraintName, String failure) {
+    }
+}
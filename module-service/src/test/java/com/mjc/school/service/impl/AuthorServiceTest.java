@@ -6,6 +6,7 @@ import com.mjc.school.repository.filter.pagination.Pagination;
 import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
 import com.mjc.school.repository.impl.AuthorRepository;
 import com.mjc.school.repository.model.Author;
+import com.mjc.school.repository.projection.AuthorProjection;
 import com.mjc.school.service.dto.AuthorDtoRequest;
 import com.mjc.school.service.dto.AuthorDtoResponse;
 import com.mjc.school.service.dto.PageDtoResponse;
@@ -71,11 +72,11 @@ public class AuthorServiceTest {
     void readAll_ShouldReturnPagedAuthors(){
 
         ResourceSearchFilterRequestDTO searchRequest = new ResourceSearchFilterRequestDTO(1,10, Collections.emptyList(),Collections.emptyList());
-        Page<Author> page = new Page<>(List.of(author),1,1);
+        Page<AuthorProjection> page = new Page<>(List.of(new AuthorProjection(1L,"Gosling",LocalDateTime.now(),LocalDateTime.now(),1L)),1,1);
 
         when(authorSearchFilterMapper.map(any())).thenReturn(new ResourceSearchFilter(new Pagination(1, 10),Collections.emptyList(),Collections.emptyList()));
-        when(authorRepository.readAll(any(EntitySearchSpecification.class))).thenReturn(page);
-        when(mapper.modelListToDtoList(anyList())).thenReturn(List.of(authorDtoResponse));
+        when(authorRepository.readAll(any(EntitySearchSpecification.class), eq(AuthorProjection.PROJECTION))).thenReturn(page);
+        when(mapper.projectionListToDtoList(anyList())).thenReturn(List.of(authorDtoResponse));
 
         PageDtoResponse<AuthorDtoResponse> result = authorService.readAll(searchRequest);
 
@@ -83,7 +84,7 @@ public class AuthorServiceTest {
         assertThat(result.getModelDtoList()).hasSize(1);
         assertThat(result.getCurrentPage()).isEqualTo(1);
         assertThat(result.getPageCount()).isEqualTo(1);
-        verify(authorRepository).readAll(any(EntitySearchSpecification.class));
+        verify(authorRepository).readAll(any(EntitySearchSpecification.class), eq(AuthorProjection.PROJECTION));
     }
 
     @Test
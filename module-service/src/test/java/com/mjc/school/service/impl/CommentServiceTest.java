@@ -1,11 +1,13 @@
 package com.mjc.school.service.impl;
 
+import com.mjc.school.repository.filter.pagination.KeysetCursor;
 import com.mjc.school.repository.filter.pagination.Page;
 import com.mjc.school.repository.filter.pagination.Pagination;
 import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
 import com.mjc.school.repository.impl.CommentRepository;
 import com.mjc.school.repository.impl.NewsRepository;
 import com.mjc.school.repository.model.Comment;
+import com.mjc.school.repository.projection.CommentProjection;
 import com.mjc.school.service.dto.CommentsDtoRequest;
 import com.mjc.school.service.dto.CommentsDtoResponse;
 import com.mjc.school.service.dto.PageDtoResponse;
@@ -25,6 +27,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -73,11 +76,11 @@ public class CommentServiceTest {
     void readAll_ShouldReturnPagedComments(){
 
         ResourceSearchFilterRequestDTO searchRequest = new ResourceSearchFilterRequestDTO(1,10, Collections.emptyList(),Collections.emptyList());
-        Page<Comment> page = new Page<>(List.of(comment),1,1);
+        Page<CommentProjection> page = new Page<>(List.of(new CommentProjection(1L,"Spring Boot",1L,LocalDateTime.now(),LocalDateTime.now())),1,1);
 
         when(commentSearchFilterMapper.map(any())).thenReturn(new ResourceSearchFilter(new Pagination(1, 10),Collections.emptyList(),Collections.emptyList()));
-        when(commentRepository.readAll(any(EntitySearchSpecification.class))).thenReturn(page);
-        when(mapper.modelListToDtoList(anyList())).thenReturn(List.of(commentDtoResponse));
+        when(commentRepository.readAll(any(EntitySearchSpecification.class), eq(CommentProjection.PROJECTION))).thenReturn(page);
+        when(mapper.projectionListToDtoList(anyList())).thenReturn(List.of(commentDtoResponse));
 
         PageDtoResponse<CommentsDtoResponse> result = commentService.readAll(searchRequest);
 
@@ -85,7 +88,7 @@ public class CommentServiceTest {
         assertThat(result.getModelDtoList()).hasSize(1);
         assertThat(result.getCurrentPage()).isEqualTo(1);
         assertThat(result.getPageCount()).isEqualTo(1);
-        verify(commentRepository).readAll(any(EntitySearchSpecification.class));
+        verify(commentRepository).readAll(any(EntitySearchSpecification.class), eq(CommentProjection.PROJECTION));
     }
 
 
@@ -134,6 +137,7 @@ public class CommentServiceTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getContent()).isEqualTo("Spring Boot");
         verify(commentRepository).create(comment);
+        verify(newsRepository).adjustCommentCounts(Map.of(1L, 1L));
     }
 
 
@@ -173,11 +177,13 @@ public class CommentServiceTest {
     void deleteById_WhenCommentExists_ShouldDeleteComment(){
 
         when(commentRepository.existById(1L)).thenReturn(true);
+        when(commentRepository.countPerNewsId(List.of(1L))).thenReturn(Map.of(1L, 1L));
         doNothing().when(commentRepository).deleteById(1L);
 
         commentService.deleteById(1L);
 
         verify(commentRepository).deleteById(1L);
+        verify(newsRepository).adjustCommentCounts(Map.of(1L, -1L));
     }
 
 
@@ -196,16 +202,36 @@ public class CommentServiceTest {
 
 
     @Test
-    @DisplayName("Should return comments by news ID")
-    void readByNewsId_WhenCommentExists_ShouldReturnComment(){
+    @DisplayName("Should return a keyset page of comments by news ID")
+    void readByNewsId_WhenMoreCommentsThanPageSize_ShouldReturnNextCursor(){
 
-        when(commentRepository.readByNewsId(1L)).thenReturn(List.of(comment));
-        when(mapper.modelListToDtoList(List.of(comment))).thenReturn(List.of(commentDtoResponse));
+        ResourceSearchFilterRequestDTO searchRequest = new ResourceSearchFilterRequestDTO(1,1, Collections.emptyList(),Collections.emptyList());
+        CommentProjection first = new CommentProjection(1L,"Spring Boot",1L,LocalDateTime.now(),LocalDateTime.now());
+        CommentProjection second = new CommentProjection(2L,"Hibernate",1L,LocalDateTime.now(),LocalDateTime.now());
 
-        List<CommentsDtoResponse> result = commentService.readByNewsId(1L);
+        when(newsRepository.existById(1L)).thenReturn(true);
+        when(commentSearchFilterMapper.map(any())).thenReturn(new ResourceSearchFilter(new Pagination(1, 1),Collections.emptyList(),Collections.emptyList()));
+        when(commentRepository.readProjectionsByNewsId(1L, null, 2)).thenReturn(List.of(first, second));
+        when(mapper.projectionListToDtoList(List.of(first))).thenReturn(List.of(commentDtoResponse));
 
-        assertThat(result).isNotNull();
-        assertThat(result.size()).isGreaterThan(0);
-        verify(commentRepository).readByNewsId(1L);
+        PageDtoResponse<CommentsDtoResponse> result = commentService.readByNewsId(1L, searchRequest);
+
+        assertThat(result.getModelDtoList()).containsExactly(commentDtoResponse);
+        assertThat(result.getNextCursor()).isEqualTo(new KeysetCursor(List.of("1")).encode());
+        verify(commentRepository).readProjectionsByNewsId(1L, null, 2);
+    }
+
+    @Test
+    @DisplayName("Should throw NotFoundException when reading the comments of a news that does not exist")
+    void readByNewsId_WhenNewsDoesNotExist_ShouldThrowNotFoundException(){
+
+        ResourceSearchFilterRequestDTO searchRequest = new ResourceSearchFilterRequestDTO(1,10, Collections.emptyList(),Collections.emptyList());
+        when(newsRepository.existById(2L)).thenReturn(false);
+
+        assertThatThrownBy(()->commentService.readByNewsId(2L, searchRequest))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessageContaining("News with id 2 does not exist.");
+
+        verify(commentRepository,never()).readProjectionsByNewsId(any(), any(), anyInt());
     }
 }
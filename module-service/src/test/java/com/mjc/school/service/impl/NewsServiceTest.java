@@ -4,11 +4,15 @@ import com.mjc.school.repository.filter.pagination.Page;
 import com.mjc.school.repository.filter.pagination.Pagination;
 import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
 import com.mjc.school.repository.impl.AuthorRepository;
+import com.mjc.school.repository.impl.CommentRepository;
 import com.mjc.school.repository.impl.NewsRepository;
 import com.mjc.school.repository.impl.TagRepository;
 import com.mjc.school.repository.model.Author;
 import com.mjc.school.repository.model.News;
 import com.mjc.school.repository.model.Tag;
+import com.mjc.school.repository.projection.NewsProjection;
+import com.mjc.school.repository.projection.TagProjection;
+import com.mjc.school.repository.search.NewsTextIndex;
 import com.mjc.school.service.dto.*;
 import com.mjc.school.service.exceptions.NotFoundException;
 import com.mjc.school.service.filter.ResourceSearchFilter;
@@ -26,12 +30,15 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static com.mjc.school.repository.impl.NewsRepository.NEWS_DETAILS_FETCH_PLAN;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +54,12 @@ public class NewsServiceTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private NewsTextIndex newsTextIndex;
+
     @Mock
     private NewsMapper mapper;
 
@@ -60,6 +73,7 @@ public class NewsServiceTest {
     private CreateNewsDtoRequest createRequest;
     private UpdateNewsDtoRequest updateRequest;
     private NewsDtoResponse newsDtoResponse;
+    private NewsProjection newsProjection;
 
     @BeforeEach
     void setUp(){
@@ -69,6 +83,8 @@ public class NewsServiceTest {
         news.setContent("Language");
         news.setCreatedDate(LocalDateTime.now());
         news.setLastUpdatedDate(LocalDateTime.now());
+        newsProjection = new NewsProjection(1L,"Java","Language",news.getCreatedDate(),news.getLastUpdatedDate(),0L,
+                1L,"Gosling",LocalDateTime.now(),LocalDateTime.now(),1L);
 
 
         createRequest = new CreateNewsDtoRequest("Java","Language","Gosling", List.of("Technology"),new ArrayList<>());
@@ -85,11 +101,11 @@ public class NewsServiceTest {
     void readAll_ShouldReturnPagedNews(){
 
         ResourceSearchFilterRequestDTO searchRequest = new ResourceSearchFilterRequestDTO(1,10, Collections.emptyList(),Collections.emptyList());
-        Page<News> page = new Page<>(List.of(news),1,1);
+        Page<NewsProjection> page = new Page<>(List.of(newsProjection),1,1);
 
         when(newsSearchFilterMapper.map(any())).thenReturn(new ResourceSearchFilter(new Pagination(1, 10),Collections.emptyList(),Collections.emptyList()));
-        when(newsRepository.readAll(any(EntitySearchSpecification.class))).thenReturn(page);
-        when(mapper.modelListToDtoList(anyList())).thenReturn(List.of(newsDtoResponse));
+        when(newsRepository.readAll(any(EntitySearchSpecification.class), eq(NewsProjection.PROJECTION))).thenReturn(page);
+        when(mapper.projectionListToDtoList(anyList(), anyMap(), anyMap())).thenReturn(List.of(newsDtoResponse));
 
         PageDtoResponse<NewsDtoResponse> result = newsService.readAll(searchRequest);
 
@@ -97,14 +113,35 @@ public class NewsServiceTest {
         assertThat(result.getModelDtoList()).hasSize(1);
         assertThat(result.getCurrentPage()).isEqualTo(1);
         assertThat(result.getPageCount()).isEqualTo(1);
-        verify(newsRepository).readAll(any(EntitySearchSpecification.class));
+        verify(newsRepository).readAll(any(EntitySearchSpecification.class), eq(NewsProjection.PROJECTION));
+    }
+
+    @Test
+    @DisplayName("Should read tags and comments of the whole news page with one query each")
+    void readAll_ShouldReadCollectionsByPageNewsIds(){
+
+        ResourceSearchFilterRequestDTO searchRequest = new ResourceSearchFilterRequestDTO(1,10, Collections.emptyList(),Collections.emptyList());
+        Map<Long, List<TagProjection>> tagsByNewsId = Map.of(1L, List.of(new TagProjection(1L,"Technology",1L)));
+
+        when(newsSearchFilterMapper.map(any())).thenReturn(new ResourceSearchFilter(new Pagination(1, 10),Collections.emptyList(),Collections.emptyList()));
+        when(newsRepository.readAll(any(EntitySearchSpecification.class), eq(NewsProjection.PROJECTION)))
+                .thenReturn(new Page<>(List.of(newsProjection),1,1));
+        when(tagRepository.readProjectionsByNewsIds(List.of(1L))).thenReturn(tagsByNewsId);
+        when(commentRepository.readProjectionsByNewsIds(List.of(1L), NewsService.EMBEDDED_COMMENTS_LIMIT)).thenReturn(Map.of());
+        when(mapper.projectionListToDtoList(List.of(newsProjection), tagsByNewsId, Map.of())).thenReturn(List.of(newsDtoResponse));
+
+        PageDtoResponse<NewsDtoResponse> result = newsService.readAll(searchRequest);
+
+        assertThat(result.getModelDtoList()).containsExactly(newsDtoResponse);
+        verify(tagRepository).readProjectionsByNewsIds(List.of(1L));
+        verify(commentRepository).readProjectionsByNewsIds(List.of(1L), NewsService.EMBEDDED_COMMENTS_LIMIT);
     }
 
     @Test
     @DisplayName("Should return news ID when news exists")
     void readById_WhenNewsExists_ShouldReturnNews(){
 
-        when(newsRepository.readById(1L)).thenReturn(Optional.of(news));
+        when(newsRepository.readById(1L, NEWS_DETAILS_FETCH_PLAN)).thenReturn(Optional.of(news));
         when(mapper.modelToDto(news)).thenReturn(newsDtoResponse);
 
         NewsDtoResponse result = newsService.readById(1L);
@@ -114,27 +151,31 @@ public class NewsServiceTest {
         assertThat(result.getTitle()).isEqualTo("Java");
         assertThat(result.getContent()).isEqualTo("Language");
 
-        verify(newsRepository).readById(1L);
+        verify(newsRepository).readById(1L, NEWS_DETAILS_FETCH_PLAN);
     }
 
     @Test
     @DisplayName("Should throw NotFoundException when news does not exist")
     void readById_WhenNewsDoesNotExist_ShouldThrowNotFoundException(){
 
-        when(newsRepository.readById(2L)).thenReturn(Optional.empty());
+        when(newsRepository.readById(2L, NEWS_DETAILS_FETCH_PLAN)).thenReturn(Optional.empty());
 
         assertThatThrownBy(()->newsService.readById(2L))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining("News with id 2 does not exist.");
 
-        verify(newsRepository).readById(2L);
+        verify(newsRepository).readById(2L, NEWS_DETAILS_FETCH_PLAN);
     }
 
     @Test
     @DisplayName("Should create news successfully with new author ans tags")
     void create_ShouldCreateNewsWithNewAuthorAndTags(){
+        Tag mockTag = new Tag();
+        mockTag.setId(1L);
+        mockTag.setName("Technology");
+
         when(authorRepository.readByName("Gosling")).thenReturn(Optional.empty());
-        when(tagRepository.readByName("Technology")).thenReturn(Optional.empty());
+        when(tagRepository.readOrCreateByNames(List.of("Technology"))).thenReturn(Map.of("Technology", mockTag));
 
         when(mapper.dtoToModel(createRequest)).thenReturn(news);
         when(newsRepository.create(news)).thenReturn(news);
@@ -145,9 +186,13 @@ public class NewsServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getContent()).isEqualTo("Language");
+        assertThat(news.getTags()).containsExactly(mockTag);
         verify(authorRepository).create(any(Author.class));
-        verify(tagRepository).create(any(Tag.class));
+        verify(tagRepository).readOrCreateByNames(List.of("Technology"));
+        verify(tagRepository, never()).readByName(any());
         verify(newsRepository).create(news);
+        verify(tagRepository).adjustNewsCounts(Map.of(mockTag, 1L));
+        verify(newsTextIndex).indexAfterCommit(news);
     }
 
     @Test
@@ -161,15 +206,21 @@ public class NewsServiceTest {
         mockTag.setId(1L);
         mockTag.setName("Technology");
 
-        when(newsRepository.existById(1L)).thenReturn(true);
+        Author previousAuthor = new Author();
+        previousAuthor.setId(2L);
+        previousAuthor.setName("Stroustrup");
+        News previous = new News();
+        previous.setId(1L);
+        previous.setAuthor(previousAuthor);
+        previous.setTags(new ArrayList<>(List.of(mockTag)));
+
+        when(newsRepository.readById(1L, NEWS_DETAILS_FETCH_PLAN)).thenReturn(Optional.of(previous));
 
         when(authorRepository.readByName("Gosling"))
                 .thenReturn(Optional.empty())
                 .thenReturn(Optional.of(mockAuthor));
 
-        when(tagRepository.readByName("Technology"))
-                .thenReturn(Optional.empty())
-                .thenReturn(Optional.of(mockTag));
+        when(tagRepository.readOrCreateByNames(List.of("Technology"))).thenReturn(Map.of("Technology", mockTag));
 
         when(mapper.dtoToModel(updateRequest)).thenReturn(news);
         when(newsRepository.update(any(News.class))).thenReturn(news);
@@ -179,21 +230,31 @@ public class NewsServiceTest {
 
         assertThat(result).isNotNull();
         assertThat(result.getContent()).isEqualTo("Language");
+        assertThat(news.getTags()).containsExactly(mockTag);
         verify(authorRepository).create(any(Author.class));
-        verify(tagRepository).create(any(Tag.class));
+        verify(tagRepository).readOrCreateByNames(List.of("Technology"));
+        verify(tagRepository, never()).readByName(any());
         verify(newsRepository).update(any(News.class));
+        verify(authorRepository).adjustNewsCounts(Map.of(previousAuthor, -1L, mockAuthor, 1L));
+        verify(tagRepository).adjustNewsCounts(Map.of());
     }
 
     @Test
     @DisplayName("Should delete news when news exists")
     void deleteById_WhenNewsExists_ShouldDeleteNews(){
 
-        when(newsRepository.existById(1L)).thenReturn(true);
+        Author author = new Author();
+        author.setId(1L);
+        news.setAuthor(author);
+
+        when(newsRepository.readById(1L, NEWS_DETAILS_FETCH_PLAN)).thenReturn(Optional.of(news));
         doNothing().when(newsRepository).deleteById(1L);
 
         newsService.deleteById(1L);
 
         verify(newsRepository).deleteById(1L);
+        verify(authorRepository).adjustNewsCounts(Map.of(author, -1L));
+        verify(newsTextIndex).removeAfterCommit(1L);
     }
 
 
@@ -201,7 +262,7 @@ public class NewsServiceTest {
     @DisplayName("Should throw NotFoundException when deleting non-existent news")
     void deleteById_WhenCommentDoesNotExist_ShouldThrowNotFoundException(){
 
-        when(newsRepository.existById(2L)).thenReturn(false);
+        when(newsRepository.readById(2L, NEWS_DETAILS_FETCH_PLAN)).thenReturn(Optional.empty());
 
         assertThatThrownBy(()->newsService.deleteById(2L))
                 .isInstanceOf(NotFoundException.class)
@@ -5,6 +5,7 @@ import com.mjc.school.repository.filter.pagination.Pagination;
 import com.mjc.school.repository.filter.specification.EntitySearchSpecification;
 import com.mjc.school.repository.impl.TagRepository;
 import com.mjc.school.repository.model.Tag;
+import com.mjc.school.repository.projection.TagProjection;
 import com.mjc.school.service.dto.PageDtoResponse;
 import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
 import com.mjc.school.service.dto.TagDtoRequest;
@@ -66,11 +67,11 @@ public class TagServiceTest {
     void readAll_ShouldReturnPagedTags(){
 
         ResourceSearchFilterRequestDTO searchRequest = new ResourceSearchFilterRequestDTO(1,10, Collections.emptyList(),Collections.emptyList());
-        Page<Tag> page = new Page<>(List.of(tag),1,1);
+        Page<TagProjection> page = new Page<>(List.of(new TagProjection(1L,"Technology",1L)),1,1);
 
         when(tagSearchFilterMapper.map(any())).thenReturn(new ResourceSearchFilter(new Pagination(1, 10),Collections.emptyList(),Collections.emptyList()));
-        when(tagRepository.readAll(any(EntitySearchSpecification.class))).thenReturn(page);
-        when(mapper.modelListToDtoList(anyList())).thenReturn(List.of(tagDtoResponse));
+        when(tagRepository.readAll(any(EntitySearchSpecification.class), eq(TagProjection.PROJECTION))).thenReturn(page);
+        when(mapper.projectionListToDtoList(anyList())).thenReturn(List.of(tagDtoResponse));
 
         PageDtoResponse<TagDtoResponse> result = tagService.readAll(searchRequest);
 
@@ -78,7 +79,7 @@ public class TagServiceTest {
         assertThat(result.getModelDtoList()).hasSize(1);
         assertThat(result.getCurrentPage()).isEqualTo(1);
         assertThat(result.getPageCount()).isEqualTo(1);
-        verify(tagRepository).readAll(any(EntitySearchSpecification.class));
+        verify(tagRepository).readAll(any(EntitySearchSpecification.class), eq(TagProjection.PROJECTION));
     }
 
     @Test
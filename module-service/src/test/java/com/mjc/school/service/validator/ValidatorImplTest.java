@@ -0,0 +1,105 @@
+package com.mjc.school.service.validator;
+
+import com.mjc.school.repository.filter.sorting.SortOrder;
+import com.mjc.school.repository.filter.sorting.Sorting;
+import com.mjc.school.repository.filter.specification.SearchCriteria;
+import com.mjc.school.repository.filter.specification.SearchOperation;
+import com.mjc.school.service.dto.CreateNewsDtoRequest;
+import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
+import com.mjc.school.service.filter.SearchFilterParser;
+import com.mjc.school.service.validator.checker.MaxConstraintChecker;
+import com.mjc.school.service.validator.checker.MinConstraintChecker;
+import com.mjc.school.service.validator.checker.NotNullConstraintChecker;
+import com.mjc.school.service.validator.checker.SearchCriteriaChecker;
+import com.mjc.school.service.validator.checker.SizeConstraintChecker;
+import com.mjc.school.service.validator.checker.SortAndOrderChecker;
+import com.mjc.school.service.validator.constraint.NotNull;
+import com.mjc.school.service.validator.constraint.Size;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Validator Unit tests")
+public class ValidatorImplTest {
+
+    private final ValidatorImpl validator = new ValidatorImpl(List.of(
+        new NotNullConstraintChecker(),
+        new SizeConstraintChecker(),
+        new MinConstraintChecker(),
+        new MaxConstraintChecker(),
+        new SortAndOrderChecker(),
+        new SearchCriteriaChecker()));
+
+    @Test
+    void validate_ShouldHaveGeneratedValidatorsForConstrainedDtos() throws ClassNotFoundException {
+        for (var type : List.of(CreateNewsDtoRequest.class, ResourceSearchFilterRequestDTO.class)) {
+            var generated = Class.forName(type.getName() + GeneratedValidator.SUFFIX);
+            assertThat(GeneratedValidator.class.isAssignableFrom(generated)).isTrue();
+        }
+    }
+
+    @Test
+    void validate_ShouldReportSameViolationsAsReflection_WhenGeneratedValidatorIsUsed() {
+        var generated = validator.validate(new CreateNewsDtoRequest("News", null, "Gosling", null, null));
+        // test sources are not processed, this one is validated by reflection
+        var reflective = validator.validate(new ReflectiveNewsRequest("News", null, "Gosling"));
+
+        assertThat(generated)
+            .isEqualTo(reflective)
+            .containsExactlyInAnyOrder(
+                new ConstraintViolation("Constraint 'Size' violated for the value 'News'"),
+                new ConstraintViolation("Constraint 'NotNull' violated for the value 'null'"));
+    }
+
+    @Test
+    void validate_ShouldReturnEmptySet_WhenDtoIsValid() {
+        var request = new ResourceSearchFilterRequestDTO(1, 10, List.of("title:asc"), List.of("title:like:news"));
+
+        assertThat(validator.validate(request)).isEmpty();
+        assertThat(validator.validate(new CreateNewsDtoRequest("Title", "Content", "Gosling", null, null))).isEmpty();
+    }
+
+    @Test
+    void validate_ShouldReportListConstraints_WhenSearchFilterIsInvalid() {
+        var request = new ResourceSearchFilterRequestDTO(1, 10, List.of("title"), List.of("title"));
+
+        assertThat(validator.validate(request)).containsExactlyInAnyOrder(
+            new ConstraintViolation("Constraint 'SortAndOrder' violated for the value '[title]'"),
+            new ConstraintViolation("Constraint 'SearchCriteria' violated for the value '[title]'"));
+    }
+
+    @Test
+    void validate_ShouldParseSearchFilterOnce_WhenCriteriaHavePredicatesOrDelimitedValues() {
+        var criteria = List.of("title:like:news", "or:createdDate:ge:2024-01-01T10:00");
+        var request = new ResourceSearchFilterRequestDTO(1, 10, List.of("title:DESC"), new ArrayList<>(criteria));
+
+        assertThat(validator.validate(request)).isEmpty();
+        // validated and mapped from the same parsed filter
+        var parsed = SearchFilterParser.parseSearchCriteria(criteria);
+        assertThat(parsed).isSameAs(SearchFilterParser.parseSearchCriteria(request.getSearchFilter()));
+        assertThat(parsed.searchCriteria()).containsExactly(
+            new SearchCriteria("title", SearchOperation.LIKE, "news"),
+            new SearchCriteria(SearchOperation.OR_PREDICATE, "createdDate", SearchOperation.GREATER_THAN_EQUAL, "2024-01-01T10:00"));
+        assertThat(SearchFilterParser.parseSorting(List.of("title:DESC")).sorting())
+            .containsExactly(new Sorting("title", SortOrder.DESC));
+        assertThat(SearchFilterParser.parseSearchCriteria(List.of("title:like:")).isValid()).isFalse();
+    }
+
+    private record ReflectiveNewsRequest(
+        @NotNull
+        @Size(min = 5, max = 30)
+        String title,
+
+        @NotNull
+        @Size(min = 5, max = 255)
+        String content,
+
+        @NotNull
+        String author
+    ) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.mjc.school.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.mjc.school.controller.assembler.LinkBuilderUtil;
+import com.mjc.school.controller.assembler.LinksSerializerModule;
+import com.mjc.school.controller.assembler.ModelLinksWriter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class HateoasLinksConfiguration {
+
+    // news.hateoas.serialization-time-links=false brings back the Link objects attached by the assemblers
+    @Bean
+    @ConditionalOnProperty(name = "news.hateoas.serialization-time-links", havingValue = "true", matchIfMissing = true)
+    public Module linksSerializerModule(List<ModelLinksWriter<?>> linksWriters, LinkBuilderUtil linkBuilder) {
+        return new LinksSerializerModule(linksWriters, linkBuilder);
+    }
+}
@@ -1,16 +1,28 @@
 package com.mjc.school.controller;
 
+import com.mjc.school.service.dto.BulkResponseDto;
 import com.mjc.school.service.dto.PageDtoResponse;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
 
 public interface BaseController<C, R, G, S, U> {
 
-    PageDtoResponse<R> readAll(S searchRequest);
+    PageDtoResponse<R> readAll(S searchRequest, WebRequest webRequest);
+
+    ResponseEntity<StreamingResponseBody> exportAll(S searchRequest);
 
-    R readById(G id);
+    R readById(G id, List<String> fields, WebRequest webRequest);
 
     R create(C createRequest);
 
     R update(G id, U updateRequest);
 
     void deleteById(G id);
+
+    BulkResponseDto<R> createAll(List<C> createRequests);
+
+    BulkResponseDto<Void> deleteAll(List<G> ids);
 }
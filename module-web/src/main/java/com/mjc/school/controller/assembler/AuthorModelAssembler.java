@@ -10,7 +10,7 @@ import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
 @Component
-public class AuthorModelAssembler implements RepresentationModelAssembler<AuthorDtoResponse, AuthorDtoResponse> {
+public class AuthorModelAssembler implements RepresentationModelAssembler<AuthorDtoResponse, AuthorDtoResponse>, ModelLinksWriter<AuthorDtoResponse> {
 
     private final LinkBuilderUtil linkBuilder;
 
@@ -21,17 +21,24 @@ public class AuthorModelAssembler implements RepresentationModelAssembler<Author
 
     @Override
     public AuthorDtoResponse toModel(AuthorDtoResponse author) {
+        return linkBuilder.addLinks(author, this);
+    }
 
-        author.add(Link.of(linkBuilder.buildResourceLinkForMethod(
-                AuthorController.class,"readById",author.getId()),"self"));
+    @Override
+    public Class<AuthorDtoResponse> getModelType() {
+        return AuthorDtoResponse.class;
+    }
+
+    @Override
+    public void writeLinks(AuthorDtoResponse author, LinkWriter links) {
 
-        author.add(Link.of(linkBuilder.buildCollectionLink(AuthorController.class),"authors"));
+        links.link("self",AuthorController.class,"readById",author.getId());
 
-        author.add(Link.of(linkBuilder.buildResourceLink(AuthorController.class,author.getId()),"update"));
+        links.link("authors",AuthorController.class,null);
 
-        author.add(Link.of(linkBuilder.buildResourceLink(AuthorController.class,author.getId()),"delete"));
+        links.link("update",AuthorController.class,null,author.getId());
 
-        return author;
+        links.link("delete",AuthorController.class,null,author.getId());
     }
 
     @Override
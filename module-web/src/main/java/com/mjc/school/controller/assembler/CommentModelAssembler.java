@@ -11,7 +11,7 @@ import org.springframework.stereotype.Component;
 
 
 @Component
-public class CommentModelAssembler implements RepresentationModelAssembler<CommentsDtoResponse, CommentsDtoResponse> {
+public class CommentModelAssembler implements RepresentationModelAssembler<CommentsDtoResponse, CommentsDtoResponse>, ModelLinksWriter<CommentsDtoResponse> {
 
     private final LinkBuilderUtil linkBuilder;
 
@@ -22,21 +22,28 @@ public class CommentModelAssembler implements RepresentationModelAssembler<Comme
 
     @Override
     public CommentsDtoResponse toModel(CommentsDtoResponse comment) {
+        return linkBuilder.addLinks(comment, this);
+    }
 
-        comment.add(Link.of(linkBuilder.buildResourceLinkForMethod(
-                CommentController.class,"readById",comment.getId()),"self"));
+    @Override
+    public Class<CommentsDtoResponse> getModelType() {
+        return CommentsDtoResponse.class;
+    }
 
-        comment.add(Link.of(linkBuilder.buildCollectionLink(CommentController.class),"comments"));
+    @Override
+    public void writeLinks(CommentsDtoResponse comment, LinkWriter links) {
+
+        links.link("self",CommentController.class,"readById",comment.getId());
+
+        links.link("comments",CommentController.class,null);
 
         if(comment.getNewsId()!=null){
-            comment.add(Link.of(linkBuilder.buildResourceLink(NewsController.class,comment.getNewsId()),"news"));
+            links.link("news",NewsController.class,null,comment.getNewsId());
         }
 
-        comment.add(Link.of(linkBuilder.buildResourceLink(CommentController.class,comment.getId()),"update"));
-
-        comment.add(Link.of(linkBuilder.buildResourceLink(CommentController.class,comment.getId()),"delete"));
+        links.link("update",CommentController.class,null,comment.getId());
 
-        return comment;
+        links.link("delete",CommentController.class,null,comment.getId());
     }
 
     @Override
@@ -1,35 +1,91 @@
 package com.mjc.school.controller.assembler;
 
 import com.mjc.school.versioning.ApiVersion;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.RepresentationModel;
 import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 @Component
 public class LinkBuilderUtil{
 
-    public String buildLink(Class<?> controllerClass, String methodName, Object... pathVariables){
-        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
-        String currentVersion = extractApiVersionFromRequest();
+    private static final String API_VERSION_VARIABLE = "{apiVersion}";
+    private static final String REQUEST_LINK_BASE_ATTRIBUTE = LinkBuilderUtil.class.getName() + ".REQUEST_LINK_BASE";
+    private static final String FIELDS_PARAMETER = "fields";
+    private static final String LINKS_FIELD = "_links";
+    private static final String SELF_REL = "self";
+
+    @Value("${news.hateoas.serialization-time-links:true}")
+    private boolean serializationTimeLinks;
 
-        String apiVersion = getApiVersionFromController(controllerClass, methodName);
-        if(apiVersion == null){
-            apiVersion = currentVersion;
+    // mapping path and declared versions of a controller never change, they are read once per controller
+    private final ClassValue<ControllerLinkTemplate> templates = new ClassValue<>() {
+        @Override
+        protected ControllerLinkTemplate computeValue(Class<?> controllerClass) {
+            return ControllerLinkTemplate.of(controllerClass);
         }
-        String basePath = getRequestMappingPath(controllerClass);
+    };
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void precomputeTemplates(ContextRefreshedEvent event){
+        for(Object controller : event.getApplicationContext().getBeansWithAnnotation(RestController.class).values()){
+            Class<?> controllerClass = AopUtils.getTargetClass(controller);
+            RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(controllerClass, RequestMapping.class);
+            if(requestMapping != null && requestMapping.value().length > 0){
+                templates.get(controllerClass);
+            }
+        }
+    }
 
-        basePath = basePath.replace("{apiVersion}",apiVersion);
-        StringBuilder fullPath = new StringBuilder(baseUrl).append(basePath);
+    public String buildLink(Class<?> controllerClass, String methodName, Object... pathVariables){
+        return appendLink(new StringBuilder(128), controllerClass, methodName, pathVariables).toString();
+    }
+
+    public StringBuilder appendLink(StringBuilder target, Class<?> controllerClass, String methodName, Object... pathVariables){
+        RequestLinkBase linkBase = currentRequestLinkBase();
+        target.append(linkBase.baseUrl())
+                .append(templates.get(controllerClass).path(methodName, linkBase.apiVersion()));
 
         if(pathVariables != null){
             for(Object pathVariable : pathVariables){
-                fullPath.append("/").append(pathVariable);
+                target.append("/").append(pathVariable);
             }
         }
-        return fullPath.toString();
+        return target;
+    }
+
+    // with serialization-time links the model keeps only its data, LinksSerializerModule writes the links;
+    // a rel the model already carries keeps its own link in both cases
+    public <T extends RepresentationModel<? extends T>> T addLinks(T model, ModelLinksWriter<T> linksWriter){
+        if(!serializationTimeLinks){
+            linksWriter.writeLinks(model, (rel, controllerClass, methodName, pathVariables) -> {
+                if(includesLink(rel) && !model.hasLink(rel)){
+                    model.add(Link.of(buildLink(controllerClass, methodName, pathVariables), rel));
+                }
+            });
+        }
+        return model;
+    }
+
+    // a sparse fieldset keeps only the self link of a model, unless _links is one of the fields
+    public boolean includesLink(String rel){
+        return currentRequestLinkBase().allLinks() || SELF_REL.equals(rel);
     }
 
     public String buildLink(Class<?> controllerClass, Object... pathVariables){
@@ -62,59 +118,116 @@ public class LinkBuilderUtil{
         return baseLink + "/" + nestedResource;
     }
 
-    private String extractApiVersionFromRequest(){
-        try{
-            String requestUri = ServletUriComponentsBuilder.fromCurrentRequestUri().build().toUriString();
-            if(requestUri.contains("/api/v")){
-                int vIndex = requestUri.indexOf("/api/v") + 6;
-                if(vIndex < requestUri.length()){
-                    char versionChar = requestUri.charAt(vIndex);
-                    if(Character.isDigit(versionChar)){
-                        return String.valueOf(versionChar);
-                    }
+    // base URL and version of the current request, resolved by its first link and kept as a request attribute
+    private RequestLinkBase currentRequestLinkBase(){
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        Object cached = attributes.getAttribute(REQUEST_LINK_BASE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if(cached instanceof RequestLinkBase linkBase){
+            return linkBase;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        RequestLinkBase linkBase = new RequestLinkBase(
+                ServletUriComponentsBuilder.fromContextPath(request).build().toUriString(),
+                extractApiVersionFromRequest(request),
+                requestsAllLinks(request));
+        attributes.setAttribute(REQUEST_LINK_BASE_ATTRIBUTE, linkBase, RequestAttributes.SCOPE_REQUEST);
+        return linkBase;
+    }
+
+    private String extractApiVersionFromRequest(HttpServletRequest request){
+        String requestUri = request.getRequestURI();
+        if(requestUri != null && requestUri.contains("/api/v")){
+            int vIndex = requestUri.indexOf("/api/v") + 6;
+            if(vIndex < requestUri.length()){
+                char versionChar = requestUri.charAt(vIndex);
+                if(Character.isDigit(versionChar)){
+                    return String.valueOf(versionChar);
                 }
             }
-        }catch(Exception e){
-            System.err.println("Warning: Could not extract API from request: "+e.getMessage());
         }
         return "1";
     }
 
-    private String getApiVersionFromController(Class<?> controllerClass, String methodName){
-        try{
-            if (methodName!=null && !methodName.isEmpty()){
-                for(Method method : controllerClass.getDeclaredMethods()){
-                    if(method.getName().equals(methodName)){
-                        ApiVersion methodVersion = AnnotatedElementUtils.findMergedAnnotation(method,ApiVersion.class);
-                        if(methodVersion!=null){
-                            return String.valueOf(methodVersion.value());
-                        }
-                        break;
-                    }
+    private boolean requestsAllLinks(HttpServletRequest request){
+        String[] fields = request.getParameterValues(FIELDS_PARAMETER);
+        if(fields == null){
+            return true;
+        }
+        boolean sparse = false;
+        for(String value : fields){
+            for(String field : value.split(",")){
+                field = field.trim();
+                if(LINKS_FIELD.equals(field)){
+                    return true;
                 }
+                sparse |= !field.isEmpty();
             }
-            ApiVersion classVersion = AnnotatedElementUtils.findMergedAnnotation(controllerClass,ApiVersion.class);
-            if(classVersion!=null){
-                return String.valueOf(classVersion.value());
-            }
-        }catch(Exception e){
-            System.err.println("Warning: Could not extract API version from "+
-                    controllerClass.getName()+(methodName!=null ? "."+methodName : "")+
-                    ": "+e.getMessage());
         }
-        return null;
+        return !sparse;
     }
 
-    private String getRequestMappingPath(Class<?> controllerClass) {
+    private record RequestLinkBase(String baseUrl, String apiVersion, boolean allLinks) {
+    }
+
+    // The mapping path split around {apiVersion}, with the paths of the declared versions joined in advance
+    private static final class ControllerLinkTemplate {
+
+        private final String[] pathParts;
+        private final String classVersionPath;
+        private final Map<String, String> methodVersionPaths;
+
+        private ControllerLinkTemplate(String[] pathParts, String classVersionPath, Map<String, String> methodVersionPaths) {
+            this.pathParts = pathParts;
+            this.classVersionPath = classVersionPath;
+            this.methodVersionPaths = methodVersionPaths;
+        }
+
+        static ControllerLinkTemplate of(Class<?> controllerClass){
+            String[] pathParts = getRequestMappingPath(controllerClass).split(Pattern.quote(API_VERSION_VARIABLE), -1);
+
+            ApiVersion classVersion = AnnotatedElementUtils.findMergedAnnotation(controllerClass,ApiVersion.class);
+            String classVersionPath = classVersion != null ? join(pathParts, String.valueOf(classVersion.value())) : null;
+
+            // the first declared method of a name decides, as overloads are not told apart by name
+            Map<String, String> methodVersionPaths = new HashMap<>();
+            Map<String, Boolean> seenMethods = new HashMap<>();
+            for(Method method : controllerClass.getDeclaredMethods()){
+                if(seenMethods.putIfAbsent(method.getName(), Boolean.TRUE) != null){
+                    continue;
+                }
+                ApiVersion methodVersion = AnnotatedElementUtils.findMergedAnnotation(method,ApiVersion.class);
+                if(methodVersion != null){
+                    methodVersionPaths.put(method.getName(), join(pathParts, String.valueOf(methodVersion.value())));
+                }
+            }
+            return new ControllerLinkTemplate(pathParts, classVersionPath, Map.copyOf(methodVersionPaths));
+        }
 
-        RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(controllerClass, RequestMapping.class);
+        String path(String methodName, String requestApiVersion){
+            if(methodName != null){
+                String methodVersionPath = methodVersionPaths.get(methodName);
+                if(methodVersionPath != null){
+                    return methodVersionPath;
+                }
+            }
+            return classVersionPath != null ? classVersionPath : join(pathParts, requestApiVersion);
+        }
 
-        if (requestMapping != null && requestMapping.value().length > 0) {
-            return requestMapping.value()[0];
+        private static String join(String[] pathParts, String apiVersion){
+            return pathParts.length == 1 ? pathParts[0] : String.join(apiVersion, pathParts);
         }
 
-        throw new IllegalStateException("Controller "+controllerClass.getSimpleName()+
-                " must have @RequestMapping annotation with value");
+        private static String getRequestMappingPath(Class<?> controllerClass) {
 
+            RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(controllerClass, RequestMapping.class);
+
+            if (requestMapping != null && requestMapping.value().length > 0) {
+                return requestMapping.value()[0];
+            }
+
+            throw new IllegalStateException("Controller "+controllerClass.getSimpleName()+
+                    " must have @RequestMapping annotation with value");
+
+        }
     }
 }
@@ -0,0 +1,8 @@
+package com.mjc.school.controller.assembler;
+
+// Receives the links of a model as LinkBuilderUtil.buildLink arguments, so they can be built eagerly or written directly
+@FunctionalInterface
+public interface LinkWriter {
+
+    void link(String rel, Class<?> controllerClass, String methodName, Object... pathVariables);
+}
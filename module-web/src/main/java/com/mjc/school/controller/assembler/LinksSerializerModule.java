@@ -0,0 +1,168 @@
+package com.mjc.school.controller.assembler;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toMap;
+
+// Writes the HAL _links of the assembled models straight into the generator from the controller link templates,
+// instead of the assemblers attaching Link objects to every model before serialization
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class LinksSerializerModule extends SimpleModule {
+
+    private static final SerializedString LINKS = new SerializedString("_links");
+    private static final SerializedString HREF = new SerializedString("href");
+
+    public LinksSerializerModule(List<ModelLinksWriter<?>> linksWriters, LinkBuilderUtil linkBuilder) {
+        super(LinksSerializerModule.class.getSimpleName());
+        Map<Class<?>, ModelLinksWriter> writersByType = linksWriters.stream()
+            .collect(toMap(ModelLinksWriter::getModelType, Function.identity()));
+
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(
+                SerializationConfig config,
+                BeanDescription beanDesc,
+                List<BeanPropertyWriter> beanProperties
+            ) {
+                ModelLinksWriter linksWriter = writersByType.get(beanDesc.getBeanClass());
+                if (linksWriter == null || beanProperties.isEmpty()) {
+                    return beanProperties;
+                }
+                List<BeanPropertyWriter> properties = new ArrayList<>(beanProperties);
+                // HAL writes the Link objects a model carries as _links too, they go into the one written here
+                BeanPropertyWriter attachedLinks = null;
+                for (BeanPropertyWriter property : beanProperties) {
+                    if (LINKS.getValue().equals(property.getName())) {
+                        attachedLinks = property;
+                        properties.remove(property);
+                    }
+                }
+                properties.add(new LinksPropertyWriter(beanProperties.get(0), attachedLinks, linksWriter, linkBuilder));
+                return properties;
+            }
+        });
+    }
+
+    // a virtual _links property, it borrows the metadata of a real property and replaces its serialization
+    private static final class LinksPropertyWriter extends BeanPropertyWriter {
+
+        private final BeanPropertyWriter attachedLinks;
+        private final transient ModelLinksWriter linksWriter;
+        private final transient LinkBuilderUtil linkBuilder;
+
+        private LinksPropertyWriter(BeanPropertyWriter base, BeanPropertyWriter attachedLinks,
+                                    ModelLinksWriter linksWriter, LinkBuilderUtil linkBuilder) {
+            super(base, PropertyName.construct(LINKS.getValue()));
+            this.attachedLinks = attachedLinks;
+            this.linksWriter = linksWriter;
+            this.linkBuilder = linkBuilder;
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws IOException {
+            // links are relative to the current request, outside of one only those the model carries are written
+            if (RequestContextHolder.getRequestAttributes() == null) {
+                if (attachedLinks != null) {
+                    attachedLinks.serializeAsField(bean, gen, prov);
+                }
+                return;
+            }
+            gen.writeFieldName(LINKS);
+            gen.writeStartObject();
+            Set<String> attachedRels = writeAttachedLinks(bean, gen, prov);
+            try {
+                linksWriter.writeLinks(bean, new JsonLinkWriter(gen, linkBuilder, attachedRels));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            gen.writeEndObject();
+        }
+
+        // the rels as HAL writes them, copied into the open _links object; a carried rel is not written twice
+        private Set<String> writeAttachedLinks(Object bean, JsonGenerator gen, SerializerProvider prov) throws IOException {
+            if (attachedLinks == null || !((RepresentationModel<?>) bean).hasLinks()) {
+                return Set.of();
+            }
+            TokenBuffer buffer = new TokenBuffer(gen.getCodec(), false);
+            buffer.writeStartObject();
+            attachedLinks.serializeAsField(bean, buffer, prov);
+            buffer.writeEndObject();
+            Set<String> rels = new HashSet<>();
+            try (JsonParser parser = buffer.asParser()) {
+                // the wrapping object, the _links name and the object of the links
+                parser.nextToken();
+                parser.nextToken();
+                parser.nextToken();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String rel = parser.getCurrentName();
+                    rels.add(rel);
+                    gen.writeFieldName(rel);
+                    parser.nextToken();
+                    gen.copyCurrentStructure(parser);
+                }
+            }
+            return rels;
+        }
+    }
+
+    // one per model: the href of every link is built in the same buffer and copied out without a String
+    private static final class JsonLinkWriter implements LinkWriter {
+
+        private final JsonGenerator gen;
+        private final LinkBuilderUtil linkBuilder;
+        private final Set<String> attachedRels;
+        private final StringBuilder href = new StringBuilder(128);
+        private char[] chars = new char[128];
+
+        private JsonLinkWriter(JsonGenerator gen, LinkBuilderUtil linkBuilder, Set<String> attachedRels) {
+            this.gen = gen;
+            this.linkBuilder = linkBuilder;
+            this.attachedRels = attachedRels;
+        }
+
+        @Override
+        public void link(String rel, Class<?> controllerClass, String methodName, Object... pathVariables) {
+            if (!linkBuilder.includesLink(rel) || attachedRels.contains(rel)) {
+                return;
+            }
+            href.setLength(0);
+            linkBuilder.appendLink(href, controllerClass, methodName, pathVariables);
+            int length = href.length();
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            href.getChars(0, length, chars, 0);
+            try {
+                gen.writeFieldName(rel);
+                gen.writeStartObject();
+                gen.writeFieldName(HREF);
+                gen.writeString(chars, 0, length);
+                gen.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.mjc.school.controller.assembler;
+
+import org.springframework.hateoas.RepresentationModel;
+
+// The links of one model type, declared once for both the eager assemblers and LinksSerializerModule
+public interface ModelLinksWriter<T extends RepresentationModel<? extends T>> {
+
+    Class<T> getModelType();
+
+    void writeLinks(T model, LinkWriter links);
+}
@@ -11,7 +11,7 @@ import org.springframework.stereotype.Component;
 
 
 @Component
-public class NewsModelAssembler implements RepresentationModelAssembler<NewsDtoResponse, NewsDtoResponse> {
+public class NewsModelAssembler implements RepresentationModelAssembler<NewsDtoResponse, NewsDtoResponse>, ModelLinksWriter<NewsDtoResponse> {
 
     private final AuthorModelAssembler authorAssembler;
     private final TagModelAssembler tagAssembler;
@@ -27,18 +27,7 @@ public class NewsModelAssembler implements RepresentationModelAssembler<NewsDtoR
     @Override
     public NewsDtoResponse toModel(NewsDtoResponse news) {
 
-        news.add(Link.of(linkBuilder.buildResourceLink(
-                AuthorController.class,news.getId()),"self"));
-
-        news.add(Link.of(linkBuilder.buildCollectionLink(NewsController.class),"news"));
-
-        news.add(Link.of(linkBuilder.buildResourceLink(NewsController.class,news.getId()),"update"));
-
-        news.add(Link.of(linkBuilder.buildResourceLink(NewsController.class,news.getId()),"delete"));
-
-        news.add(Link.of(linkBuilder.buildNestedResourceLink(NewsController.class,news.getId(),"author"),"author"));
-        news.add(Link.of(linkBuilder.buildNestedResourceLink(NewsController.class,news.getId(),"tags"),"tags"));
-        news.add(Link.of(linkBuilder.buildNestedResourceLink(NewsController.class,news.getId(),"comments"),"comments"));
+        linkBuilder.addLinks(news, this);
 
         if(news.getAuthorDto()!=null){
             authorAssembler.toModel(news.getAuthorDto());
@@ -50,6 +39,27 @@ public class NewsModelAssembler implements RepresentationModelAssembler<NewsDtoR
         return news;
     }
 
+    @Override
+    public Class<NewsDtoResponse> getModelType() {
+        return NewsDtoResponse.class;
+    }
+
+    @Override
+    public void writeLinks(NewsDtoResponse news, LinkWriter links) {
+
+        links.link("self",AuthorController.class,null,news.getId());
+
+        links.link("news",NewsController.class,null);
+
+        links.link("update",NewsController.class,null,news.getId());
+
+        links.link("delete",NewsController.class,null,news.getId());
+
+        links.link("author",NewsController.class,null,news.getId(),"author");
+        links.link("tags",NewsController.class,null,news.getId(),"tags");
+        links.link("comments",NewsController.class,null,news.getId(),"comments");
+    }
+
     @Override
     public CollectionModel<NewsDtoResponse> toCollectionModel(Iterable<? extends NewsDtoResponse> entities) {
         CollectionModel<NewsDtoResponse> newsModels =  RepresentationModelAssembler.super.toCollectionModel(entities);
@@ -16,19 +16,24 @@ public class PageModelAssembler {
             String baseUrl) {
 
         int currentPage = page.getCurrentPage();
-        int totalPages = page.getPageCount();
+        // unknown when the count was skipped, the next link then relies on hasNext alone
+        Integer totalPages = page.getPageCount();
 
-        page.add(createPageLink(baseUrl, searchRequest, currentPage).withSelfRel());
+        page.add(createPageLink(baseUrl, searchRequest, currentPage, searchRequest.getAfter()).withSelfRel());
 
         page.add(createPageLink(baseUrl, searchRequest, 1).withRel("first"));
 
-        page.add(createPageLink(baseUrl, searchRequest, totalPages).withRel("last"));
+        if (totalPages != null) {
+            page.add(createPageLink(baseUrl, searchRequest, totalPages).withRel("last"));
+        }
 
         if (currentPage > 1) {
             page.add(createPageLink(baseUrl, searchRequest, currentPage - 1).withRel("prev"));
         }
 
-        if (currentPage < totalPages) {
+        if (page.getNextCursor() != null) {
+            page.add(createPageLink(baseUrl, searchRequest, currentPage + 1, page.getNextCursor()).withRel("next"));
+        } else if (page.getHasNext() || (totalPages != null && currentPage < totalPages)) {
             page.add(createPageLink(baseUrl, searchRequest, currentPage + 1).withRel("next"));
         }
 
@@ -36,6 +41,10 @@ public class PageModelAssembler {
     }
 
     private Link createPageLink(String baseUrl, ResourceSearchFilterRequestDTO searchRequest, int pageNumber) {
+        return createPageLink(baseUrl, searchRequest, pageNumber, null);
+    }
+
+    private Link createPageLink(String baseUrl, ResourceSearchFilterRequestDTO searchRequest, int pageNumber, String after) {
         UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(baseUrl)
                 .queryParam("page", pageNumber)
                 .queryParam("pageSize", searchRequest.getPageSize());
@@ -50,6 +59,18 @@ public class PageModelAssembler {
                     builder.queryParam("searchCriteria", filter));
         }
 
+        if (after != null && !after.isBlank()) {
+            builder.queryParam("after", after);
+        }
+
+        if (searchRequest.getCountPolicy() != null && !searchRequest.getCountPolicy().isBlank()) {
+            builder.queryParam("countPolicy", searchRequest.getCountPolicy());
+        }
+
+        if (searchRequest.getFields() != null && !searchRequest.getFields().isEmpty()) {
+            builder.queryParam("fields", String.join(",", searchRequest.getFields()));
+        }
+
         return Link.of(builder.toUriString());
     }
 }
\ No newline at end of file
@@ -9,7 +9,7 @@ import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
 @Component
-public class TagModelAssembler implements RepresentationModelAssembler<TagDtoResponse,TagDtoResponse> {
+public class TagModelAssembler implements RepresentationModelAssembler<TagDtoResponse,TagDtoResponse>, ModelLinksWriter<TagDtoResponse> {
 
     private final LinkBuilderUtil linkBuilder;
 
@@ -20,17 +20,24 @@ public class TagModelAssembler implements RepresentationModelAssembler<TagDtoRes
 
     @Override
     public TagDtoResponse toModel(TagDtoResponse tag) {
+        return linkBuilder.addLinks(tag, this);
+    }
 
-        tag.add(Link.of(linkBuilder.buildResourceLinkForMethod(
-                TagController.class,"readById",tag.getId()),"self"));
+    @Override
+    public Class<TagDtoResponse> getModelType() {
+        return TagDtoResponse.class;
+    }
+
+    @Override
+    public void writeLinks(TagDtoResponse tag, LinkWriter links) {
 
-        tag.add(Link.of(linkBuilder.buildCollectionLink(TagController.class),"tags"));
+        links.link("self",TagController.class,"readById",tag.getId());
 
-        tag.add(Link.of(linkBuilder.buildResourceLink(TagController.class,tag.getId()),"update"));
+        links.link("tags",TagController.class,null);
 
-        tag.add(Link.of(linkBuilder.buildResourceLink(TagController.class,tag.getId()),"delete"));
+        links.link("update",TagController.class,null,tag.getId());
 
-        return tag;
+        links.link("delete",TagController.class,null,tag.getId());
     }
 
     @Override
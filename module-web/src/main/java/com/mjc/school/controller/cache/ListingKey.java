@@ -0,0 +1,59 @@
+package com.mjc.school.controller.cache;
+
+import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
+import com.mjc.school.service.event.ResourceType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+// The request URL carries the resource, the API version and the host the links are built from,
+// the rest is the search request with its lists split, trimmed and, where the order does not matter, sorted
+record ListingKey(
+        String url,
+        int page,
+        int pageSize,
+        List<String> sortByAndOrder,
+        List<String> searchCriteria,
+        String after,
+        String countPolicy,
+        Set<String> fields,
+        Set<ResourceType> shownResources) {
+
+    static ListingKey of(String url, ResourceSearchFilterRequestDTO searchRequest, Set<ResourceType> shownResources) {
+        return new ListingKey(
+                url,
+                searchRequest.getPage(),
+                searchRequest.getPageSize(),
+                split(searchRequest.getSortByAndOrder(), new ArrayList<>()),
+                split(searchRequest.getSearchFilter(), new ArrayList<>()),
+                searchRequest.getAfter(),
+                searchRequest.getCountPolicy(),
+                split(searchRequest.getFields(), new TreeSet<>()),
+                shownResources);
+    }
+
+    boolean showsAny(Set<ResourceType> resources) {
+        for (ResourceType resource : resources) {
+            if (shownResources.contains(resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <C extends Collection<String>> C split(List<String> values, C target) {
+        if (values != null) {
+            for (String value : values) {
+                for (String part : value.split(",")) {
+                    if (!part.isBlank()) {
+                        target.add(part.trim());
+                    }
+                }
+            }
+        }
+        return target;
+    }
+}
@@ -0,0 +1,201 @@
+package com.mjc.school.controller.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mjc.school.controller.conditional.ConditionalRequestUtil;
+import com.mjc.school.service.dto.PageDtoResponse;
+import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
+import com.mjc.school.service.dto.ResourceVersionDto;
+import com.mjc.school.service.event.ResourceChangedEvent;
+import com.mjc.school.service.event.ResourceType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Serialized listing pages. A hot page is written again from its bytes until a service changes one of the
+// resources it shows, so neither the queries nor the mapping, links and JSON are redone for it.
+// The ETag of a page is kept with its bytes, a conditional request for a hot page is answered from it too.
+@Component
+public class ListingResponseCache {
+
+    private static final String CACHE_NAME = "listing-responses";
+
+    private final boolean enabled;
+    private final Cache<ListingKey, CachedResponse> responses;
+    private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+    private final ConditionalRequestUtil conditionalRequests;
+
+    // moved by every invalidation, a page read before one of them is not put into the cache
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile HttpMessageConverter<Object> pageConverter;
+
+    public ListingResponseCache(
+            @Value("${news.response-cache.enabled:true}") boolean enabled,
+            @Value("${news.response-cache.max-size:32MB}") DataSize maxSize,
+            @Value("${news.response-cache.ttl:30s}") Duration ttl,
+            MeterRegistry meterRegistry,
+            ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter,
+            ConditionalRequestUtil conditionalRequests) {
+        this.enabled = enabled;
+        this.handlerAdapter = handlerAdapter;
+        this.conditionalRequests = conditionalRequests;
+        // size-bounded Caffeine evicts with W-TinyLFU, the weight of a page is the length of its body
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((ListingKey key, CachedResponse response) -> response.body().length)
+                // pages and their ETags written around the services are served for at most that long
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+        Gauge.builder("cache.weight", responses,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .tag("cache", CACHE_NAME)
+                .baseUnit("bytes")
+                .description("Bytes held by the cached response bodies")
+                .register(meterRegistry);
+    }
+
+    // writes the cached page, or the one read now, straight into the response and returns null, as it does
+    // for a request found not modified; the page itself is returned only when the cache is disabled
+    public <R> PageDtoResponse<R> respond(
+            WebRequest webRequest,
+            ResourceSearchFilterRequestDTO searchRequest,
+            Set<ResourceType> shownResources,
+            Supplier<Optional<ResourceVersionDto>> versionReader,
+            Supplier<PageDtoResponse<R>> pageReader) {
+        if (!enabled) {
+            return conditionalRequests.isListNotModified(webRequest, shownResources, versionReader)
+                    ? null : pageReader.get();
+        }
+        HttpServletRequest request = ((NativeWebRequest) webRequest).getNativeRequest(HttpServletRequest.class);
+        ListingKey key = ListingKey.of(request.getRequestURL().toString(), searchRequest, shownResources);
+
+        CachedResponse response = responses.getIfPresent(key);
+        if (response == null) {
+            long readGeneration = generation.get();
+            String etag = conditionalRequests.readListEtag(webRequest, shownResources, versionReader);
+            if (isNotModified(webRequest, etag)) {
+                return null;
+            }
+            response = serialize(pageReader.get(), etag);
+            if (readGeneration == generation.get()) {
+                responses.put(key, response);
+            }
+        } else if (isNotModified(webRequest, response.etag())) {
+            return null;
+        }
+        write(response, ((NativeWebRequest) webRequest).getNativeResponse(HttpServletResponse.class));
+        return null;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    // once when the change is made and once more when its transaction ends, a page read in between is stale
+    @EventListener
+    public void onResourceChanged(ResourceChangedEvent event) {
+        invalidate(event.resources());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterResourceChangeCompleted(ResourceChangedEvent event) {
+        invalidate(event.resources());
+    }
+
+    private void invalidate(Set<ResourceType> resources) {
+        generation.incrementAndGet();
+        responses.asMap().keySet().removeIf(key -> key.showsAny(resources));
+    }
+
+    // sets the ETag of a page that is written, as Spring MVC does when the request was conditional
+    private boolean isNotModified(WebRequest webRequest, String etag) {
+        return etag != null && webRequest.checkNotModified(etag);
+    }
+
+    private CachedResponse serialize(PageDtoResponse<?> page, String etag) {
+        BufferedOutputMessage message = new BufferedOutputMessage();
+        try {
+            getPageConverter().write(page, MediaType.APPLICATION_JSON, message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        MediaType contentType = message.getHeaders().getContentType();
+        return new CachedResponse(
+                (contentType != null ? contentType : MediaType.APPLICATION_JSON).toString(), message.body.toByteArray(),
+                etag);
+    }
+
+    private void write(CachedResponse response, HttpServletResponse servletResponse) {
+        servletResponse.setContentType(response.contentType());
+        servletResponse.setContentLength(response.body().length);
+        try {
+            servletResponse.getOutputStream().write(response.body());
+            servletResponse.flushBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // the converter Spring MVC picks for a page, so the cached bytes are those it would have written
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> getPageConverter() {
+        HttpMessageConverter<Object> converter = pageConverter;
+        if (converter == null) {
+            converter = (HttpMessageConverter<Object>) handlerAdapter.getObject().getMessageConverters().stream()
+                    .filter(candidate -> candidate.canWrite(PageDtoResponse.class, MediaType.APPLICATION_JSON))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No message converter writes pages as JSON"));
+            pageConverter = converter;
+        }
+        return converter;
+    }
+
+    private record CachedResponse(String contentType, byte[] body, String etag) {
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(8192);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.mjc.school.controller.conditional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mjc.school.service.dto.ResourceVersionDto;
+import com.mjc.school.service.event.ResourceChangedEvent;
+import com.mjc.school.service.event.ResourceType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Answers If-None-Match and If-Modified-Since from the version of a resource, so that an unchanged
+// resource is neither read nor serialized. Handlers return null once a request is found not modified.
+// A version is read by the first request for a resource, then kept until a service changes what it covers,
+// so the following requests, conditional or not, are answered without its aggregate queries. The services
+// are assumed to be the only writers; rows written around them move the version once it expires.
+@Component
+public class ConditionalRequestUtil {
+
+    private final Cache<VersionKey, ResourceVersionDto> versions;
+
+    // moved by every invalidation, a version read before one of them is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    public ConditionalRequestUtil(
+            @Value("${news.conditional.max-versions:10000}") long maxVersions,
+            @Value("${news.conditional.version-ttl:30s}") Duration versionTtl) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxVersions)
+                .expireAfterWrite(versionTtl)
+                .build();
+    }
+
+    public boolean isResourceNotModified(WebRequest webRequest, Set<ResourceType> shownResources,
+                                         Supplier<Optional<ResourceVersionDto>> versionReader){
+        // fields and API version only change the ETag, the version itself is that of the resource
+        Optional<ResourceVersionDto> version = readVersion(requestUrl(webRequest, false), shownResources, versionReader);
+        if(version.isEmpty() || version.get().lastModified() == null){
+            return false;
+        }
+        Instant lastModified = toInstant(version.get());
+        return webRequest.checkNotModified(createEtag(webRequest, version.get()), lastModified.toEpochMilli());
+    }
+
+    // a deletion does not move the latest modification date of a listing, so it is told by its ETag alone
+    public boolean isListNotModified(WebRequest webRequest, Set<ResourceType> shownResources,
+                                     Supplier<Optional<ResourceVersionDto>> versionReader){
+        String etag = readListEtag(webRequest, shownResources, versionReader);
+        return etag != null && webRequest.checkNotModified(etag);
+    }
+
+    // the ETag of a listing, null when its service keeps no version for it
+    public String readListEtag(WebRequest webRequest, Set<ResourceType> shownResources,
+                               Supplier<Optional<ResourceVersionDto>> versionReader){
+        return readVersion(requestUrl(webRequest, true), shownResources, versionReader)
+                .map(version -> createEtag(webRequest, version))
+                .orElse(null);
+    }
+
+    public void invalidateAll(){
+        generation.incrementAndGet();
+        versions.invalidateAll();
+    }
+
+    // once when the change is made and once more when its transaction ends, a version read in between is stale
+    @EventListener
+    public void onResourceChanged(ResourceChangedEvent event){
+        invalidate(event.resources());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterResourceChangeCompleted(ResourceChangedEvent event){
+        invalidate(event.resources());
+    }
+
+    private void invalidate(Set<ResourceType> resources){
+        generation.incrementAndGet();
+        versions.asMap().keySet().removeIf(key -> key.showsAny(resources));
+    }
+
+    private Optional<ResourceVersionDto> readVersion(String url, Set<ResourceType> shownResources,
+                                                     Supplier<Optional<ResourceVersionDto>> versionReader){
+        VersionKey key = new VersionKey(url, shownResources);
+        ResourceVersionDto version = versions.getIfPresent(key);
+        if(version != null){
+            return Optional.of(version);
+        }
+        long readGeneration = generation.get();
+        Optional<ResourceVersionDto> readVersion = versionReader.get();
+        if(readVersion.isPresent() && readGeneration == generation.get()){
+            versions.put(key, readVersion.get());
+        }
+        return readVersion;
+    }
+
+    // weak, as the representation also depends on the URL: API version, fields, page and sorting
+    private String createEtag(WebRequest webRequest, ResourceVersionDto version){
+        StringBuilder etag = new StringBuilder(48).append("W/\"").append(Long.toHexString(version.fingerprint()));
+        if(version.lastModified() != null){
+            Instant lastModified = toInstant(version);
+            etag.append('-').append(Long.toHexString(lastModified.getEpochSecond()))
+                    .append('.').append(Integer.toHexString(lastModified.getNano()));
+        }
+        String url = requestUrl(webRequest, true);
+        if(url != null){
+            etag.append('-').append(Integer.toHexString(url.hashCode()));
+        }
+        return etag.append('"').toString();
+    }
+
+    private String requestUrl(WebRequest webRequest, boolean withQuery){
+        HttpServletRequest request = ((NativeWebRequest) webRequest).getNativeRequest(HttpServletRequest.class);
+        if(request == null){
+            return null;
+        }
+        return !withQuery || request.getQueryString() == null ? request.getRequestURL().toString()
+                : request.getRequestURL().append('?').append(request.getQueryString()).toString();
+    }
+
+    // modification dates are stored in the local time of the application
+    private Instant toInstant(ResourceVersionDto version){
+        return version.lastModified().atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private record VersionKey(String url, Set<ResourceType> shownResources) {
+
+        boolean showsAny(Set<ResourceType> resources){
+            for (ResourceType resource : resources) {
+                if (shownResources.contains(resource)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
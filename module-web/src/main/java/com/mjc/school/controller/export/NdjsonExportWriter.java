@@ -0,0 +1,61 @@
+package com.mjc.school.controller.export;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mjc.school.service.export.ResourceExport;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Writes an export as newline-delimited JSON, one resource per line, while it is read. Only the generator
+// buffer is held, it is flushed to the client whenever it fills up rather than after every resource.
+@Component
+public class NdjsonExportWriter {
+
+    private final ObjectWriter writer;
+
+    public NdjsonExportWriter(ObjectMapper objectMapper) {
+        // exported resources carry their data only, links are relative to a request and there is none by then
+        this.writer = objectMapper.copy()
+                .addMixIn(RepresentationModel.class, WithoutLinks.class)
+                .writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public <R> ResponseEntity<StreamingResponseBody> write(ResourceExport<R> export) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // lines are ended explicitly, no separator goes between the root values
+                generator.setRootValueSeparator(null);
+                try {
+                    export.forEach(resource -> writeLine(generator, resource));
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(JsonGenerator generator, Object resource) {
+        try {
+            writer.writeValue(generator, resource);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @JsonIgnoreProperties("links")
+    private abstract static class WithoutLinks {
+    }
+}
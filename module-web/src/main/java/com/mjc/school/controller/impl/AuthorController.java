@@ -4,18 +4,30 @@ import com.mjc.school.controller.BaseController;
 import com.mjc.school.controller.assembler.AuthorModelAssembler;
 import com.mjc.school.controller.assembler.LinkBuilderUtil;
 import com.mjc.school.controller.assembler.PageModelAssembler;
+import com.mjc.school.controller.cache.ListingResponseCache;
+import com.mjc.school.controller.conditional.ConditionalRequestUtil;
+import com.mjc.school.controller.export.NdjsonExportWriter;
 import com.mjc.school.service.BaseService;
 import com.mjc.school.service.dto.AuthorDtoRequest;
 import com.mjc.school.service.dto.AuthorDtoResponse;
+import com.mjc.school.service.dto.BulkResponseDto;
 import com.mjc.school.service.dto.PageDtoResponse;
 import com.mjc.school.service.dto.ResourceSearchFilterRequestDTO;
+import com.mjc.school.service.event.ResourceType;
 import com.mjc.school.versioning.ApiVersion;
 
 import io.swagger.annotations.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 import static com.mjc.school.controller.RestApiConst.AUTHOR_API_ROOT_PATH;
 
@@ -26,19 +38,28 @@ import static com.mjc.school.controller.RestApiConst.AUTHOR_API_ROOT_PATH;
 public class AuthorController
     implements BaseController<AuthorDtoRequest, AuthorDtoResponse, Long, ResourceSearchFilterRequestDTO, AuthorDtoRequest> {
 
+    // the news counts they show move with every news written
+    private static final Set<ResourceType> SHOWN_RESOURCES = EnumSet.of(ResourceType.AUTHOR, ResourceType.NEWS);
+
     private final BaseService<AuthorDtoRequest, AuthorDtoResponse, Long, ResourceSearchFilterRequestDTO, AuthorDtoRequest> authorService;
     private final AuthorModelAssembler authorAssembler;
     private final PageModelAssembler pageAssembler;
     private final LinkBuilderUtil linkBuilder;
+    private final ConditionalRequestUtil conditionalRequests;
+    private final ListingResponseCache listingCache;
+    private final NdjsonExportWriter exportWriter;
 
     @Autowired
     public AuthorController(
         final BaseService<AuthorDtoRequest, AuthorDtoResponse, Long, ResourceSearchFilterRequestDTO, AuthorDtoRequest> authorService
-    ,final AuthorModelAssembler authorAssembler,final PageModelAssembler pageAssembler,final LinkBuilderUtil linkBuilder) {
+    ,final AuthorModelAssembler authorAssembler,final PageModelAssembler pageAssembler,final LinkBuilderUtil linkBuilder,final ConditionalRequestUtil conditionalRequests,final ListingResponseCache listingCache,final NdjsonExportWriter exportWriter) {
         this.authorService = authorService;
         this.authorAssembler=authorAssembler;
         this.pageAssembler=pageAssembler;
         this.linkBuilder = linkBuilder;
+        this.conditionalRequests = conditionalRequests;
+        this.listingCache = listingCache;
+        this.exportWriter = exportWriter;
     }
 
     @ApiOperation(value = "View all author", response = PageDtoResponse.class)
@@ -53,13 +74,33 @@ public class AuthorController
     @Override
     @GetMapping
     public PageDtoResponse<AuthorDtoResponse> readAll(
-            final ResourceSearchFilterRequestDTO searchRequest) {
-        PageDtoResponse<AuthorDtoResponse> page = authorService.readAll(searchRequest);
+            final ResourceSearchFilterRequestDTO searchRequest,
+            WebRequest webRequest) {
+        return listingCache.respond(webRequest, searchRequest, SHOWN_RESOURCES,
+                () -> authorService.readListVersion(searchRequest), () -> {
+            PageDtoResponse<AuthorDtoResponse> page = authorService.readAll(searchRequest);
 
-        page.getModelDtoList().forEach(authorAssembler::toModel);
+            page.getModelDtoList().forEach(authorAssembler::toModel);
 
-        String baseUrl = linkBuilder.buildCollectionLink(AuthorController.class);
-        return pageAssembler.addPaginationLinks(page,searchRequest,baseUrl);
+            String baseUrl = linkBuilder.buildCollectionLink(AuthorController.class);
+            return pageAssembler.addPaginationLinks(page,searchRequest,baseUrl);
+        });
+    }
+
+    @ApiOperation(value = "Export all authors matching the search criteria as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully exported the authors"),
+            @ApiResponse(code = 400, message = "The search request is not valid"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    // JSON stays producible for the error response of a search request that is not valid
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportAll(final ResourceSearchFilterRequestDTO searchRequest) {
+        return exportWriter.write(authorService.exportAll(searchRequest));
     }
 
     @ApiOperation(value = "Retrieve specific author with the supplied id", response = AuthorDtoResponse.class)
@@ -74,8 +115,14 @@ public class AuthorController
     @Override
     @ApiVersion(2)
     @GetMapping("/{id}")
-    public AuthorDtoResponse readById(@PathVariable Long id) {
-        AuthorDtoResponse author = authorService.readById(id);
+    public AuthorDtoResponse readById(
+            @PathVariable Long id,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest webRequest) {
+        if(conditionalRequests.isResourceNotModified(webRequest, SHOWN_RESOURCES, () -> authorService.readVersion(id))){
+            return null;
+        }
+        AuthorDtoResponse author = authorService.readById(id, fields);
         return authorAssembler.toModel(author);
     }
 
@@ -131,4 +178,40 @@ public class AuthorController
     public void deleteById(@PathVariable Long id) {
         authorService.deleteById(id);
     }
+
+    @ApiOperation(value = "Create authors in bulk, with an outcome per item", response = BulkResponseDto.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Processed every item, each one has a status of its own"),
+            @ApiResponse(code = 400, message = "The request holds no items or more than the bulk limit"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    @PostMapping("/bulk")
+    public BulkResponseDto<AuthorDtoResponse> createAll(
+            @RequestBody List<AuthorDtoRequest> createRequests) {
+        BulkResponseDto<AuthorDtoResponse> response = authorService.createAll(createRequests);
+        response.getResults().stream()
+            .filter(result -> result.resource() != null)
+            .forEach(result -> authorAssembler.toModel(result.resource()));
+        return response;
+    }
+
+    @ApiOperation(value = "Delete authors in bulk by id, with an outcome per id", response = BulkResponseDto.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Processed every id, each one has a status of its own"),
+            @ApiResponse(code = 400, message = "The request holds no ids or more than the bulk limit"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    @DeleteMapping("/bulk")
+    public BulkResponseDto<Void> deleteAll(
+            @RequestBody List<Long> ids) {
+        return authorService.deleteAll(ids);
+    }
 }
@@ -4,14 +4,25 @@ import com.mjc.school.controller.BaseController;
 import com.mjc.school.controller.assembler.CommentModelAssembler;
 import com.mjc.school.controller.assembler.LinkBuilderUtil;
 import com.mjc.school.controller.assembler.PageModelAssembler;
+import com.mjc.school.controller.cache.ListingResponseCache;
+import com.mjc.school.controller.conditional.ConditionalRequestUtil;
+import com.mjc.school.controller.export.NdjsonExportWriter;
 import com.mjc.school.service.BaseService;
 import com.mjc.school.service.dto.*;
+import com.mjc.school.service.event.ResourceType;
 import com.mjc.school.versioning.ApiVersion;
 import io.swagger.annotations.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 import static com.mjc.school.controller.RestApiConst.COMMENTS_API_ROOT_PATH;
 
@@ -22,21 +33,32 @@ import static com.mjc.school.controller.RestApiConst.COMMENTS_API_ROOT_PATH;
 public class CommentController
     implements BaseController<CommentsDtoRequest, CommentsDtoResponse, Long, ResourceSearchFilterRequestDTO, CommentsDtoRequest> {
 
+    private static final Set<ResourceType> SHOWN_RESOURCES = EnumSet.of(ResourceType.COMMENT);
+
     private final BaseService<CommentsDtoRequest, CommentsDtoResponse, Long, ResourceSearchFilterRequestDTO, CommentsDtoRequest> commentsService;
     private final CommentModelAssembler commentAssembler;
     private final PageModelAssembler pageAssembler;
     private final LinkBuilderUtil linkBuilder;
+    private final ConditionalRequestUtil conditionalRequests;
+    private final ListingResponseCache listingCache;
+    private final NdjsonExportWriter exportWriter;
 
     @Autowired
     public CommentController(
             final BaseService<CommentsDtoRequest, CommentsDtoResponse, Long, ResourceSearchFilterRequestDTO, CommentsDtoRequest> commentsService,
             final CommentModelAssembler commentAssembler,
             final PageModelAssembler pageAssembler,
-            final LinkBuilderUtil linkBuilder) {
+            final LinkBuilderUtil linkBuilder,
+            final ConditionalRequestUtil conditionalRequests,
+            final ListingResponseCache listingCache,
+            final NdjsonExportWriter exportWriter) {
         this.commentsService = commentsService;
         this.commentAssembler = commentAssembler;
         this.pageAssembler = pageAssembler;
         this.linkBuilder = linkBuilder;
+        this.conditionalRequests = conditionalRequests;
+        this.listingCache = listingCache;
+        this.exportWriter = exportWriter;
     }
 
 
@@ -53,13 +75,33 @@ public class CommentController
     @Override
     @GetMapping
     public PageDtoResponse<CommentsDtoResponse> readAll(
-            final ResourceSearchFilterRequestDTO searchRequest) {
-        PageDtoResponse<CommentsDtoResponse> page = commentsService.readAll(searchRequest);
+            final ResourceSearchFilterRequestDTO searchRequest,
+            WebRequest webRequest) {
+        return listingCache.respond(webRequest, searchRequest, SHOWN_RESOURCES,
+                () -> commentsService.readListVersion(searchRequest), () -> {
+            PageDtoResponse<CommentsDtoResponse> page = commentsService.readAll(searchRequest);
 
-        page.getModelDtoList().forEach(commentAssembler::toModel);
+            page.getModelDtoList().forEach(commentAssembler::toModel);
 
-        String baseUrl = linkBuilder.buildCollectionLink(CommentController.class);
-        return pageAssembler.addPaginationLinks(page,searchRequest,baseUrl);
+            String baseUrl = linkBuilder.buildCollectionLink(CommentController.class);
+            return pageAssembler.addPaginationLinks(page,searchRequest,baseUrl);
+        });
+    }
+
+    @ApiOperation(value = "Export all comments matching the search criteria as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully exported the comments"),
+            @ApiResponse(code = 400, message = "The search request is not valid"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    // JSON stays producible for the error response of a search request that is not valid
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportAll(final ResourceSearchFilterRequestDTO searchRequest) {
+        return exportWriter.write(commentsService.exportAll(searchRequest));
     }
 
 
@@ -75,8 +117,14 @@ public class CommentController
     @Override
     @ApiVersion(2)
     @GetMapping("/{id}")
-    public CommentsDtoResponse readById(@PathVariable Long id) {
-        CommentsDtoResponse comment = commentsService.readById(id);
+    public CommentsDtoResponse readById(
+            @PathVariable Long id,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest webRequest) {
+        if(conditionalRequests.isResourceNotModified(webRequest, SHOWN_RESOURCES, () -> commentsService.readVersion(id))){
+            return null;
+        }
+        CommentsDtoResponse comment = commentsService.readById(id, fields);
         return commentAssembler.toModel(comment);
     }
 
@@ -133,4 +181,40 @@ public class CommentController
     public void deleteById(@PathVariable Long id) {
         commentsService.deleteById(id);
     }
+
+    @ApiOperation(value = "Create comments in bulk, with an outcome per item", response = BulkResponseDto.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Processed every item, each one has a status of its own"),
+            @ApiResponse(code = 400, message = "The request holds no items or more than the bulk limit"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    @PostMapping("/bulk")
+    public BulkResponseDto<CommentsDtoResponse> createAll(
+            @RequestBody List<CommentsDtoRequest> createRequests) {
+        BulkResponseDto<CommentsDtoResponse> response = commentsService.createAll(createRequests);
+        response.getResults().stream()
+            .filter(result -> result.resource() != null)
+            .forEach(result -> commentAssembler.toModel(result.resource()));
+        return response;
+    }
+
+    @ApiOperation(value = "Delete comments in bulk by id, with an outcome per id", response = BulkResponseDto.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Processed every id, each one has a status of its own"),
+            @ApiResponse(code = 400, message = "The request holds no ids or more than the bulk limit"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    @DeleteMapping("/bulk")
+    public BulkResponseDto<Void> deleteAll(
+            @RequestBody List<Long> ids) {
+        return commentsService.deleteAll(ids);
+    }
 }
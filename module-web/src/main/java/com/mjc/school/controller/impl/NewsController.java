@@ -2,8 +2,12 @@ package com.mjc.school.controller.impl;
 
 import com.mjc.school.controller.BaseController;
 import com.mjc.school.controller.assembler.*;
+import com.mjc.school.controller.cache.ListingResponseCache;
+import com.mjc.school.controller.conditional.ConditionalRequestUtil;
+import com.mjc.school.controller.export.NdjsonExportWriter;
 import com.mjc.school.service.BaseService;
 import com.mjc.school.service.dto.*;
+import com.mjc.school.service.event.ResourceType;
 import com.mjc.school.service.impl.AuthorService;
 import com.mjc.school.service.impl.CommentService;
 import com.mjc.school.service.impl.TagService;
@@ -12,9 +16,14 @@ import io.swagger.annotations.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import static com.mjc.school.controller.RestApiConst.NEWS_API_ROOT_PATH;
 
@@ -26,6 +35,10 @@ import static com.mjc.school.controller.RestApiConst.NEWS_API_ROOT_PATH;
 public class NewsController
     implements BaseController<CreateNewsDtoRequest, NewsDtoResponse, Long, ResourceSearchFilterRequestDTO, UpdateNewsDtoRequest> {
 
+    // the news embed their author, tags and comments
+    private static final Set<ResourceType> SHOWN_RESOURCES =
+        EnumSet.of(ResourceType.NEWS, ResourceType.AUTHOR, ResourceType.TAG, ResourceType.COMMENT);
+
     private final BaseService<CreateNewsDtoRequest, NewsDtoResponse, Long, ResourceSearchFilterRequestDTO, UpdateNewsDtoRequest> newsService;
     private final TagService tagService;
     private final AuthorService authorService;
@@ -36,6 +49,9 @@ public class NewsController
     private final CommentModelAssembler commentAssembler;
     private final PageModelAssembler pageAssembler;
     private final LinkBuilderUtil linkBuilder;
+    private final ConditionalRequestUtil conditionalRequests;
+    private final ListingResponseCache listingCache;
+    private final NdjsonExportWriter exportWriter;
 
 
     @Autowired
@@ -49,7 +65,10 @@ public class NewsController
          final TagModelAssembler tagAssembler,
          final CommentModelAssembler commentAssembler,
          final PageModelAssembler pageAssembler,
-         final LinkBuilderUtil linkBuilder) {
+         final LinkBuilderUtil linkBuilder,
+         final ConditionalRequestUtil conditionalRequests,
+         final ListingResponseCache listingCache,
+         final NdjsonExportWriter exportWriter) {
         this.newsService = newsService;
         this.tagService = tagService;
         this.authorService = authorService;
@@ -60,6 +79,9 @@ public class NewsController
         this.commentAssembler = commentAssembler;
         this.pageAssembler = pageAssembler;
         this.linkBuilder = linkBuilder;
+        this.conditionalRequests = conditionalRequests;
+        this.listingCache = listingCache;
+        this.exportWriter = exportWriter;
     }
 
     @ApiOperation(value = "View all news", response = PageDtoResponse.class)
@@ -74,13 +96,33 @@ public class NewsController
     @Override
     @GetMapping
     public PageDtoResponse<NewsDtoResponse> readAll(
-            final ResourceSearchFilterRequestDTO searchRequest) {
-        PageDtoResponse<NewsDtoResponse> page = newsService.readAll(searchRequest);
+            final ResourceSearchFilterRequestDTO searchRequest,
+            WebRequest webRequest) {
+        return listingCache.respond(webRequest, searchRequest, SHOWN_RESOURCES,
+                () -> newsService.readListVersion(searchRequest), () -> {
+            PageDtoResponse<NewsDtoResponse> page = newsService.readAll(searchRequest);
 
-        page.getModelDtoList().forEach(newsAssembler::toModel);
+            page.getModelDtoList().forEach(newsAssembler::toModel);
 
-        String baseUrl = linkBuilder.buildCollectionLink(NewsController.class);
-        return pageAssembler.addPaginationLinks(page,searchRequest,baseUrl);
+            String baseUrl = linkBuilder.buildCollectionLink(NewsController.class);
+            return pageAssembler.addPaginationLinks(page,searchRequest,baseUrl);
+        });
+    }
+
+    @ApiOperation(value = "Export all news matching the search criteria as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully exported the news"),
+            @ApiResponse(code = 400, message = "The search request is not valid"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    // JSON stays producible for the error response of a search request that is not valid
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportAll(final ResourceSearchFilterRequestDTO searchRequest) {
+        return exportWriter.write(newsService.exportAll(searchRequest));
     }
 
 
@@ -96,8 +138,13 @@ public class NewsController
     @Override
     @GetMapping("/{id}")
     public NewsDtoResponse readById(
-            @PathVariable Long id) {
-        NewsDtoResponse news = newsService.readById(id);
+            @PathVariable Long id,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest webRequest) {
+        if(conditionalRequests.isResourceNotModified(webRequest, SHOWN_RESOURCES, () -> newsService.readVersion(id))){
+            return null;
+        }
+        NewsDtoResponse news = newsService.readById(id, fields);
         return newsAssembler.toModel(news);
     }
 
@@ -158,6 +205,42 @@ public class NewsController
         newsService.deleteById(id);
     }
 
+    @ApiOperation(value = "Create news in bulk, with an outcome per item", response = BulkResponseDto.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Processed every item, each one has a status of its own"),
+            @ApiResponse(code = 400, message = "The request holds no items or more than the bulk limit"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    @PostMapping("/bulk")
+    public BulkResponseDto<NewsDtoResponse> createAll(
+            @RequestBody List<CreateNewsDtoRequest> createRequests) {
+        BulkResponseDto<NewsDtoResponse> response = newsService.createAll(createRequests);
+        response.getResults().stream()
+            .filter(result -> result.resource() != null)
+            .forEach(result -> newsAssembler.toModel(result.resource()));
+        return response;
+    }
+
+    @ApiOperation(value = "Delete news in bulk by id, with an outcome per id", response = BulkResponseDto.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Processed every id, each one has a status of its own"),
+            @ApiResponse(code = 400, message = "The request holds no ids or more than the bulk limit"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    @DeleteMapping("/bulk")
+    public BulkResponseDto<Void> deleteAll(
+            @RequestBody List<Long> ids) {
+        return newsService.deleteAll(ids);
+    }
+
 
     @ApiOperation(value = "Get tags for a news article", response = List.class)
     @ApiResponses(value = {
@@ -193,9 +276,10 @@ public class NewsController
     }
 
 
-    @ApiOperation(value = "Get comments for a news article", response = List.class)
+    @ApiOperation(value = "Get a page of comments for a news article", response = PageDtoResponse.class)
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "Successfully Retrieves all comments associated with a specific news article"),
+            @ApiResponse(code = 200, message = "Successfully Retrieves a page of the comments associated with a specific news article"),
+            @ApiResponse(code = 400, message = "The page size or cursor is not valid"),
             @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
             @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
             @ApiResponse(code = 404, message = "The resource you were trying to reach is not found"),
@@ -203,9 +287,13 @@ public class NewsController
     }
     )
     @GetMapping("/{id}/comments")
-    public List<CommentsDtoResponse> readCommentsByNewsId(@PathVariable Long id) {
-        List<CommentsDtoResponse> comments = commentService.readByNewsId(id);
-        comments.forEach(commentAssembler::toModel);
-        return comments;
+    public PageDtoResponse<CommentsDtoResponse> readCommentsByNewsId(
+            @PathVariable Long id,
+            final ResourceSearchFilterRequestDTO searchRequest) {
+        PageDtoResponse<CommentsDtoResponse> page = commentService.readByNewsId(id, searchRequest);
+        page.getModelDtoList().forEach(commentAssembler::toModel);
+
+        String baseUrl = linkBuilder.buildNestedResourceLink(NewsController.class, id, "comments");
+        return pageAssembler.addPaginationLinks(page, searchRequest, baseUrl);
     }
 }
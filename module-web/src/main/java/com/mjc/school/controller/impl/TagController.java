@@ -4,14 +4,25 @@ import com.mjc.school.controller.BaseController;
 import com.mjc.school.controller.assembler.LinkBuilderUtil;
 import com.mjc.school.controller.assembler.PageModelAssembler;
 import com.mjc.school.controller.assembler.TagModelAssembler;
+import com.mjc.school.controller.cache.ListingResponseCache;
+import com.mjc.school.controller.conditional.ConditionalRequestUtil;
+import com.mjc.school.controller.export.NdjsonExportWriter;
 import com.mjc.school.service.BaseService;
 import com.mjc.school.service.dto.*;
+import com.mjc.school.service.event.ResourceType;
 import com.mjc.school.versioning.ApiVersion;
 import io.swagger.annotations.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 import static com.mjc.school.controller.RestApiConst.TAG_API_ROOT_PATH;
 
@@ -22,20 +33,32 @@ import static com.mjc.school.controller.RestApiConst.TAG_API_ROOT_PATH;
 public class TagController
     implements BaseController<TagDtoRequest, TagDtoResponse, Long, ResourceSearchFilterRequestDTO, TagDtoRequest> {
 
+    // the news counts they show move with every news written
+    private static final Set<ResourceType> SHOWN_RESOURCES = EnumSet.of(ResourceType.TAG, ResourceType.NEWS);
+
     private final BaseService<TagDtoRequest, TagDtoResponse, Long, ResourceSearchFilterRequestDTO, TagDtoRequest> tagService;
     private final TagModelAssembler tagAssembler;
     private final PageModelAssembler pageAssembler;
     private final LinkBuilderUtil linkBuilder;
+    private final ConditionalRequestUtil conditionalRequests;
+    private final ListingResponseCache listingCache;
+    private final NdjsonExportWriter exportWriter;
 
     @Autowired
     public TagController(final BaseService<TagDtoRequest, TagDtoResponse, Long, ResourceSearchFilterRequestDTO, TagDtoRequest> tagService,
                          final TagModelAssembler tagAssembler,
                          final PageModelAssembler pageAssembler,
-                         final LinkBuilderUtil linkBuilder) {
+                         final LinkBuilderUtil linkBuilder,
+                         final ConditionalRequestUtil conditionalRequests,
+                         final ListingResponseCache listingCache,
+                         final NdjsonExportWriter exportWriter) {
         this.tagService = tagService;
         this.tagAssembler = tagAssembler;
         this.pageAssembler = pageAssembler;
         this.linkBuilder = linkBuilder;
+        this.conditionalRequests = conditionalRequests;
+        this.listingCache = listingCache;
+        this.exportWriter = exportWriter;
     }
 
 
@@ -50,13 +73,34 @@ public class TagController
     )
     @Override
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public PageDtoResponse<TagDtoResponse> readAll(ResourceSearchFilterRequestDTO searchRequest) {
-        PageDtoResponse<TagDtoResponse> page = tagService.readAll(searchRequest);
-
-        page.getModelDtoList().forEach(tagAssembler::toModel);
+    public PageDtoResponse<TagDtoResponse> readAll(
+            ResourceSearchFilterRequestDTO searchRequest,
+            WebRequest webRequest) {
+        return listingCache.respond(webRequest, searchRequest, SHOWN_RESOURCES,
+                () -> tagService.readListVersion(searchRequest), () -> {
+            PageDtoResponse<TagDtoResponse> page = tagService.readAll(searchRequest);
+
+            page.getModelDtoList().forEach(tagAssembler::toModel);
+
+            String baseUrl = linkBuilder.buildCollectionLink(TagController.class);
+            return pageAssembler.addPaginationLinks(page,searchRequest,baseUrl);
+        });
+    }
 
-        String baseUrl = linkBuilder.buildCollectionLink(TagController.class);
-        return pageAssembler.addPaginationLinks(page,searchRequest,baseUrl);
+    @ApiOperation(value = "Export all tags matching the search criteria as newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Successfully exported the tags"),
+            @ApiResponse(code = 400, message = "The search request is not valid"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    // JSON stays producible for the error response of a search request that is not valid
+    @GetMapping(value = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportAll(final ResourceSearchFilterRequestDTO searchRequest) {
+        return exportWriter.write(tagService.exportAll(searchRequest));
     }
 
     @ApiOperation(value = "Retrieve specific tag with the supplied id", response = TagDtoResponse.class)
@@ -71,8 +115,14 @@ public class TagController
     @Override
     @ApiVersion(2)
     @GetMapping("/{id}")
-    public TagDtoResponse readById(@PathVariable Long id) {
-        TagDtoResponse tag = tagService.readById(id);
+    public TagDtoResponse readById(
+            @PathVariable Long id,
+            @RequestParam(required = false) List<String> fields,
+            WebRequest webRequest) {
+        if(conditionalRequests.isResourceNotModified(webRequest, SHOWN_RESOURCES, () -> tagService.readVersion(id))){
+            return null;
+        }
+        TagDtoResponse tag = tagService.readById(id, fields);
         return tagAssembler.toModel(tag);
     }
 
@@ -128,4 +178,40 @@ public class TagController
     public void deleteById(@PathVariable Long id) {
          tagService.deleteById(id);
     }
+
+    @ApiOperation(value = "Create tags in bulk, with an outcome per item", response = BulkResponseDto.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Processed every item, each one has a status of its own"),
+            @ApiResponse(code = 400, message = "The request holds no items or more than the bulk limit"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    @PostMapping("/bulk")
+    public BulkResponseDto<TagDtoResponse> createAll(
+            @RequestBody List<TagDtoRequest> createRequests) {
+        BulkResponseDto<TagDtoResponse> response = tagService.createAll(createRequests);
+        response.getResults().stream()
+            .filter(result -> result.resource() != null)
+            .forEach(result -> tagAssembler.toModel(result.resource()));
+        return response;
+    }
+
+    @ApiOperation(value = "Delete tags in bulk by id, with an outcome per id", response = BulkResponseDto.class)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "Processed every id, each one has a status of its own"),
+            @ApiResponse(code = 400, message = "The request holds no ids or more than the bulk limit"),
+            @ApiResponse(code = 401, message = "You are not authorized to view the resource"),
+            @ApiResponse(code = 403, message = "Accessing the resource you were trying to reach is forbidden"),
+            @ApiResponse(code = 500, message = "Application failed to process the request")
+    }
+    )
+    @Override
+    @DeleteMapping("/bulk")
+    public BulkResponseDto<Void> deleteAll(
+            @RequestBody List<Long> ids) {
+        return tagService.deleteAll(ids);
+    }
 }
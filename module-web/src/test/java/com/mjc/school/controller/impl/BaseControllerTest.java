@@ -1,11 +1,16 @@
 package com.mjc.school.controller.impl;
 
+import com.mjc.school.controller.cache.ListingResponseCache;
+import com.mjc.school.controller.conditional.ConditionalRequestUtil;
+import com.mjc.school.repository.search.NewsTextIndex;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
 import org.junit.jupiter.api.BeforeEach;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -24,11 +29,29 @@ public abstract class BaseControllerTest {
     @Autowired
     protected JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    protected ListingResponseCache listingResponseCache;
+
+    @Autowired
+    protected ConditionalRequestUtil conditionalRequests;
+
+    @Autowired
+    protected NewsTextIndex newsTextIndex;
+
     protected RequestSpecification requestSpecification;
 
     @BeforeEach
     void setUp(){
         JdbcTestUtils.deleteFromTables(jdbcTemplate, "newstags","comments","news", "authors", "tags");
+        // rows deleted behind Hibernate's back must not survive in the second-level and query caches
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+        // nor in the text index, which the test profile keeps in memory and rebuilds from the emptied table
+        newsTextIndex.load();
+        listingResponseCache.invalidateAll();
+        conditionalRequests.invalidateAll();
 
         RestAssured.port = port;
         RestAssured.basePath = "/api/v1";
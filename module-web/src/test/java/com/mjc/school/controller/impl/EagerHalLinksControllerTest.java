@@ -0,0 +1,10 @@
+package com.mjc.school.controller.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.springframework.test.context.TestPropertySource;
+
+// the assemblers attach the Link objects again, the responses must not tell the two modes apart
+@DisplayName("HAL links with eager Link objects RestAssured integration tests")
+@TestPropertySource(properties = "news.hateoas.serialization-time-links=false")
+public class EagerHalLinksControllerTest extends HalLinksControllerTest {
+}
@@ -0,0 +1,181 @@
+package com.mjc.school.controller.impl;
+
+import com.mjc.school.controller.assembler.TagModelAssembler;
+import com.mjc.school.service.dto.TagDtoResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.Link;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+// the links written at serialization time, EagerHalLinksControllerTest expects the same of the attached Link objects
+@DisplayName("HAL links RestAssured integration tests")
+@Import(HalLinksControllerTest.CarriedLinksController.class)
+public class HalLinksControllerTest extends BaseControllerTest {
+
+    @Test
+    @DisplayName("GET /tags/{id} - Should return every link of the tag once")
+    void getTagById_ShouldReturnEveryLinkOnce(){
+        Integer tagId = createTag("Technology");
+
+        String baseUrl = "http://localhost:" + port;
+        String body =
+                given()
+                        .spec(requestSpecification)
+                .when()
+                        .get("/tags/" + tagId)
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .body("_links.keySet()",containsInAnyOrder("self","tags","update","delete"))
+                        .body("_links.self.href",equalTo(baseUrl + "/api/v2/tags/" + tagId))
+                        .body("_links.tags.href",equalTo(baseUrl + "/api/v1/tags"))
+                        .body("_links.update.href",equalTo(baseUrl + "/api/v1/tags/" + tagId))
+                        .body("_links.delete.href",equalTo(baseUrl + "/api/v1/tags/" + tagId))
+                        .extract()
+                        .asString();
+
+        assertThat(countOccurrences(body, "\"_links\""), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("GET /news/{id} - Should return the links of the news and of its author and tags")
+    void getNewsById_ShouldReturnLinksOfEveryModel(){
+        Integer newsId =
+                given()
+                        .spec(requestSpecification)
+                        .body("""
+                                {
+                                    "title":"Linked news",
+                                    "content":"Linked content",
+                                    "author":"Gosling",
+                                    "tags": ["Wire"],
+                                    "commentsIds":[]
+                                }
+                                """)
+                .when()
+                        .post("/news")
+                .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .extract()
+                        .path("id");
+
+        String baseUrl = "http://localhost:" + port;
+        String body =
+                given()
+                        .spec(requestSpecification)
+                .when()
+                        .get("/news/" + newsId)
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .body("_links.keySet()",containsInAnyOrder("self","news","update","delete","author","tags","comments"))
+                        .body("_links.comments.href",equalTo(baseUrl + "/api/v1/news/" + newsId + "/comments"))
+                        .body("authorDto._links",hasKey("self"))
+                        .body("tagsDto[0]._links",hasKey("self"))
+                        .extract()
+                        .asString();
+
+        assertThat(countOccurrences(body, "\"_links\""), equalTo(3));
+    }
+
+    @Test
+    @DisplayName("GET a model carrying Link objects - Should keep its links in the one _links object")
+    void getModelCarryingLinks_ShouldNotDuplicateLinks(){
+        String baseUrl = "http://localhost:" + port;
+        String body =
+                given()
+                        .spec(requestSpecification)
+                .when()
+                        .get("/carried-links/tags/7")
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .body("_links.keySet()",containsInAnyOrder("self","feed","tags","update","delete"))
+                        .body("_links.self.href",equalTo("http://example.org/tags/7"))
+                        .body("_links.feed.href",equalTo("http://example.org/feeds/7"))
+                        .body("_links.update.href",equalTo(baseUrl + "/api/v1/tags/7"))
+                        .extract()
+                        .asString();
+
+        assertThat(countOccurrences(body, "\"_links\""), equalTo(1));
+        assertThat(countOccurrences(body, "\"self\""), equalTo(1));
+    }
+
+    @Test
+    @DisplayName("GET with fields - Should return only the self link unless _links is requested")
+    void getWithFields_ShouldReturnSelfLinkOnly(){
+        Integer tagId = createTag("Sparse");
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("fields","name")
+        .when()
+                .get("/tags/" + tagId)
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("_links.keySet()",contains("self"));
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("fields","name")
+        .when()
+                .get("/tags")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList[0]._links.keySet()",contains("self"));
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("fields","name,_links")
+        .when()
+                .get("/tags/" + tagId)
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("_links.keySet()",containsInAnyOrder("self","tags","update","delete"));
+    }
+
+    private Integer createTag(String name){
+        return given()
+                .spec(requestSpecification)
+                .body("{\"name\":\"" + name + "\"}")
+        .when()
+                .post("/tags")
+        .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract()
+                .path("id");
+    }
+
+    private static int countOccurrences(String body, String token){
+        int count = 0;
+        for(int index = body.indexOf(token); index >= 0; index = body.indexOf(token, index + token.length())){
+            count++;
+        }
+        return count;
+    }
+
+    // a model that already carries links when it is assembled, as a handler adding its own would return it
+    @RequestMapping("/api/v1/carried-links")
+    static class CarriedLinksController {
+
+        private final TagModelAssembler tagAssembler;
+
+        CarriedLinksController(final TagModelAssembler tagAssembler){
+            this.tagAssembler = tagAssembler;
+        }
+
+        @GetMapping("/tags/{id}")
+        @ResponseBody
+        public TagDtoResponse readById(@PathVariable Long id){
+            TagDtoResponse tag = new TagDtoResponse(id, "Carried");
+            tag.add(Link.of("http://example.org/tags/" + id, "self"), Link.of("http://example.org/feeds/" + id, "feed"));
+            return tagAssembler.toModel(tag);
+        }
+    }
+}
@@ -1,17 +1,37 @@
 package com.mjc.school.controller.impl;
 
+import com.mjc.school.datagen.DatasetConfig;
+import com.mjc.school.datagen.DatasetGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.json.JSONException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 @DisplayName("News controller RestAssured integration tests")
 public class NewsControllerTest extends BaseControllerTest{
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     @DisplayName("GET /news with pagination - Should return 200 with correct page")
     void getAllNewsWithPagination_ShouldReturn200(){
@@ -27,6 +47,515 @@ public class NewsControllerTest extends BaseControllerTest{
                 .body("modelDtoList.size()",lessThanOrEqualTo(5));
     }
 
+    @Test
+    @DisplayName("GET /news with after cursor - Should return 200 with the page following the cursor")
+    void getAllNewsWithCursor_ShouldReturnNextPage(){
+        for (String title : List.of("Cursor one", "Cursor two", "Cursor three")) {
+            String newsJson = """
+                    {
+                        "title":"%s",
+                        "content":"Testing framework",
+                        "author":"Gosling",
+                        "tags": ["Technology"],
+                        "commentsIds":[]
+                    }
+                    """.formatted(title);
+            given()
+                    .spec(requestSpecification)
+                    .body(newsJson)
+            .when()
+                    .post("/news")
+            .then()
+                    .statusCode(HttpStatus.CREATED.value());
+        }
+
+        String nextCursor =
+                given()
+                        .spec(requestSpecification)
+                        .queryParam("pageSize",2)
+                .when()
+                        .get("/news")
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .body("modelDtoList.size()",equalTo(2))
+                        .body("nextCursor",notNullValue())
+                        .extract()
+                        .path("nextCursor");
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",2)
+                .queryParam("after",nextCursor)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.size()",equalTo(1))
+                .body("modelDtoList[0].title",equalTo("Cursor two"))
+                .body("nextCursor",nullValue());
+    }
+
+    @Test
+    @DisplayName("GET /news with malformed cursor - Should return 400")
+    void getAllNewsWithMalformedCursor_ShouldReturn400(){
+        given()
+                .spec(requestSpecification)
+                .queryParam("after","not a cursor")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message",containsString("Validation failed"));
+    }
+
+    @Test
+    @DisplayName("GET /news with a cursor of another sorting - Should return 400")
+    void getAllNewsWithCursorOfAnotherSorting_ShouldReturn400(){
+        for (String title : List.of("Sorted one", "Sorted two")) {
+            String newsJson = """
+                    {
+                        "title":"%s",
+                        "content":"Testing framework",
+                        "author":"Gosling",
+                        "tags": [],
+                        "commentsIds":[]
+                    }
+                    """.formatted(title);
+            given()
+                    .spec(requestSpecification)
+                    .body(newsJson)
+            .when()
+                    .post("/news")
+            .then()
+                    .statusCode(HttpStatus.CREATED.value());
+        }
+
+        // title, createdDate and id
+        String nextCursor =
+                given()
+                        .spec(requestSpecification)
+                        .queryParam("pageSize",1)
+                .when()
+                        .get("/news")
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .extract()
+                        .path("nextCursor");
+
+        // fewer sort keys than the cursor holds
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",1)
+                .queryParam("sortByAndOrder","title:asc")
+                .queryParam("after",nextCursor)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message",containsString("Validation failed"));
+
+        // as many sort keys, but a title is not a date
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",1)
+                .queryParam("sortByAndOrder","createdDate:asc","title:asc")
+                .queryParam("after",nextCursor)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message",containsString("Validation failed"));
+    }
+
+    @Test
+    @DisplayName("GET /news with skipped count - Should return 200 without page count")
+    void getAllNewsWithSkippedCount_ShouldReturn200WithoutPageCount(){
+        for (String title : List.of("Skipped one", "Skipped two")) {
+            String newsJson = """
+                    {
+                        "title":"%s",
+                        "content":"Testing framework",
+                        "author":"Gosling",
+                        "tags": ["Technology"],
+                        "commentsIds":[]
+                    }
+                    """.formatted(title);
+            given()
+                    .spec(requestSpecification)
+                    .body(newsJson)
+            .when()
+                    .post("/news")
+            .then()
+                    .statusCode(HttpStatus.CREATED.value());
+        }
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",1)
+                .queryParam("countPolicy","skip")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.size()",equalTo(1))
+                .body("pageCount",nullValue())
+                .body("hasNext",equalTo(true))
+                .body("_links.next.href",containsString("countPolicy=skip"))
+                .body("_links.last",nullValue());
+    }
+
+    @Test
+    @DisplayName("GET /news with cached count - Should refresh the count once a comment moves a news into the filter")
+    void getAllNewsWithCachedCount_ShouldFollowCommentWrites() throws JSONException {
+        Integer newsId = createNews("Counted","Gosling","[]");
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",1)
+                .queryParam("countPolicy","cached")
+                .queryParam("searchCriteria","commentCount:gt:0")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("pageCount",equalTo(0));
+
+        // written through the comments, the news table only sees its counter move
+        JSONObject commentJson = new JSONObject();
+        commentJson.put("content","Counts the news in");
+        commentJson.put("newsId",newsId);
+        given()
+                .spec(requestSpecification)
+                .body(commentJson.toString())
+        .when()
+                .post("/comments")
+        .then()
+                .statusCode(HttpStatus.CREATED.value());
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",1)
+                .queryParam("countPolicy","cached")
+                .queryParam("searchCriteria","commentCount:gt:0")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList[0].id",equalTo(newsId))
+                .body("pageCount",equalTo(1));
+    }
+
+    @Test
+    @DisplayName("GET /news on a generated dataset - Should return 200 and page through all news")
+    void getAllNewsOnGeneratedDataset_ShouldReturnAllPages() throws SQLException {
+        DatasetConfig config = new DatasetConfig.Builder()
+                .authors(5)
+                .news(60)
+                .tags(30)
+                .commentsPerNews(2)
+                .build();
+        new DatasetGenerator(config).generate(jdbcTemplate.getDataSource());
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("page",3)
+                .queryParam("pageSize",25)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("pageCount",equalTo(3))
+                .body("modelDtoList.size()",equalTo(10))
+                .body("hasNext",equalTo(false));
+    }
+
+    @Test
+    @DisplayName("GET /news with fields - Should return 200 with only the requested fields and the self link")
+    void getAllNewsWithFields_ShouldReturnSparseNews(){
+        String newsJson = """
+                {
+                    "title":"Sparse",
+                    "content":"Only some fields",
+                    "author":"Gosling",
+                    "tags": ["Technology"],
+                    "commentsIds":[]
+                }
+                """;
+
+        Integer newsId =
+                given()
+                        .spec(requestSpecification)
+                        .body(newsJson)
+                .when()
+                        .post("/news")
+                .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .extract()
+                        .path("id");
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("fields","title,createdDate")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList[0].id",equalTo(newsId))
+                .body("modelDtoList[0].title",equalTo("Sparse"))
+                .body("modelDtoList[0].createdDate",notNullValue())
+                .body("modelDtoList[0]",not(hasKey("content")))
+                .body("modelDtoList[0]",not(hasKey("authorDto")))
+                .body("modelDtoList[0]",not(hasKey("tagsDto")))
+                .body("modelDtoList[0]._links",hasKey("self"))
+                .body("modelDtoList[0]._links",not(hasKey("update")))
+                .body("_links.first.href",containsString("fields=title,createdDate"));
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("fields","authorDto,_links")
+        .when()
+                .get("/news/" + newsId)
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("authorDto.name",equalTo("Gosling"))
+                .body("$",not(hasKey("title")))
+                .body("$",not(hasKey("commentsDto")))
+                .body("_links",hasKey("update"));
+    }
+
+    @Test
+    @DisplayName("GET /news with unknown field - Should return 400")
+    void getAllNewsWithUnknownField_ShouldReturn400(){
+        given()
+                .spec(requestSpecification)
+                .queryParam("fields","title,author")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message",containsString("Unknown field 'author'"));
+    }
+
+    @Test
+    @DisplayName("GET /news/export - Should stream every matching news as one JSON line")
+    void exportNews_ShouldReturnNdjsonLines() throws SQLException, JSONException {
+        // more news than a fetch, so their tags and comments are read in more than one batch
+        DatasetConfig config = new DatasetConfig.Builder()
+                .authors(5)
+                .news(600)
+                .tags(30)
+                .commentsPerNews(1)
+                .build();
+        new DatasetGenerator(config).generate(jdbcTemplate.getDataSource());
+
+        String export =
+                given()
+                        .spec(requestSpecification)
+                .when()
+                        .get("/news/export")
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .contentType("application/x-ndjson")
+                        .extract()
+                        .asString();
+
+        List<String> lines = export.lines().toList();
+        assertThat(lines.size(), equalTo(600));
+        JSONObject firstNews = new JSONObject(lines.get(0));
+        assertThat(firstNews.getJSONArray("commentsDto").length(), equalTo(1));
+        assertThat(firstNews.has("_links"), equalTo(false));
+        assertThat(firstNews.has("links"), equalTo(false));
+
+        String filteredExport =
+                given()
+                        .spec(requestSpecification)
+                        .queryParam("searchCriteria", "title:eq:" + firstNews.getString("title"))
+                        .queryParam("fields", "title")
+                .when()
+                        .get("/news/export")
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .extract()
+                        .asString();
+
+        List<String> filteredLines = filteredExport.lines().toList();
+        assertThat(filteredLines.size(), equalTo(1));
+        JSONObject filteredNews = new JSONObject(filteredLines.get(0));
+        assertThat(filteredNews.getLong("id"), equalTo(firstNews.getLong("id")));
+        assertThat(filteredNews.has("content"), equalTo(false));
+    }
+
+    @Test
+    @DisplayName("GET /news/export with unknown field - Should return 400 before streaming")
+    void exportNewsWithUnknownField_ShouldReturn400(){
+        given()
+                .spec(requestSpecification)
+                .queryParam("fields","author")
+        .when()
+                .get("/news/export")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("message",containsString("Unknown field 'author'"));
+    }
+
+    @Test
+    @DisplayName("POST /news/bulk - Should create the valid news and report the invalid ones")
+    void createNewsInBulk_ShouldReturnItemResults(){
+        String newsJson = """
+                [
+                    {"title":"Bulk first","content":"Wire feed content","author":"Bulk author","tags":["Wire","Feed"]},
+                    {"title":"Bad","content":"Title is too short","author":"Bulk author"},
+                    {"title":"Bulk second","content":"Wire feed content","author":"Bulk author","tags":["Wire"]}
+                ]
+                """;
+
+        given()
+                .spec(requestSpecification)
+                .body(newsJson)
+        .when()
+                .post("/news/bulk")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("succeeded",equalTo(2))
+                .body("failed",equalTo(1))
+                .body("results.status",contains(201,400,201))
+                .body("results[1].message",containsString("Validation failed"))
+                .body("results[0].resource.authorDto.name",equalTo("Bulk author"))
+                .body("results[0].resource.tagsDto.name",containsInAnyOrder("Wire","Feed"))
+                .body("results[2].resource.authorDto.id",notNullValue());
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("searchCriteria","title:like:Bulk")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.size()",equalTo(2));
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .get("/authors")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.findAll { it.name == 'Bulk author' }.size()",equalTo(1));
+    }
+
+    @Test
+    @DisplayName("POST /news/bulk failing in a later chunk - Should still show the news of the committed chunks")
+    void createNewsInBulkFailingLaterChunk_ShouldInvalidateCachedPages(){
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",1)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("pageCount",equalTo(0));
+
+        // the first chunk of 500 is committed, the author of the last item is too long for its column
+        String tooLongAuthor = "A".repeat(300);
+        String newsJson = IntStream.rangeClosed(1, 501)
+                .mapToObj(i -> "{\"title\":\"Chunked " + i + "\",\"content\":\"Chunked content\",\"author\":\""
+                        + (i == 501 ? tooLongAuthor : "Chunk author") + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        given()
+                .spec(requestSpecification)
+                .body(newsJson)
+        .when()
+                .post("/news/bulk")
+        .then()
+                .statusCode(HttpStatus.INTERNAL_SERVER_ERROR.value());
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",1)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("pageCount",equalTo(500));
+    }
+
+    @Test
+    @DisplayName("GET /news twice - Should serve the cached page until a news is created")
+    void getAllNewsTwice_ShouldServeCachedPageUntilChanged(){
+        String newsJson = """
+                {
+                    "title":"Cached",
+                    "content":"Served from bytes",
+                    "author":"Gosling",
+                    "tags": ["Technology"],
+                    "commentsIds":[]
+                }
+                """;
+        given().spec(requestSpecification).body(newsJson).when().post("/news")
+                .then().statusCode(HttpStatus.CREATED.value());
+
+        Response firstResponse =
+                given()
+                        .spec(requestSpecification)
+                        .queryParam("sortByAndOrder","createdDate:desc")
+                .when()
+                        .get("/news")
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .body("modelDtoList.size()",equalTo(1))
+                        .extract()
+                        .response();
+        String firstBody = firstResponse.asString();
+        String etag = firstResponse.header("ETag");
+        double hits = listingCacheHits();
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("sortByAndOrder","createdDate:desc")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .contentType(startsWith("application/"))
+                .header("ETag",equalTo(etag))
+                .body(equalTo(firstBody));
+        assertThat(listingCacheHits(),equalTo(hits + 1));
+
+        // a conditional request for the cached page is answered from it, without a query
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        given()
+                .spec(requestSpecification)
+                .queryParam("sortByAndOrder","createdDate:desc")
+                .header("If-None-Match",etag)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+        assertThat(listingCacheHits(),equalTo(hits + 2));
+        assertThat(statistics.getPrepareStatementCount(),equalTo(0L));
+
+        given().spec(requestSpecification).body(newsJson.replace("Cached","Invalidating")).when().post("/news")
+                .then().statusCode(HttpStatus.CREATED.value());
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("sortByAndOrder","createdDate:desc")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.size()",equalTo(2))
+                .body("modelDtoList[0].title",equalTo("Invalidating"));
+    }
+
+    private double listingCacheHits(){
+        return meterRegistry.get("cache.gets")
+                .tag("cache","listing-responses")
+                .tag("result","hit")
+                .functionCounter()
+                .count();
+    }
+
     @Test
     @DisplayName("POST /news - Should return 201 and create news")
     void createNews_ShouldReturn201(){
@@ -42,54 +571,311 @@ public class NewsControllerTest extends BaseControllerTest{
 
         given()
                 .spec(requestSpecification)
-                .body(newsJson)
+                .body(newsJson)
+        .when()
+                .post("/news")
+        .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .body("id",notNullValue())
+                .body("title",equalTo("RestAssured"))
+                .body("createdDate",notNullValue())
+                .body("_links.self.href",notNullValue())
+                .body("_links.update.href",notNullValue())
+                .body("_links.delete.href",notNullValue());
+    }
+
+
+    @Test
+    @DisplayName("POST /news with existing and repeated tags - Should reuse existing tags and create the rest once")
+    void createNewsWithExistingTags_ShouldNotDuplicateTags(){
+        given()
+                .spec(requestSpecification)
+                .body("""
+                        {
+                            "name":"Technology"
+                        }
+                        """)
+        .when()
+                .post("/tags")
+        .then()
+                .statusCode(HttpStatus.CREATED.value());
+
+        String newsJson = """
+                {
+                    "title":"RestAssured",
+                    "content":"Testing framework",
+                    "author":"Gosling",
+                    "tags": ["Technology","Science","Science"],
+                    "commentsIds":[]
+                }
+                """;
+        Integer newsId =
+                given()
+                        .spec(requestSpecification)
+                        .body(newsJson)
+                .when()
+                        .post("/news")
+                .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .extract()
+                        .path("id");
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",10)
+        .when()
+                .get("/tags")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.name",containsInAnyOrder("Technology","Science"));
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .get("/news/" + newsId + "/tags")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("name",containsInAnyOrder("Technology","Science"));
+    }
+
+
+    @Test
+    @DisplayName("POST /news with many new tags - Should insert the tags in batches")
+    void createNewsWithManyNewTags_ShouldBatchTagInserts(){
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long singleTagStatements = countStatementsOfNewsCreation(statistics, "Single tag", List.of("Tag 0"));
+
+        List<String> tags = IntStream.rangeClosed(1, 20).mapToObj(i -> "Tag " + i).toList();
+        long manyTagsStatements = countStatementsOfNewsCreation(statistics, "Many tags", tags);
+
+        // one statement per tag and per news-tag link would add 40 without batching
+        assertThat(manyTagsStatements, lessThanOrEqualTo(singleTagStatements + 2));
+    }
+
+    private long countStatementsOfNewsCreation(Statistics statistics, String title, List<String> tags) {
+        String newsJson = """
+                {
+                    "title":"%s",
+                    "content":"Testing framework",
+                    "author":"Gosling",
+                    "tags": [%s],
+                    "commentsIds":[]
+                }
+                """.formatted(title, tags.stream().map(tag -> "\"" + tag + "\"").collect(Collectors.joining(",")));
+        statistics.clear();
+        given()
+                .spec(requestSpecification)
+                .body(newsJson)
+        .when()
+                .post("/news")
+        .then()
+                .statusCode(HttpStatus.CREATED.value());
+        return statistics.getPrepareStatementCount();
+    }
+
+
+    @Test
+    @DisplayName("POST /news with invalid data - Should return 400")
+    void createNewsWithInvalidData_ShouldReturn400(){
+        String newsJson = """
+                {
+                    "title":"Re",
+                    "content":"Te",
+                    "author":"Gosling",
+                    "tags": ["Technology"],
+                    "commentsIds":[]
+                }
+                """;
+
+        given()
+                .spec(requestSpecification)
+                .body(newsJson)
+        .when()
+                .post("/news")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value())
+                .body("code",notNullValue())
+                .body("message",containsString("Validation failed"));
+    }
+
+
+    @Test
+    @DisplayName("GET /news/{id} - Should return 200 and news details")
+    void getNewsById_WhenExists_ShouldReturn200(){
+        String newsJson = """
+                {
+                    "title":"RestAssured",
+                    "content":"Testing framework",
+                    "author":"Gosling",
+                    "tags": ["Technology"],
+                    "commentsIds":[]
+                }
+                """;
+
+        Integer newsId =
+                given()
+                        .spec(requestSpecification)
+                        .body(newsJson)
+                        .when()
+                        .post("/news")
+                        .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .extract()
+                        .path("id");
+
+        given()
+                .spec(requestSpecification)
+                .when()
+                .get("/news/" + newsId)
+                .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("id",equalTo(newsId))
+                .body("title",equalTo("RestAssured"));
+    }
+
+
+    @Test
+    @DisplayName("GET /news/{id} with If-None-Match - Should return 304 until the news or its comments change")
+    void getNewsByIdWithEtag_ShouldReturn304WhenNotModified() throws JSONException {
+        String newsJson = """
+                {
+                    "title":"Conditional",
+                    "content":"Cached by the client",
+                    "author":"Gosling",
+                    "tags": ["Technology"],
+                    "commentsIds":[]
+                }
+                """;
+
+        Integer newsId =
+                given()
+                        .spec(requestSpecification)
+                        .body(newsJson)
+                .when()
+                        .post("/news")
+                .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .extract()
+                        .path("id");
+
+        String etag =
+                given()
+                        .spec(requestSpecification)
+                .when()
+                        .get("/news/" + newsId)
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .header("ETag",startsWith("W/"))
+                        .header("Last-Modified",notNullValue())
+                        .extract()
+                        .header("ETag");
+
+        given()
+                .spec(requestSpecification)
+                .header("If-None-Match",etag)
+        .when()
+                .get("/news/" + newsId)
+        .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        JSONObject commentJson = new JSONObject();
+        commentJson.put("content","Invalidates the news");
+        commentJson.put("newsId",newsId);
+        given()
+                .spec(requestSpecification)
+                .body(commentJson.toString())
+        .when()
+                .post("/comments")
+        .then()
+                .statusCode(HttpStatus.CREATED.value());
+
+        given()
+                .spec(requestSpecification)
+                .header("If-None-Match",etag)
+        .when()
+                .get("/news/" + newsId)
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag",not(equalTo(etag)))
+                .body("commentsDto.size()",equalTo(1));
+    }
+
+    @Test
+    @DisplayName("GET /news/{id} with If-None-Match - Should return 200 once a tag of the news is renamed")
+    void getNewsByIdWithEtag_ShouldReturn200WhenTagRenamed(){
+        Integer newsId = createNews("Renamed tag","Gosling","[\"Technology\"]");
+
+        Response response =
+                given()
+                        .spec(requestSpecification)
+                .when()
+                        .get("/news/" + newsId)
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .extract()
+                        .response();
+        String etag = response.header("ETag");
+        Integer tagId = response.path("tagsDto[0].id");
+
+        given()
+                .spec(requestSpecification)
+                .body("{\"name\":\"Engineering\"}")
         .when()
-                .post("/news")
+                .patch("/tags/" + tagId)
         .then()
-                .statusCode(HttpStatus.CREATED.value())
-                .body("id",notNullValue())
-                .body("title",equalTo("RestAssured"))
-                .body("createdDate",notNullValue())
-                .body("_links.self.href",notNullValue())
-                .body("_links.update.href",notNullValue())
-                .body("_links.delete.href",notNullValue());
-    }
+                .statusCode(HttpStatus.OK.value());
 
+        given()
+                .spec(requestSpecification)
+                .header("If-None-Match",etag)
+        .when()
+                .get("/news/" + newsId)
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag",not(equalTo(etag)))
+                .body("tagsDto[0].name",equalTo("Engineering"));
+    }
 
     @Test
-    @DisplayName("POST /news with invalid data - Should return 400")
-    void createNewsWithInvalidData_ShouldReturn400(){
-        String newsJson = """
-                {
-                    "title":"Re",
-                    "content":"Te",
-                    "author":"Gosling",
-                    "tags": ["Technology"],
-                    "commentsIds":[]
-                }
-                """;
+    @DisplayName("GET /news/{id} with If-None-Match - Should return 200 once its author writes another news")
+    void getNewsByIdWithEtag_ShouldReturn200WhenAuthorNewsCountMoves(){
+        Integer newsId = createNews("First of two","Gosling","[\"Technology\"]");
+
+        String etag =
+                given()
+                        .spec(requestSpecification)
+                .when()
+                        .get("/news/" + newsId)
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .body("authorDto.newsCount",equalTo(1))
+                        .extract()
+                        .header("ETag");
+
+        // neither the news nor its author and tag are updated, only their news counts move
+        createNews("Second of two","Gosling","[\"Technology\"]");
 
         given()
                 .spec(requestSpecification)
-                .body(newsJson)
+                .header("If-None-Match",etag)
         .when()
-                .post("/news")
+                .get("/news/" + newsId)
         .then()
-                .statusCode(HttpStatus.BAD_REQUEST.value())
-                .body("code",notNullValue())
-                .body("message",containsString("Validation failed"));
+                .statusCode(HttpStatus.OK.value())
+                .header("ETag",not(equalTo(etag)))
+                .body("authorDto.newsCount",equalTo(2))
+                .body("tagsDto[0].newsCount",equalTo(2));
     }
 
-
     @Test
-    @DisplayName("GET /news/{id} - Should return 200 and news details")
-    void getNewsById_WhenExists_ShouldReturn200(){
+    @DisplayName("GET /news with If-None-Match - Should return 304 until news are added or removed")
+    void getAllNewsWithEtag_ShouldReturn304WhenNotModified(){
         String newsJson = """
                 {
-                    "title":"RestAssured",
-                    "content":"Testing framework",
+                    "title":"Listed",
+                    "content":"Cached listing",
                     "author":"Gosling",
-                    "tags": ["Technology"],
+                    "tags": [],
                     "commentsIds":[]
                 }
                 """;
@@ -98,23 +884,49 @@ public class NewsControllerTest extends BaseControllerTest{
                 given()
                         .spec(requestSpecification)
                         .body(newsJson)
-                        .when()
+                .when()
                         .post("/news")
-                        .then()
+                .then()
                         .statusCode(HttpStatus.CREATED.value())
                         .extract()
                         .path("id");
 
-        given()
-                .spec(requestSpecification)
+        String etag =
+                given()
+                        .spec(requestSpecification)
+                        .queryParam("pageSize",5)
                 .when()
-                .get("/news/" + newsId)
+                        .get("/news")
                 .then()
-                .statusCode(HttpStatus.OK.value())
-                .body("id",equalTo(newsId))
-                .body("title",equalTo("RestAssured"));
-    }
+                        .statusCode(HttpStatus.OK.value())
+                        .extract()
+                        .header("ETag");
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",5)
+                .header("If-None-Match",etag)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.NOT_MODIFIED.value());
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .delete("/news/" + newsId)
+        .then()
+                .statusCode(HttpStatus.NO_CONTENT.value());
 
+        given()
+                .spec(requestSpecification)
+                .queryParam("pageSize",5)
+                .header("If-None-Match",etag)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value());
+    }
 
     @Test
     @DisplayName("GET /news/{id} - Should return 404 when news not found")
@@ -322,7 +1134,7 @@ public class NewsControllerTest extends BaseControllerTest{
     }
 
     @Test
-    @DisplayName("GET /news/{id}/comments - Should return 200 and list of comments")
+    @DisplayName("GET /news/{id}/comments - Should return 200 and a page of comments")
     void getNewsComments_ShouldReturn200() throws JSONException {
         String newsJson = """
                 {
@@ -364,8 +1176,320 @@ public class NewsControllerTest extends BaseControllerTest{
                 .get("/news/" +newsId+"/comments")
                 .then()
                 .statusCode(HttpStatus.OK.value())
-                .body("$",hasSize(greaterThanOrEqualTo(1)))
-                .body("[0].content",equalTo("Great Tool"))
-                .body("[0].newsId",equalTo(newsId));
+                .body("modelDtoList",hasSize(greaterThanOrEqualTo(1)))
+                .body("modelDtoList[0].content",equalTo("Great Tool"))
+                .body("modelDtoList[0].newsId",equalTo(newsId));
+    }
+
+    @Test
+    @DisplayName("GET /news/{id}/comments - Should page through the comments that the news counts but embeds only in part")
+    void getNewsCommentsByCursor_ShouldReturnEveryCommentOnce() throws JSONException {
+        String newsJson = """
+                {
+                    "title":"Discussed",
+                    "content":"Many comments",
+                    "author":"Gosling",
+                    "tags": [],
+                    "commentsIds":[]
+                }
+                """;
+
+        Integer newsId =
+                given()
+                        .spec(requestSpecification)
+                        .body(newsJson)
+                .when()
+                        .post("/news")
+                .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .body("commentCount",equalTo(0))
+                        .extract()
+                        .path("id");
+
+        JSONArray comments = new JSONArray();
+        for (int i = 1; i <= 25; i++) {
+            JSONObject commentJson = new JSONObject();
+            commentJson.put("content","Comment " + i);
+            commentJson.put("newsId",newsId);
+            comments.put(commentJson);
+        }
+        List<Integer> commentIds =
+                given()
+                        .spec(requestSpecification)
+                        .body(comments.toString())
+                .when()
+                        .post("/comments/bulk")
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .body("succeeded",equalTo(25))
+                        .extract()
+                        .path("results.resource.id");
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .delete("/comments/" + commentIds.get(0))
+        .then()
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .get("/news/" + newsId)
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("commentCount",equalTo(24))
+                .body("commentsDto",hasSize(10))
+                .body("commentsDto[0].content",equalTo("Comment 2"));
+
+        List<String> pagedContents = new ArrayList<>();
+        String after = null;
+        do {
+            RequestSpecification request = given()
+                    .spec(requestSpecification)
+                    .queryParam("pageSize",10);
+            if (after != null) {
+                request.queryParam("after",after);
+            }
+            JsonPath page = request
+                    .when()
+                            .get("/news/" + newsId + "/comments")
+                    .then()
+                            .statusCode(HttpStatus.OK.value())
+                            .extract()
+                            .jsonPath();
+            pagedContents.addAll(page.getList("modelDtoList.content"));
+            after = page.getString("nextCursor");
+        } while (after != null);
+
+        assertThat(pagedContents.size(), equalTo(24));
+        assertThat(pagedContents.get(0), equalTo("Comment 2"));
+        assertThat(pagedContents.get(23), equalTo("Comment 25"));
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("after","not-a-cursor")
+        .when()
+                .get("/news/" + newsId + "/comments")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .get("/news/" + (newsId + 1000) + "/comments")
+        .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    @DisplayName("News and comment counters - Should follow every write and sort the listings")
+    void newsAndCommentCounters_ShouldFollowWritesAndSortListings(){
+        Integer popularId = createNews("Popular","Gosling","[\"Java\", \"JVM\"]");
+        createNews("Quieter","Gosling","[\"Java\"]");
+        Integer movedId = createNews("Moved","Ritchie","[\"Systems\"]");
+
+        for (int i = 1; i <= 2; i++) {
+            given()
+                    .spec(requestSpecification)
+                    .body("{\"content\":\"Comment " + i + "\",\"newsId\":" + popularId + "}")
+            .when()
+                    .post("/comments")
+            .then()
+                    .statusCode(HttpStatus.CREATED.value());
+        }
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("sortByAndOrder","commentCount:desc")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList[0].title",equalTo("Popular"))
+                .body("modelDtoList[0].commentCount",equalTo(2))
+                .body("modelDtoList[0].authorDto.newsCount",equalTo(2));
+
+        given()
+                .spec(requestSpecification)
+                .body("""
+                        {
+                            "title":"Moved",
+                            "content":"Moved content",
+                            "author":"Gosling",
+                            "tags": ["JVM"],
+                            "commentsIds":[]
+                        }
+                        """)
+        .when()
+                .patch("/news/" + movedId)
+        .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("sortByAndOrder","newsCount:desc")
+        .when()
+                .get("/authors")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.name",contains("Gosling","Ritchie"))
+                .body("modelDtoList.newsCount",contains(3,0));
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("sortByAndOrder","newsCount:desc")
+        .when()
+                .get("/tags")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.name",contains("Java","JVM","Systems"))
+                .body("modelDtoList.newsCount",contains(2,2,0));
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .delete("/news/" + popularId)
+        .then()
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("sortByAndOrder","newsCount:desc")
+        .when()
+                .get("/tags")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.newsCount",contains(1,1,0));
+    }
+
+    @Test
+    @DisplayName("GET /news with match criteria - Should find news by the words of their title and content")
+    void getAllNewsMatchingText_ShouldFollowTheWrites(){
+        createNews("Local elections","Gosling","[]");
+        Integer weatherId = createNews("Weather report","Gosling","[]");
+        Integer electionsId = createNews("Elections, elections!","Gosling","[]");
+        createNews("Selection of recipes","Gosling","[]");
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("searchCriteria","title:match:ELECTIONS")
+                .queryParam("sortByAndOrder","id:asc")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.title",contains("Local elections","Elections, elections!"));
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("searchCriteria","content:match:report")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.id",contains(weatherId));
+
+        given()
+                .spec(requestSpecification)
+                .body("""
+                        {
+                            "title":"Elections weather",
+                            "content":"Rain on the polling day",
+                            "author":"Gosling",
+                            "tags": [],
+                            "commentsIds":[]
+                        }
+                        """)
+        .when()
+                .patch("/news/" + weatherId)
+        .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .delete("/news/" + electionsId)
+        .then()
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("searchCriteria","title:match:elections")
+                .queryParam("sortByAndOrder","id:asc")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.title",contains("Local elections","Elections weather"));
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("searchCriteria","content:match:report")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList",empty());
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("searchCriteria","createdDate:match:elections")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    @DisplayName("GET /news with match criteria beyond max hits - Should list the best matches first and tell the truncation")
+    void getAllNewsMatchingMoreThanMaxHits_ShouldOrderByRelevance(){
+        // one more than news.search.max-hits, the news that repeats the word scores best and sorts last by title
+        String newsJson = IntStream.rangeClosed(1, 1001)
+                .mapToObj(i -> "{\"title\":\"Flood report " + i + "\",\"content\":\"River content\",\"author\":\"Gosling\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        given()
+                .spec(requestSpecification)
+                .body(newsJson)
+        .when()
+                .post("/news/bulk")
+        .then()
+                .statusCode(HttpStatus.OK.value());
+        createNews("Zoo flood flood","Gosling","[]");
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("searchCriteria","title:match:flood")
+                .queryParam("pageSize",100)
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("truncated",equalTo(true))
+                .body("pageCount",equalTo(10))
+                .body("modelDtoList[0].title",equalTo("Zoo flood flood"));
+
+        given()
+                .spec(requestSpecification)
+                .queryParam("searchCriteria","title:match:zoo")
+        .when()
+                .get("/news")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("truncated",nullValue())
+                .body("modelDtoList.title",contains("Zoo flood flood"));
+    }
+
+    private Integer createNews(String title, String author, String tags){
+        return given()
+                .spec(requestSpecification)
+                .body("{\"title\":\"" + title + "\",\"content\":\"" + title + " content\",\"author\":\""
+                        + author + "\",\"tags\":" + tags + ",\"commentsIds\":[]}")
+        .when()
+                .post("/news")
+        .then()
+                .statusCode(HttpStatus.CREATED.value())
+                .extract()
+                .path("id");
     }
 }
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 
@@ -26,6 +28,37 @@ public class TagControllerTest extends BaseControllerTest {
     }
 
 
+    @Test
+    @DisplayName("GET /tags - Should return links of the declared versions on every tag")
+    void getAllTags_ShouldReturnVersionedLinks(){
+        Integer tagId =
+                given()
+                        .spec(requestSpecification)
+                        .body("""
+                                {
+                                    "name":"Technology"
+                                }
+                                """)
+                .when()
+                        .post("/tags")
+                .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .extract()
+                        .path("id");
+
+        String baseUrl = "http://localhost:" + port;
+        given()
+                .spec(requestSpecification)
+        .when()
+                .get("/tags")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList[0]._links.self.href",equalTo(baseUrl + "/api/v2/tags/" + tagId))
+                .body("modelDtoList[0]._links.update.href",equalTo(baseUrl + "/api/v1/tags/" + tagId))
+                .body("modelDtoList[0]._links.tags.href",equalTo(baseUrl + "/api/v1/tags"));
+    }
+
+
     @Test
     @DisplayName("POST /tags - Should return 201 and create tag")
     void createTag_ShouldReturn201(){
@@ -50,6 +83,33 @@ public class TagControllerTest extends BaseControllerTest {
     }
 
 
+    @Test
+    @DisplayName("POST /tags with existing name - Should return 409")
+    void createTagWithExistingName_ShouldReturn409(){
+        String tagJson = """
+                {
+                    "name":"Technology"
+                }
+                """;
+        given()
+                .spec(requestSpecification)
+                .body(tagJson)
+        .when()
+                .post("/tags")
+        .then()
+                .statusCode(HttpStatus.CREATED.value());
+
+        given()
+                .spec(requestSpecification)
+                .body(tagJson)
+        .when()
+                .post("/tags")
+        .then()
+                .statusCode(HttpStatus.CONFLICT.value())
+                .body("code",notNullValue());
+    }
+
+
     @Test
     @DisplayName("POST /tags with invalid data - Should return 400")
     void createTagWithInvalidData_ShouldReturn400(){
@@ -222,4 +282,191 @@ public class TagControllerTest extends BaseControllerTest {
                 .statusCode(HttpStatus.NOT_FOUND.value());
     }
 
+
+    @Test
+    @DisplayName("GET /tags/{id} after PATCH - Should not return the cached tag state")
+    void getTagById_AfterUpdate_ShouldReturnUpdatedTag(){
+        String tagJson = """
+                {
+                    "name":"Technology"
+                }
+                """;
+        Integer tagId =
+                given()
+                        .spec(requestSpecification)
+                        .body(tagJson)
+                .when()
+                        .post("/tags")
+                .then()
+                        .statusCode(HttpStatus.CREATED.value())
+                        .extract()
+                        .path("id");
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .get("/tags/" + tagId)
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("name",equalTo("Technology"));
+
+        String updateJson = """
+                {
+                    "name":"Science"
+                }
+                """;
+        given()
+                .spec(requestSpecification)
+                .body(updateJson)
+        .when()
+                .patch("/tags/"+tagId)
+        .then()
+                .statusCode(HttpStatus.OK.value());
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .get("/tags/" + tagId)
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("name",equalTo("Science"));
+    }
+
+
+    @Test
+    @DisplayName("POST and DELETE /tags/bulk - Should return an outcome per item")
+    void createAndDeleteTagsInBulk_ShouldReturnItemResults(){
+        String tagsJson = """
+                [
+                    {"name":"Bulk one"},
+                    {"name":"Bulk one"},
+                    {"name":"B"},
+                    {"name":"Bulk two"}
+                ]
+                """;
+
+        List<Integer> tagIds =
+                given()
+                        .spec(requestSpecification)
+                        .body(tagsJson)
+                .when()
+                        .post("/tags/bulk")
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .body("succeeded",equalTo(2))
+                        .body("failed",equalTo(2))
+                        .body("results.status",contains(201,409,400,201))
+                        .body("results.index",contains(0,1,2,3))
+                        .body("results[0].resource.name",equalTo("Bulk one"))
+                        .body("results[3].resource.name",equalTo("Bulk two"))
+                        .extract()
+                        .path("results.findAll { it.status == 201 }.resource.id");
+
+        given()
+                .spec(requestSpecification)
+                .body(List.of(tagIds.get(0), tagIds.get(1), 999999))
+        .when()
+                .delete("/tags/bulk")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("succeeded",equalTo(2))
+                .body("results.status",contains(204,204,404));
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .get("/tags/" + tagIds.get(1))
+        .then()
+                .statusCode(HttpStatus.NOT_FOUND.value());
+    }
+
+    @Test
+    @DisplayName("POST /tags/bulk with no items - Should return 400")
+    void createTagsInBulkWithoutItems_ShouldReturn400(){
+        given()
+                .spec(requestSpecification)
+                .body("[]")
+        .when()
+                .post("/tags/bulk")
+        .then()
+                .statusCode(HttpStatus.BAD_REQUEST.value());
+    }
+
+    @Test
+    @DisplayName("GET /tags with like criteria - Should find the same tags before and after they are renamed")
+    void getAllTagsByLikeCriteria_ShouldFollowRenames(){
+        List<Integer> tagIds =
+                given()
+                        .spec(requestSpecification)
+                        .body("""
+                                [
+                                    {"name":"Java"},
+                                    {"name":"JavaScript"},
+                                    {"name":"Kotlin"}
+                                ]
+                                """)
+                .when()
+                        .post("/tags/bulk")
+                .then()
+                        .statusCode(HttpStatus.OK.value())
+                        .body("succeeded",equalTo(3))
+                        .extract()
+                        .path("results.resource.id");
+
+        assertTagNames("name:like:ava", "Java", "JavaScript");
+        assertTagNames("name:startlike:Jav", "Java", "JavaScript");
+        assertTagNames("name:endlike:ava", "Java");
+        assertTagNames("name:endlike:Script", "JavaScript");
+        assertTagNames("name:like:J_va", "Java", "JavaScript");
+        assertTagNames("name:like:Swift");
+
+        given()
+                .spec(requestSpecification)
+                .body("""
+                        {"name":"Scala"}
+                        """)
+        .when()
+                .patch("/tags/" + tagIds.get(0))
+        .then()
+                .statusCode(HttpStatus.OK.value());
+
+        assertTagNames("name:like:ava", "JavaScript");
+        assertTagNames("name:startlike:Sca", "Scala");
+        assertTagNames("name:like:cal", "Scala");
+
+        given()
+                .spec(requestSpecification)
+        .when()
+                .delete("/tags/" + tagIds.get(2))
+        .then()
+                .statusCode(HttpStatus.NO_CONTENT.value());
+
+        assertTagNames("name:like:otl");
+    }
+
+    private void assertTagNames(String searchCriteria, String... names){
+        given()
+                .spec(requestSpecification)
+                .queryParam("searchCriteria",searchCriteria)
+                .queryParam("sortByAndOrder","name:asc")
+        .when()
+                .get("/tags")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("modelDtoList.size()",equalTo(names.length))
+                .body("modelDtoList.name",hasItems(names));
+    }
+
+    @Test
+    @DisplayName("GET /actuator/metrics - Should expose second-level cache hits and misses")
+    void getSecondLevelCacheMetrics_ShouldReturn200(){
+        given()
+                .spec(requestSpecification)
+                .basePath("/actuator")
+        .when()
+                .get("/metrics/hibernate.second.level.cache.requests")
+        .then()
+                .statusCode(HttpStatus.OK.value())
+                .body("availableTags.find { it.tag == 'result' }.values",hasItems("hit","miss"));
+    }
 }